@@ -66,6 +66,21 @@ public abstract class Binarizer {
    */
   public abstract BitMatrix getBlackMatrix() throws NotFoundException;
 
+  /**
+   * Like {@link #getBlackMatrix()}, but only guarantees that the given rows are binarized. The
+   * rows must be exactly those {@link #getBlackMatrix()} would give, so that callers may mix both.
+   * By default this binarizes the whole image; implementations which can binarize part of it for
+   * less may override this.
+   *
+   * @param top The first row needed, in [0, height)
+   * @param height The number of rows needed
+   * @return A matrix the size of the image, of which at least the given rows are binarized
+   * @throws NotFoundException if image can't be binarized to make a matrix
+   */
+  public BitMatrix getBlackMatrixRows(int top, int height) throws NotFoundException {
+    return getBlackMatrix();
+  }
+
   /**
    * Creates a new object with the same type as this Binarizer implementation, but with pristine
    * state. This is needed because Binarizer implementations may be stateful, e.g. keeping a cache
@@ -76,6 +91,19 @@ public abstract class Binarizer {
    */
   public abstract Binarizer createBinarizer(LuminanceSource source);
 
+  /**
+   * Like {@link #createBinarizer(LuminanceSource)}, but the new Binarizer doesn't share any mutable
+   * state, such as reusable buffers, with this one, so that each may be used on its own thread.
+   * By default this is the same as {@code createBinarizer}; implementations which share such state
+   * override it.
+   *
+   * @param source The LuminanceSource this Binarizer will operate on.
+   * @return A new concrete Binarizer implementation object.
+   */
+  public Binarizer createIndependentBinarizer(LuminanceSource source) {
+    return createBinarizer(source);
+  }
+
   public final int getWidth() {
     return source.getWidth();
   }
@@ -18,6 +18,7 @@ package com.google.zxing;
 
 import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.RunLengthRow;
 
 /**
  * This class is the core bitmap class used by ZXing to represent 1 bit data. Reader objects
@@ -27,8 +28,13 @@ import com.google.zxing.common.BitMatrix;
  */
 public final class BinaryBitmap {
 
+  // Marks rows in the row cache which could not be binarized
+  private static final RunLengthRow NOT_FOUND_ROW = new RunLengthRow(new BitArray());
+
   private final Binarizer binarizer;
   private BitMatrix matrix;
+  private RunLengthRow[] rowCache;
+  private RunLengthRow[] reversedRowCache;
 
   public BinaryBitmap(Binarizer binarizer) {
     if (binarizer == null) {
@@ -66,6 +72,65 @@ public final class BinaryBitmap {
     return binarizer.getBlackRow(y, row);
   }
 
+  /**
+   * Like {@link #getBlackRow(int, BitArray)}, but each row is binarized only once per bitmap and
+   * kept, so that several 1D readers scanning the same rows share the work. The row and its reverse,
+   * used to look for upside down barcodes, are both cached.
+   *
+   * @param y The row to fetch, which must be in [0, bitmap height)
+   * @param reversed if true, return the row reversed, right to left
+   * @return The array of bits for this row (true means black). This is shared by all callers
+   *  and must not be modified, or must be restored before returning (as for a temporary reversal).
+   * @throws NotFoundException if row can't be binarized
+   * @see #getCachedBlackRuns(int, boolean)
+   */
+  public BitArray getCachedBlackRow(int y, boolean reversed) throws NotFoundException {
+    return getCachedBlackRuns(y, reversed).getRow();
+  }
+
+  /**
+   * Like {@link #getCachedBlackRow(int, boolean)}, but returns the row as runs of black and white
+   * pixels. These are computed once along with the cached row.
+   *
+   * @param y The row to fetch, which must be in [0, bitmap height)
+   * @param reversed if true, return the row reversed, right to left
+   * @return The runs of pixels in this row, which are shared by all callers. The underlying row
+   *  must not be modified.
+   * @throws NotFoundException if row can't be binarized
+   */
+  public RunLengthRow getCachedBlackRuns(int y, boolean reversed) throws NotFoundException {
+    if (rowCache == null) {
+      int height = getHeight();
+      rowCache = new RunLengthRow[height];
+      reversedRowCache = new RunLengthRow[height];
+    }
+    RunLengthRow[] cache = reversed ? reversedRowCache : rowCache;
+    RunLengthRow runs = cache[y];
+    if (runs == null) {
+      RunLengthRow forward = rowCache[y];
+      if (forward == null) {
+        try {
+          forward = new RunLengthRow(binarizer.getBlackRow(y, null));
+        } catch (NotFoundException nfe) {
+          forward = NOT_FOUND_ROW;
+        }
+        rowCache[y] = forward;
+      }
+      if (reversed && forward != NOT_FOUND_ROW) {
+        BitArray row = forward.getRow().clone();
+        row.reverse();
+        runs = new RunLengthRow(row);
+      } else {
+        runs = forward;
+      }
+      cache[y] = runs;
+    }
+    if (runs == NOT_FOUND_ROW) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return runs;
+  }
+
   /**
    * Converts a 2D array of luminance data to 1 bit. As above, assume this method is expensive
    * and do not call it repeatedly. This method is intended for decoding 2D barcodes and may or
@@ -87,6 +152,25 @@ public final class BinaryBitmap {
     return matrix;
   }
 
+  /**
+   * Like {@link #getBlackMatrix()}, but only guarantees that the given rows are binarized, which
+   * is cheaper for callers that only look at part of a large image, if the binarizer supports it.
+   * The rows are the same as those of {@link #getBlackMatrix()}, so callers may mix both, and what
+   * was binarized for one is not binarized again for the other.
+   *
+   * @param top The first row needed, which must be in [0, bitmap height)
+   * @param height The number of rows needed
+   * @return A matrix the size of the bitmap, of which at least the given rows are binarized
+   * @throws NotFoundException if image can't be binarized to make a matrix
+   * @see Binarizer#getBlackMatrixRows(int, int)
+   */
+  public BitMatrix getBlackMatrixRows(int top, int height) throws NotFoundException {
+    if (top < 0 || height < 1 || top + height > getHeight()) {
+      throw new IllegalArgumentException("Rows must be within the bitmap");
+    }
+    return matrix == null ? binarizer.getBlackMatrixRows(top, height) : matrix;
+  }
+
   /**
    * @return Whether this bitmap can be cropped.
    */
@@ -109,6 +193,50 @@ public final class BinaryBitmap {
     return new BinaryBitmap(binarizer.createBinarizer(newSource));
   }
 
+  /**
+   * Like {@link #crop(int, int, int, int)}, but the black matrix of the result is cut out of this
+   * bitmap's, of which only the rows of the rectangle are binarized, through
+   * {@link #getBlackMatrixRows(int, int)}. Several rectangles, and readers of each, thus share the
+   * binarization of the rows they cover, and see the bits that decoding the whole image would.
+   * Rows for 1D readers are binarized from the cropped image data, as for {@code crop}.
+   */
+  BinaryBitmap cropSharingMatrix(int left, int top, int width, int height) {
+    LuminanceSource newSource = binarizer.getLuminanceSource().crop(left, top, width, height);
+    return new BinaryBitmap(new CroppedMatrixBinarizer(binarizer.createBinarizer(newSource), this, left, top));
+  }
+
+  /**
+   * Returns a new object over the same image data, with its own binarizer and caches, made by
+   * {@link Binarizer#createIndependentBinarizer(LuminanceSource)} so that it doesn't share any
+   * {@link com.google.zxing.common.BinarizerWorkspace} with this one. Binarizing through one thus
+   * doesn't touch the other, so several threads may each scan the image through their own view,
+   * as long as the {@link LuminanceSource} can be read by several threads at once.
+   *
+   * @return A new view of this object's image data.
+   */
+  public BinaryBitmap newView() {
+    return new BinaryBitmap(binarizer.createIndependentBinarizer(binarizer.getLuminanceSource()));
+  }
+
+  /**
+   * @return Whether this bitmap can be downsampled.
+   */
+  public boolean isDownsampleSupported() {
+    return binarizer.getLuminanceSource().isDownsampleSupported();
+  }
+
+  /**
+   * Returns a new object with image data scaled down to half the width and height.
+   * Only callable if {@link #isDownsampleSupported()} is true.
+   *
+   * @return A downsampled version of this object.
+   * @see LuminanceSource#downsample()
+   */
+  public BinaryBitmap downsample() {
+    LuminanceSource newSource = binarizer.getLuminanceSource().downsample();
+    return new BinaryBitmap(binarizer.createBinarizer(newSource));
+  }
+
   /**
    * @return Whether this bitmap supports counter-clockwise rotation.
    */
@@ -147,4 +275,60 @@ public final class BinaryBitmap {
     }
   }
 
+  /**
+   * Binarizes rows with a binarizer of the cropped image data, but cuts its matrix out of the
+   * whole bitmap's.
+   */
+  private static final class CroppedMatrixBinarizer extends Binarizer {
+
+    private final Binarizer rowBinarizer;
+    private final BinaryBitmap parent;
+    private final int left;
+    private final int top;
+    private BitMatrix matrix;
+
+    CroppedMatrixBinarizer(Binarizer rowBinarizer, BinaryBitmap parent, int left, int top) {
+      super(rowBinarizer.getLuminanceSource());
+      this.rowBinarizer = rowBinarizer;
+      this.parent = parent;
+      this.left = left;
+      this.top = top;
+    }
+
+    @Override
+    public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
+      return rowBinarizer.getBlackRow(y, row);
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() throws NotFoundException {
+      if (matrix == null) {
+        int width = getWidth();
+        int height = getHeight();
+        BitMatrix rows = parent.getBlackMatrixRows(top, height);
+        BitMatrix newMatrix = new BitMatrix(width, height);
+        for (int y = 0; y < height; y++) {
+          for (int x = 0; x < width; x++) {
+            if (rows.get(left + x, top + y)) {
+              newMatrix.set(x, y);
+            }
+          }
+        }
+        matrix = newMatrix;
+      }
+      return matrix;
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+      // Derived images no longer line up with the parent's matrix
+      return rowBinarizer.createBinarizer(source);
+    }
+
+    @Override
+    public Binarizer createIndependentBinarizer(LuminanceSource source) {
+      return rowBinarizer.createIndependentBinarizer(source);
+    }
+  }
+
 }
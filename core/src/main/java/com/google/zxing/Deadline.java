@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A time limit on decoding, passed as {@link DecodeHintType#DEADLINE}. It can also be cancelled
+ * from another thread at any time, so it serves as an interruption token too.</p>
+ *
+ * <p>Cancellation is cooperative: readers check the deadline at points where they can stop
+ * cleanly, such as between rows of the image or between readers, and then give up or finish
+ * with what they found so far. So decoding still takes a little longer than the deadline.</p>
+ */
+public final class Deadline {
+
+  private static final Deadline NONE = new Deadline(false, 0L, null);
+
+  private final boolean bounded;
+  private final long deadlineNanos;
+  private final Deadline parent;
+  private volatile boolean cancelled;
+
+  private Deadline(boolean bounded, long deadlineNanos, Deadline parent) {
+    this.bounded = bounded;
+    this.deadlineNanos = deadlineNanos;
+    this.parent = parent;
+  }
+
+  /**
+   * @param duration time from now after which decoding should stop
+   * @param unit unit of duration
+   * @return a deadline that long from now
+   */
+  public static Deadline after(long duration, TimeUnit unit) {
+    return new Deadline(true, System.nanoTime() + unit.toNanos(duration), null);
+  }
+
+  /**
+   * @return a deadline which only expires when it is cancelled
+   */
+  public static Deadline cancellable() {
+    return new Deadline(false, 0L, null);
+  }
+
+  /**
+   * @param hints decode hints, or null
+   * @return the deadline given by {@link DecodeHintType#DEADLINE}, or one which never expires
+   */
+  public static Deadline fromHints(Map<DecodeHintType,?> hints) {
+    Deadline deadline = hints == null ? null : (Deadline) hints.get(DecodeHintType.DEADLINE);
+    return deadline == null ? NONE : deadline;
+  }
+
+  /**
+   * @return a deadline which expires when this one does, but which can also be cancelled on its
+   *  own, for example to stop other work once one part of it has succeeded
+   */
+  public Deadline newCancellable() {
+    return new Deadline(false, 0L, this);
+  }
+
+  /**
+   * Makes the deadline expire now. This may be called from any thread.
+   */
+  public void cancel() {
+    if (this == NONE) {
+      throw new IllegalStateException("Can't cancel the absence of a deadline");
+    }
+    cancelled = true;
+  }
+
+  /**
+   * @return true iff the deadline has passed or it was cancelled
+   */
+  public boolean isExpired() {
+    return cancelled ||
+        (bounded && System.nanoTime() - deadlineNanos >= 0) ||
+        (parent != null && parent.isExpired());
+  }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Map;
+
+/**
+ * <p>The mutable state of decoding with a {@link SharedMultiFormatReader}: the readers for its
+ * formats, and their buffers. A context may be used by only one thread at a time, but it can be
+ * reused for any number of images, so a thread which keeps one decodes without allocating a new
+ * set of readers each time.</p>
+ *
+ * @see SharedMultiFormatReader#newContext()
+ */
+public final class DecodeContext {
+
+  private final SharedMultiFormatReader owner;
+  private final MultiFormatReader reader;
+
+  DecodeContext(SharedMultiFormatReader owner,
+                Map<DecodeHintType,?> hints,
+                ReaderStatistics statistics) {
+    this.owner = owner;
+    reader = new MultiFormatReader();
+    reader.setStatistics(statistics);
+    reader.setHints(hints);
+  }
+
+  SharedMultiFormatReader getOwner() {
+    return owner;
+  }
+
+  DecodeOutcome decode(BinaryBitmap image) {
+    // Some readers, like RSS, collect state over the rows of an image, which must not carry over
+    // from one image to the next
+    reader.reset();
+    return reader.decodeOutcomeWithState(image);
+  }
+
+}
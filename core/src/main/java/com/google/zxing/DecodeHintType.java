@@ -16,6 +16,8 @@
 
 package com.google.zxing;
 
+import com.google.zxing.common.GridSampler;
+
 import java.util.List;
 
 /**
@@ -98,6 +100,44 @@ public enum DecodeHintType {
    */
   ALLOWED_EAN_EXTENSIONS(int[].class),
 
+  /**
+   * Stop trying to decode when the time is up, or when cancelled from another thread, and return
+   * whatever was found by then. Readers check this between units of work, such as rows of the
+   * image, so it bounds the time taken only roughly. Maps to a {@link Deadline}.
+   */
+  DEADLINE(Deadline.class),
+
+  /**
+   * Only look for barcodes within these areas of the image, each given as an {@code int[]} of
+   * {@code {left, top, width, height}}. Areas are tried in order, so put the likeliest first.
+   * Result points are still relative to the whole image. Maps to a {@link List} of {@code int[]}.
+   */
+  REGIONS_OF_INTEREST(List.class),
+
+  /**
+   * The {@link GridSampler} with which 2D detectors should sample the barcode, in place of the
+   * one set globally with {@link GridSampler#setGridSampler(GridSampler)}.
+   * Maps to a {@link GridSampler}.
+   */
+  GRID_SAMPLER(GridSampler.class),
+
+  /**
+   * Keep scanning rows for a 1D barcode until this many rows decode to the same barcode, rather
+   * than stopping at the first. Rows decoding to the same text and format are taken to be the
+   * same barcode if they span overlapping columns. If no barcode gets this many rows by the end
+   * of the scan, the one with the most is returned. Results then carry
+   * {@link ResultMetadataType#AGREEING_ROWS}. Maps to an {@link Integer}.
+   */
+  ROW_CONSENSUS(Integer.class),
+
+  /**
+   * Angles, in degrees counterclockwise from horizontal, of lines along which to look for a 1D
+   * barcode that isn't found in rows, for barcodes which are skewed. The lines are sampled from
+   * the image as it is, rather than from a rotated copy. Results carry the angle they were found
+   * at in {@link ResultMetadataType#ORIENTATION}. Maps to an {@code int[]}.
+   */
+  SCAN_ANGLES(int[].class),
+
   // End of enumeration values.
   ;
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Map;
+
+/**
+ * <p>The outcome of an attempt to decode a barcode: either the {@link Result}, or the reason
+ * decoding failed. This is returned by {@link OutcomeReader#decodeOutcome(BinaryBitmap, Map)}
+ * in place of throwing a {@link ReaderException}, which is costly when failures are as common as
+ * they are in continuous scanning.</p>
+ *
+ * <p>Failures are shared instances, so creating them costs nothing.</p>
+ *
+ * @see OutcomeReader
+ */
+public final class DecodeOutcome {
+
+  /**
+   * Reasons decoding can fail, which also tell how far it got.
+   */
+  public enum Failure {
+    /** No barcode was found; see {@link NotFoundException} */
+    NOT_FOUND,
+    /** A barcode was found, but its contents were not valid; see {@link FormatException} */
+    FORMAT,
+    /** A barcode was found and read, but did not pass its checksum; see {@link ChecksumException} */
+    CHECKSUM,
+  }
+
+  private static final DecodeOutcome NOT_FOUND = new DecodeOutcome(null, Failure.NOT_FOUND);
+  private static final DecodeOutcome FORMAT = new DecodeOutcome(null, Failure.FORMAT);
+  private static final DecodeOutcome CHECKSUM = new DecodeOutcome(null, Failure.CHECKSUM);
+
+  private final Result result;
+  private final Failure failure;
+
+  private DecodeOutcome(Result result, Failure failure) {
+    this.result = result;
+    this.failure = failure;
+  }
+
+  /**
+   * @param result result of decoding a barcode
+   * @return a successful outcome with that result
+   */
+  public static DecodeOutcome of(Result result) {
+    if (result == null) {
+      throw new IllegalArgumentException("Result must be non-null.");
+    }
+    return new DecodeOutcome(result, null);
+  }
+
+  /**
+   * @param re an exception thrown by a {@link Reader}
+   * @return the failed outcome corresponding to it
+   */
+  public static DecodeOutcome of(ReaderException re) {
+    if (re instanceof ChecksumException) {
+      return CHECKSUM;
+    }
+    if (re instanceof FormatException) {
+      return FORMAT;
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * @return the outcome when no barcode was found
+   */
+  public static DecodeOutcome notFound() {
+    return NOT_FOUND;
+  }
+
+  /**
+   * @return the outcome when a barcode's contents were not valid
+   */
+  public static DecodeOutcome formatError() {
+    return FORMAT;
+  }
+
+  /**
+   * @return the outcome when a barcode did not pass its checksum
+   */
+  public static DecodeOutcome checksumError() {
+    return CHECKSUM;
+  }
+
+  /**
+   * Combines the outcomes of several attempts to decode, of which the caller returns one.
+   *
+   * @param best outcome so far
+   * @param outcome outcome of another attempt
+   * @return best if it is a success, or else outcome if it is a success or a failure which got
+   *  further, such as {@link Failure#CHECKSUM} over {@link Failure#NOT_FOUND}, or else best
+   */
+  public static DecodeOutcome furthest(DecodeOutcome best, DecodeOutcome outcome) {
+    if (best.isSuccess()) {
+      return best;
+    }
+    // Failures are ordered by how far decoding got
+    if (outcome.isSuccess() || outcome.failure.compareTo(best.failure) > 0) {
+      return outcome;
+    }
+    return best;
+  }
+
+  /**
+   * Decodes an image with any reader, natively if it is an {@link OutcomeReader}, or else by
+   * catching the exception it throws on failure.
+   *
+   * @param reader reader to decode with
+   * @param image image of barcode to decode
+   * @param hints passed as optional hints to the reader
+   * @return the outcome of decoding
+   */
+  public static DecodeOutcome decode(Reader reader, BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (reader instanceof OutcomeReader) {
+      return ((OutcomeReader) reader).decodeOutcome(image, hints);
+    }
+    try {
+      return of(reader.decode(image, hints));
+    } catch (ReaderException re) {
+      return of(re);
+    }
+  }
+
+  /**
+   * @return true iff a barcode was decoded
+   */
+  public boolean isSuccess() {
+    return result != null;
+  }
+
+  /**
+   * @return result of decoding, or null if decoding failed
+   */
+  public Result getResult() {
+    return result;
+  }
+
+  /**
+   * @return reason decoding failed, or null if it succeeded
+   */
+  public Failure getFailure() {
+    return failure;
+  }
+
+  /**
+   * Adapts this to the exception-based {@link Reader} API.
+   *
+   * @return result of decoding
+   * @throws NotFoundException if no barcode was found
+   * @throws FormatException if a barcode's contents were not valid
+   * @throws ChecksumException if a barcode did not pass its checksum
+   */
+  public Result getResultOrThrow() throws NotFoundException, FormatException, ChecksumException {
+    if (failure == null) {
+      return result;
+    }
+    switch (failure) {
+      case FORMAT:
+        throw FormatException.getFormatInstance();
+      case CHECKSUM:
+        throw ChecksumException.getChecksumInstance();
+      default:
+        throw NotFoundException.getNotFoundInstance();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return failure == null ? String.valueOf(result) : failure.toString();
+  }
+
+}
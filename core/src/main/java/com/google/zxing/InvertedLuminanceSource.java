@@ -62,6 +62,16 @@ public final class InvertedLuminanceSource extends LuminanceSource {
     return new InvertedLuminanceSource(delegate.crop(left, top, width, height));
   }
 
+  @Override
+  public boolean isDownsampleSupported() {
+    return delegate.isDownsampleSupported();
+  }
+
+  @Override
+  public LuminanceSource downsample() {
+    return new InvertedLuminanceSource(delegate.downsample());
+  }
+
   @Override
   public boolean isRotateSupported() {
     return delegate.isRotateSupported();
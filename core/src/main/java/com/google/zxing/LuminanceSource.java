@@ -101,6 +101,24 @@ public abstract class LuminanceSource {
     return false;
   }
 
+  /**
+   * @return Whether this subclass supports downsampling.
+   */
+  public boolean isDownsampleSupported() {
+    return false;
+  }
+
+  /**
+   * Returns a new object with image data scaled down to half the width and height, rounded down,
+   * each pixel being the average of the corresponding 2x2 pixels of this image. Only callable if
+   * {@link #isDownsampleSupported()} is true.
+   *
+   * @return A downsampled version of this object.
+   */
+  public LuminanceSource downsample() {
+    throw new UnsupportedOperationException("This luminance source does not support downsampling.");
+  }
+
   /**
    * @return a wrapper of this {@code LuminanceSource} which inverts the luminances it returns -- black becomes
    *  white and vice versa, and each value becomes (255-value).
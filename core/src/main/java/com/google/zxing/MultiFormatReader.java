@@ -25,6 +25,7 @@ import com.google.zxing.qrcode.QRCodeReader;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -35,10 +36,11 @@ import java.util.Map;
  * @author Sean Owen
  * @author dswitkin@google.com (Daniel Switkin)
  */
-public final class MultiFormatReader implements Reader {
+public final class MultiFormatReader implements OutcomeReader {
 
   private Map<DecodeHintType,?> hints;
   private Reader[] readers;
+  private ReaderStatistics statistics;
 
   /**
    * This version of decode honors the intent of Reader.decode(BinaryBitmap) in that it
@@ -69,6 +71,19 @@ public final class MultiFormatReader implements Reader {
     return decodeInternal(image);
   }
 
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it.
+   *
+   * @param image The pixel data to decode
+   * @param hints The hints to use, clearing the previous state.
+   * @return The contents of the image, or the failure which got furthest
+   */
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    setHints(hints);
+    return decodeOutcomeInternal(image);
+  }
+
   /**
    * Decode an image using the state set up by calling setHints() previously. Continuous scan
    * clients will get a <b>large</b> speed increase by using this instead of decode().
@@ -85,6 +100,21 @@ public final class MultiFormatReader implements Reader {
     return decodeInternal(image);
   }
 
+  /**
+   * Like {@link #decodeWithState(BinaryBitmap)}, but returns failure rather than throwing it.
+   * Continuous scan clients, for which failure is the common case, may prefer this.
+   *
+   * @param image The pixel data to decode
+   * @return The contents of the image, or the failure which got furthest
+   */
+  public DecodeOutcome decodeOutcomeWithState(BinaryBitmap image) {
+    // Make sure to set up the default state so we don't crash
+    if (readers == null) {
+      setHints(null);
+    }
+    return decodeOutcomeInternal(image);
+  }
+
   /**
    * This method adds state to the MultiFormatReader. By setting the hints once, subsequent calls
    * to decodeWithState(image) can reuse the same set of readers without reallocating memory. This
@@ -94,7 +124,39 @@ public final class MultiFormatReader implements Reader {
    */
   public void setHints(Map<DecodeHintType,?> hints) {
     this.hints = hints;
+    this.readers = createReaders(hints);
+    if (statistics != null) {
+      readers = statistics.order(readers);
+    }
+  }
 
+  /**
+   * Turns on adaptive ordering of readers. Each reader's successes and time taken are recorded in
+   * statistics, and readers are reordered every so often so that the likeliest and cheapest run
+   * first. Statistics may be shared by many MultiFormatReaders, and outlive them, so that what
+   * was learned carries over.
+   *
+   * @param statistics where to record how readers perform, or null to use the default order
+   */
+  public void setStatistics(ReaderStatistics statistics) {
+    this.statistics = statistics;
+    if (readers != null) {
+      readers = statistics == null ? createReaders(hints) : statistics.order(readers);
+    }
+  }
+
+  /**
+   * @return statistics set by {@link #setStatistics(ReaderStatistics)}, or null
+   */
+  public ReaderStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * @param hints decode hints, or null
+   * @return new readers for the formats allowed by hints, in the order they should be tried
+   */
+  static Reader[] createReaders(Map<DecodeHintType,?> hints) {
     boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
     @SuppressWarnings("unchecked")
     Collection<BarcodeFormat> formats =
@@ -152,7 +214,7 @@ public final class MultiFormatReader implements Reader {
         readers.add(new MultiFormatOneDReader(hints));
       }
     }
-    this.readers = readers.toArray(new Reader[readers.size()]);
+    return readers.toArray(new Reader[readers.size()]);
   }
 
   @Override
@@ -165,16 +227,63 @@ public final class MultiFormatReader implements Reader {
   }
 
   private Result decodeInternal(BinaryBitmap image) throws NotFoundException {
+    DecodeOutcome outcome = decodeOutcomeInternal(image);
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
+
+  private DecodeOutcome decodeOutcomeInternal(BinaryBitmap image) {
+    DecodeOutcome outcome = decodeRegions(image);
+    if (statistics != null && readers != null && statistics.recordDecode()) {
+      readers = statistics.order(readers);
+    }
+    return outcome;
+  }
+
+  private DecodeOutcome decodeRegions(BinaryBitmap image) {
+    List<int[]> regions = RegionsOfInterest.getRegions(image, hints);
+    if (regions == null) {
+      return decodeOutcomeInternal(image, hints);
+    }
+    // Crop each region once, so that all readers share its binarization
+    Map<DecodeHintType,?> regionHints = RegionsOfInterest.withoutRegions(hints);
+    DecodeOutcome best = DecodeOutcome.notFound();
+    for (int[] region : regions) {
+      DecodeOutcome outcome = decodeOutcomeInternal(RegionsOfInterest.crop(image, region),
+                                                    RegionsOfInterest.forRegion(regionHints, region));
+      if (outcome.isSuccess()) {
+        return RegionsOfInterest.makeAbsolute(outcome, region);
+      }
+      best = DecodeOutcome.furthest(best, outcome);
+    }
+    return best;
+  }
+
+  private DecodeOutcome decodeOutcomeInternal(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    DecodeOutcome best = DecodeOutcome.notFound();
     if (readers != null) {
+      Deadline deadline = Deadline.fromHints(hints);
       for (Reader reader : readers) {
-        try {
-          return reader.decode(image, hints);
-        } catch (ReaderException re) {
-          // continue
+        if (deadline.isExpired()) {
+          break;
+        }
+        DecodeOutcome outcome;
+        if (statistics == null) {
+          outcome = DecodeOutcome.decode(reader, image, hints);
+        } else {
+          long start = System.nanoTime();
+          outcome = DecodeOutcome.decode(reader, image, hints);
+          statistics.record(reader, outcome, System.nanoTime() - start);
+        }
+        if (outcome.isSuccess()) {
+          return outcome;
         }
+        best = DecodeOutcome.furthest(best, outcome);
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return best;
   }
 
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Passes result points on to another callback, translated from the coordinates of a crop to those
+ * of the whole image. Readers which decode a crop of the image on the caller's behalf use this so
+ * that {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK} still hears about points in terms of the
+ * image it was given.
+ */
+public final class OffsetResultPointCallback implements ResultPointCallback {
+
+  private final ResultPointCallback delegate;
+  private final int left;
+  private final int top;
+
+  public OffsetResultPointCallback(ResultPointCallback delegate, int left, int top) {
+    this.delegate = delegate;
+    this.left = left;
+    this.top = top;
+  }
+
+  @Override
+  public void foundPossibleResultPoint(ResultPoint point) {
+    delegate.foundPossibleResultPoint(new ResultPoint(point.getX() + left, point.getY() + top));
+  }
+
+  /**
+   * @param hints decode hints, or null
+   * @param left left of the crop in the whole image
+   * @param top top of the crop in the whole image
+   * @return the same hints, with any {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK} replaced by one
+   *  which translates points found in the crop
+   */
+  public static Map<DecodeHintType,?> forCrop(Map<DecodeHintType,?> hints, int left, int top) {
+    ResultPointCallback callback =
+        hints == null ? null : (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    if (callback == null) {
+      return hints;
+    }
+    Map<DecodeHintType,Object> cropHints = new EnumMap<>(DecodeHintType.class);
+    cropHints.putAll(hints);
+    cropHints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, new OffsetResultPointCallback(callback, left, top));
+    return cropHints;
+  }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Map;
+
+/**
+ * A {@link Reader} which can also report failure to decode as a {@link DecodeOutcome} rather
+ * than by throwing an exception. For these readers,
+ * {@link Reader#decode(BinaryBitmap, Map)} is just an adapter which throws the exception
+ * matching a failed outcome.
+ *
+ * @see DecodeOutcome#decode(Reader, BinaryBitmap, Map)
+ */
+public interface OutcomeReader extends Reader {
+
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it.
+   *
+   * @param image image of barcode to decode
+   * @param hints passed as optional hints to the reader
+   * @return the result of decoding, or the reason it failed
+   */
+  DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints);
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+/**
+ * A wrapper implementation of {@link LuminanceSource} which adds support for downsampling to any
+ * source, so that it can be used as a multi-resolution pyramid. Each call to {@link #downsample()}
+ * returns the next, half-size level of the pyramid, which is computed the first time it is
+ * requested and then kept. Levels are themselves pyramids, so 1/4, 1/8 and smaller levels are
+ * available by downsampling repeatedly.
+ *
+ * @see com.google.zxing.multi.CoarseToFineReader
+ */
+public final class PyramidLuminanceSource extends LuminanceSource {
+
+  private final LuminanceSource delegate;
+  private PyramidLuminanceSource downsampled;
+
+  public PyramidLuminanceSource(LuminanceSource delegate) {
+    super(delegate.getWidth(), delegate.getHeight());
+    this.delegate = delegate;
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    return delegate.getRow(y, row);
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    return delegate.getMatrix();
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return delegate.isCropSupported();
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new PyramidLuminanceSource(delegate.crop(left, top, width, height));
+  }
+
+  /**
+   * @return true if the image is at least 2x2 pixels
+   */
+  @Override
+  public boolean isDownsampleSupported() {
+    return getWidth() >= 2 && getHeight() >= 2;
+  }
+
+  @Override
+  public LuminanceSource downsample() {
+    if (downsampled == null) {
+      int width = getWidth();
+      int height = getHeight();
+      int halfWidth = width / 2;
+      int halfHeight = height / 2;
+      byte[] halfMatrix = new byte[halfWidth * halfHeight];
+      int[] sums = new int[halfWidth];
+      byte[] row = null;
+      for (int y = 0; y < halfHeight; y++) {
+        // The top row is summed before fetching the bottom one, as a source may reuse its storage
+        row = delegate.getRow(2 * y, row);
+        for (int x = 0; x < halfWidth; x++) {
+          sums[x] = (row[2 * x] & 0xFF) + (row[2 * x + 1] & 0xFF);
+        }
+        row = delegate.getRow(2 * y + 1, row);
+        int outputOffset = y * halfWidth;
+        for (int x = 0; x < halfWidth; x++) {
+          int sum = sums[x] + (row[2 * x] & 0xFF) + (row[2 * x + 1] & 0xFF);
+          // Average of the 2x2 pixels, rounded
+          halfMatrix[outputOffset + x] = (byte) ((sum + 2) >> 2);
+        }
+      }
+      downsampled = new PyramidLuminanceSource(
+          new PlanarYUVLuminanceSource(halfMatrix, halfWidth, halfHeight, 0, 0, halfWidth, halfHeight, false));
+    }
+    return downsampled;
+  }
+
+  @Override
+  public boolean isRotateSupported() {
+    return delegate.isRotateSupported();
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise() {
+    return new PyramidLuminanceSource(delegate.rotateCounterClockwise());
+  }
+
+  @Override
+  public LuminanceSource rotateCounterClockwise45() {
+    return new PyramidLuminanceSource(delegate.rotateCounterClockwise45());
+  }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Counts how often, and how quickly, each kind of reader decodes a barcode, and each format is
+ * found. A {@link MultiFormatReader} given one of these with
+ * {@link MultiFormatReader#setStatistics(ReaderStatistics)} records every attempt in it, and
+ * periodically reorders its readers so that those likeliest to succeed for the least time run
+ * first.</p>
+ *
+ * <p>Counters are updated without locking, so one instance may be shared by readers on many
+ * threads, and read at any time for monitoring.</p>
+ *
+ * @see MultiFormatReader#setStatistics(ReaderStatistics)
+ */
+public final class ReaderStatistics {
+
+  // Readers with fewer attempts than this keep their default place
+  private static final int MIN_ATTEMPTS = 10;
+  // Readers are reordered after this many decodes
+  private static final int REORDER_INTERVAL = 64;
+
+  private final ConcurrentMap<Class<?>,Counters> readerCounters = new ConcurrentHashMap<>();
+  private final AtomicLongArray formatHits = new AtomicLongArray(BarcodeFormat.values().length);
+  private final AtomicLongArray formatNanos = new AtomicLongArray(BarcodeFormat.values().length);
+  private final AtomicLong decodes = new AtomicLong();
+
+  /**
+   * @param readerClass kind of reader
+   * @return number of times a reader of that kind was run
+   */
+  public long getAttempts(Class<? extends Reader> readerClass) {
+    Counters counters = readerCounters.get(readerClass);
+    return counters == null ? 0L : counters.attempts.get();
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return number of times a reader of that kind decoded a barcode
+   */
+  public long getSuccesses(Class<? extends Reader> readerClass) {
+    Counters counters = readerCounters.get(readerClass);
+    return counters == null ? 0L : counters.successes.get();
+  }
+
+  /**
+   * @param readerClass kind of reader
+   * @return total time readers of that kind ran, in nanoseconds
+   */
+  public long getNanos(Class<? extends Reader> readerClass) {
+    Counters counters = readerCounters.get(readerClass);
+    return counters == null ? 0L : counters.nanos.get();
+  }
+
+  /**
+   * @param format barcode format
+   * @return number of barcodes of that format decoded
+   */
+  public long getHits(BarcodeFormat format) {
+    return formatHits.get(format.ordinal());
+  }
+
+  /**
+   * @param format barcode format
+   * @return total time taken by the reader calls which decoded barcodes of that format,
+   *  in nanoseconds
+   */
+  public long getHitNanos(BarcodeFormat format) {
+    return formatNanos.get(format.ordinal());
+  }
+
+  /**
+   * @return number of images decoded, successfully or not
+   */
+  public long getDecodes() {
+    return decodes.get();
+  }
+
+  /**
+   * Records one run of a reader.
+   *
+   * @param reader reader which ran
+   * @param outcome what it returned
+   * @param nanos how long it took
+   */
+  void record(Reader reader, DecodeOutcome outcome, long nanos) {
+    Counters counters = readerCounters.get(reader.getClass());
+    if (counters == null) {
+      Counters newCounters = new Counters();
+      counters = readerCounters.putIfAbsent(reader.getClass(), newCounters);
+      if (counters == null) {
+        counters = newCounters;
+      }
+    }
+    counters.attempts.incrementAndGet();
+    counters.nanos.addAndGet(nanos);
+    if (outcome.isSuccess()) {
+      counters.successes.incrementAndGet();
+      int format = outcome.getResult().getBarcodeFormat().ordinal();
+      formatHits.incrementAndGet(format);
+      formatNanos.addAndGet(format, nanos);
+    }
+  }
+
+  /**
+   * Records the end of decoding one image.
+   *
+   * @return true iff readers are due to be reordered
+   */
+  boolean recordDecode() {
+    return decodes.incrementAndGet() % REORDER_INTERVAL == 0;
+  }
+
+  /**
+   * Orders readers by how many barcodes they decode per unit time, best first. This is the
+   * order that minimizes the expected time to find a barcode. Readers which haven't run enough
+   * to tell follow, in their original order, and last are readers which have never succeeded,
+   * fastest first.
+   *
+   * @param readers readers in their default order
+   * @return the same readers, reordered
+   */
+  Reader[] order(Reader[] readers) {
+    final Map<Reader,Double> scores = new IdentityHashMap<>(readers.length);
+    for (Reader reader : readers) {
+      scores.put(reader, score(reader.getClass()));
+    }
+    Reader[] ordered = readers.clone();
+    // Stable, so that ties keep their original order
+    Arrays.sort(ordered, new Comparator<Reader>() {
+      @Override
+      public int compare(Reader a, Reader b) {
+        return Double.compare(scores.get(b), scores.get(a));
+      }
+    });
+    return ordered;
+  }
+
+  /**
+   * @return successes per nanosecond if known and positive; 0 if too few attempts to tell;
+   *  otherwise minus the average nanoseconds per attempt
+   */
+  private double score(Class<?> readerClass) {
+    Counters counters = readerCounters.get(readerClass);
+    if (counters == null) {
+      return 0.0;
+    }
+    long attempts = counters.attempts.get();
+    if (attempts < MIN_ATTEMPTS) {
+      return 0.0;
+    }
+    long nanos = Math.max(1L, counters.nanos.get());
+    long successes = counters.successes.get();
+    return successes > 0 ? (double) successes / nanos : -(double) nanos / attempts;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    result.append("decodes: ").append(decodes.get());
+    for (Map.Entry<Class<?>,Counters> entry : readerCounters.entrySet()) {
+      Counters counters = entry.getValue();
+      result.append('\n').append(entry.getKey().getSimpleName())
+          .append(": ").append(counters.successes.get())
+          .append('/').append(counters.attempts.get())
+          .append(" in ").append(counters.nanos.get() / 1000000L).append("ms");
+    }
+    for (BarcodeFormat format : BarcodeFormat.values()) {
+      long hits = formatHits.get(format.ordinal());
+      if (hits > 0) {
+        result.append('\n').append(format).append(": ").append(hits);
+      }
+    }
+    return result.toString();
+  }
+
+  private static final class Counters {
+    final AtomicLong attempts = new AtomicLong();
+    final AtomicLong successes = new AtomicLong();
+    final AtomicLong nanos = new AtomicLong();
+  }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Support for {@link DecodeHintType#REGIONS_OF_INTEREST}. Each region is cropped out of the
+ * image and decoded on its own, so that detection only ever looks at those areas. Rows for 1D
+ * readers are binarized from the region alone; the 2D matrix is cut out of the whole image's,
+ * of which only the rows covered by regions are binarized. Result points are then translated back
+ * to the coordinates of the whole image, as are those passed to
+ * {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK} along the way.</p>
+ *
+ * <p>Readers which support the hint check {@link #isSet(Map)} and then hand off to
+ * {@link #decode(Reader, BinaryBitmap, Map)}, which calls them back once per region without
+ * the hint.</p>
+ */
+public final class RegionsOfInterest {
+
+  private RegionsOfInterest() {
+  }
+
+  /**
+   * @param hints decode hints, or null
+   * @return true iff hints include {@link DecodeHintType#REGIONS_OF_INTEREST}
+   */
+  public static boolean isSet(Map<DecodeHintType,?> hints) {
+    return hints != null && hints.containsKey(DecodeHintType.REGIONS_OF_INTEREST);
+  }
+
+  /**
+   * @param image image to be decoded
+   * @param hints decode hints, or null
+   * @return regions given by {@link DecodeHintType#REGIONS_OF_INTEREST} as
+   *  {@code {left, top, width, height}}, clipped to the image and leaving out those outside it;
+   *  or null if there are none or the image can't be cropped, so the whole image is to be decoded
+   * @throws IllegalArgumentException if a region has fewer than four values, or a negative size
+   */
+  public static List<int[]> getRegions(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (!isSet(hints) || !image.isCropSupported()) {
+      return null;
+    }
+    int width = image.getWidth();
+    int height = image.getHeight();
+    @SuppressWarnings("unchecked")
+    List<int[]> hinted = (List<int[]>) hints.get(DecodeHintType.REGIONS_OF_INTEREST);
+    List<int[]> regions = new ArrayList<>(hinted.size());
+    for (int[] region : hinted) {
+      if (region == null || region.length < 4) {
+        throw new IllegalArgumentException("Region must be {left, top, width, height}");
+      }
+      if (region[2] < 0 || region[3] < 0) {
+        throw new IllegalArgumentException("Region has negative size: " + Arrays.toString(region));
+      }
+      int left = Math.max(0, region[0]);
+      int top = Math.max(0, region[1]);
+      // Sums may overflow an int
+      int right = (int) Math.min(width, (long) region[0] + region[2]);
+      int bottom = (int) Math.min(height, (long) region[1] + region[3]);
+      if (left < right && top < bottom) {
+        regions.add(new int[] {left, top, right - left, bottom - top});
+      }
+    }
+    return regions;
+  }
+
+  /**
+   * @param hints decode hints
+   * @return the same hints, without {@link DecodeHintType#REGIONS_OF_INTEREST}
+   */
+  public static Map<DecodeHintType,?> withoutRegions(Map<DecodeHintType,?> hints) {
+    Map<DecodeHintType,Object> regionHints = new EnumMap<>(DecodeHintType.class);
+    regionHints.putAll(hints);
+    regionHints.remove(DecodeHintType.REGIONS_OF_INTEREST);
+    return regionHints;
+  }
+
+  /**
+   * @param regionHints decode hints, as returned by {@link #withoutRegions(Map)}
+   * @param region region of the image, as returned by {@link #getRegions(BinaryBitmap, Map)}
+   * @return hints for decoding that region, whose {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK}
+   *  hears of points in terms of the whole image
+   */
+  public static Map<DecodeHintType,?> forRegion(Map<DecodeHintType,?> regionHints, int[] region) {
+    return OffsetResultPointCallback.forCrop(regionHints, region[0], region[1]);
+  }
+
+  /**
+   * @param image image to be decoded
+   * @param region region of the image, as returned by {@link #getRegions(BinaryBitmap, Map)}
+   * @return that region of the image, sharing its black matrix with the image
+   */
+  public static BinaryBitmap crop(BinaryBitmap image, int[] region) {
+    return image.cropSharingMatrix(region[0], region[1], region[2], region[3]);
+  }
+
+  /**
+   * Translates the result points of a successful outcome, in place, from the coordinates of a
+   * region to those of the whole image.
+   *
+   * @param outcome outcome of decoding a region
+   * @param region region of the image, as returned by {@link #getRegions(BinaryBitmap, Map)}
+   * @return outcome
+   */
+  public static DecodeOutcome makeAbsolute(DecodeOutcome outcome, int[] region) {
+    ResultPoint[] points = outcome.isSuccess() ? outcome.getResult().getResultPoints() : null;
+    if (points != null) {
+      for (int i = 0; i < points.length; i++) {
+        ResultPoint relative = points[i];
+        if (relative != null) {
+          points[i] = new ResultPoint(relative.getX() + region[0], relative.getY() + region[1]);
+        }
+      }
+    }
+    return outcome;
+  }
+
+  /**
+   * Decodes each region of interest in turn with a reader, until one succeeds.
+   *
+   * @param reader reader to decode regions with
+   * @param image image to be decoded
+   * @param hints decode hints, including {@link DecodeHintType#REGIONS_OF_INTEREST}
+   * @return the first successful outcome, or else the failure which got furthest
+   */
+  public static DecodeOutcome decode(Reader reader, BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    Map<DecodeHintType,?> regionHints = withoutRegions(hints);
+    List<int[]> regions = getRegions(image, hints);
+    if (regions == null) {
+      return DecodeOutcome.decode(reader, image, regionHints);
+    }
+    Deadline deadline = Deadline.fromHints(hints);
+    DecodeOutcome best = DecodeOutcome.notFound();
+    for (int[] region : regions) {
+      if (deadline.isExpired()) {
+        break;
+      }
+      DecodeOutcome outcome = DecodeOutcome.decode(reader, crop(image, region), forRegion(regionHints, region));
+      if (outcome.isSuccess()) {
+        return makeAbsolute(outcome, region);
+      }
+      best = DecodeOutcome.furthest(best, outcome);
+    }
+    return best;
+  }
+
+}
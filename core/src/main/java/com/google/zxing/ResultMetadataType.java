@@ -93,5 +93,12 @@ public enum ResultMetadataType {
    * parity is given with it.
    */
   STRUCTURED_APPEND_PARITY,
+
+  /**
+   * For 1D barcodes decoded with {@link DecodeHintType#ROW_CONSENSUS}, or found by
+   * {@link com.google.zxing.multi.MultipleOneDReader}, the number of scanned rows which decoded to
+   * this same barcode, as an {@link Integer}.
+   */
+  AGREEING_ROWS,
   
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>A thread-safe configuration of a {@link MultiFormatReader}. One instance can
+ * serve any number of threads at once, for example all the requests to a server.</p>
+ *
+ * <p>{@link MultiFormatReader} and the readers it uses keep state between calls, so can't be
+ * shared. Here that state lives in a {@link DecodeContext} instead. Callers may manage contexts
+ * themselves with {@link #newContext()} and
+ * {@link #decodeOutcomeWithContext(BinaryBitmap, DecodeContext)}, or else let the {@link Reader}
+ * methods borrow one from a pool of idle contexts for each call. The pool holds as many contexts
+ * as have ever been in use at once. It belongs to this instance alone, and no thread-local state
+ * is kept, so nothing outlives this reader, as matters to servlets which are redeployed.</p>
+ *
+ * <p>Hints are fixed when this is created. Calls passing any other hints, even ones which differ
+ * only in a {@link DecodeHintType#DEADLINE} for that call, are still answered, but with a new
+ * {@link MultiFormatReader} and set of readers made for that call alone, which costs as much as
+ * not sharing at all. Callers who need a deadline per call should configure a reader per deadline
+ * policy, or use a {@link MultiFormatReader} per thread.</p>
+ *
+ * @see DecodeContext
+ */
+public final class SharedMultiFormatReader implements OutcomeReader {
+
+  private final Map<DecodeHintType,?> hints;
+  private final ReaderStatistics statistics;
+  private final Queue<DecodeContext> idleContexts = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param hints hints to decode with, or null
+   */
+  public SharedMultiFormatReader(Map<DecodeHintType,?> hints) {
+    this(hints, null);
+  }
+
+  /**
+   * @param hints hints to decode with, or null
+   * @param statistics where readers record how they perform, so they are tried in the best order;
+   *  see {@link MultiFormatReader#setStatistics(ReaderStatistics)}. May be null.
+   */
+  public SharedMultiFormatReader(Map<DecodeHintType,?> hints, ReaderStatistics statistics) {
+    Map<DecodeHintType,Object> copy = new EnumMap<>(DecodeHintType.class);
+    if (hints != null) {
+      copy.putAll(hints);
+    }
+    this.hints = Collections.unmodifiableMap(copy);
+    this.statistics = statistics;
+  }
+
+  /**
+   * @return a new context for decoding with this configuration, to be used by one thread at a time
+   */
+  public DecodeContext newContext() {
+    return new DecodeContext(this, hints.isEmpty() ? null : hints, statistics);
+  }
+
+  /**
+   * Decodes an image with the configured hints, keeping all state in the given context.
+   *
+   * @param image The pixel data to decode
+   * @param context context from {@link #newContext()} of this reader
+   * @return The contents of the image, or the failure which got furthest
+   */
+  public DecodeOutcome decodeOutcomeWithContext(BinaryBitmap image, DecodeContext context) {
+    if (context.getOwner() != this) {
+      throw new IllegalArgumentException("Context is from another reader");
+    }
+    return context.decode(image);
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image) throws NotFoundException, ChecksumException, FormatException {
+    return decode(image, null);
+  }
+
+  /**
+   * @param image The pixel data to decode
+   * @param hints null or the configured hints, to decode with a pooled context; otherwise the
+   *  hints for this call alone, for which new readers are made
+   * @return The contents of the image
+   * @throws NotFoundException if no barcode was found
+   * @throws FormatException if a barcode's contents were not valid
+   * @throws ChecksumException if a barcode did not pass its checksum
+   */
+  @Override
+  public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeOutcome(image, hints).getResultOrThrow();
+  }
+
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (hints == null || hints.equals(this.hints)) {
+      DecodeContext context = idleContexts.poll();
+      if (context == null) {
+        context = newContext();
+      }
+      try {
+        return context.decode(image);
+      } finally {
+        idleContexts.offer(context);
+      }
+    }
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setStatistics(statistics);
+    return reader.decodeOutcome(image, hints);
+  }
+
+  @Override
+  public void reset() {
+    // do nothing; contexts are reset before each use
+  }
+
+}
@@ -19,9 +19,12 @@ package com.google.zxing.aztec;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Reader;
+import com.google.zxing.OutcomeReader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.RegionsOfInterest;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
@@ -29,6 +32,7 @@ import com.google.zxing.ResultPointCallback;
 import com.google.zxing.aztec.decoder.Decoder;
 import com.google.zxing.aztec.detector.Detector;
 import com.google.zxing.common.DecoderResult;
+import com.google.zxing.common.GridSampler;
 
 import java.util.List;
 import java.util.Map;
@@ -38,7 +42,7 @@ import java.util.Map;
  *
  * @author David Olivier
  */
-public final class AztecReader implements Reader {
+public final class AztecReader implements OutcomeReader {
 
   /**
    * Locates and decodes a Data Matrix code in an image.
@@ -55,35 +59,61 @@ public final class AztecReader implements Reader {
   @Override
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, FormatException {
+    DecodeOutcome outcome = decodeOutcome(image, hints);
+    if (outcome.getFailure() == DecodeOutcome.Failure.FORMAT) {
+      throw FormatException.getFormatInstance();
+    }
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
 
-    NotFoundException notFoundException = null;
-    FormatException formatException = null;
-    Detector detector = new Detector(image.getBlackMatrix());
-    ResultPoint[] points = null;
-    DecoderResult decoderResult = null;
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it. An image
+   * without a bull's eye at its center fails without an exception; failures after that, in its
+   * parameters or error correction, are caught here.
+   */
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+
+    Detector detector;
     try {
-      AztecDetectorResult detectorResult = detector.detect(false);
-      points = detectorResult.getPoints();
-      decoderResult = new Decoder().decode(detectorResult);
-    } catch (NotFoundException e) {
-      notFoundException = e;
-    } catch (FormatException e) {
-      formatException = e;
+      detector = new Detector(image.getBlackMatrix(), GridSampler.fromHints(hints));
+    } catch (NotFoundException nfe) {
+      return DecodeOutcome.of(nfe);
     }
-    if (decoderResult == null) {
-      try {
-        AztecDetectorResult detectorResult = detector.detect(true);
-        points = detectorResult.getPoints();
-        decoderResult = new Decoder().decode(detectorResult);
-      } catch (NotFoundException | FormatException e) {
-        if (notFoundException != null) {
-          throw notFoundException;
-        }
-        if (formatException != null) {
-          throw formatException;
-        }
-        throw e;
+    DecodeOutcome outcome = decodeDetected(detector, false, hints);
+    if (outcome == null) {
+      // No bull's eye, so none in the mirror image either
+      return DecodeOutcome.notFound();
+    }
+    if (outcome.isSuccess()) {
+      return outcome;
+    }
+    DecodeOutcome mirroredOutcome = decodeDetected(detector, true, hints);
+    // Otherwise report why the code wasn't read, rather than why its mirror image wasn't
+    return mirroredOutcome != null && mirroredOutcome.isSuccess() ? mirroredOutcome : outcome;
+  }
+
+  /**
+   * @return outcome of decoding the code the detector finds, or null if it finds no bull's eye
+   */
+  private static DecodeOutcome decodeDetected(Detector detector, boolean isMirror, Map<DecodeHintType,?> hints) {
+    ResultPoint[] points;
+    DecoderResult decoderResult;
+    try {
+      AztecDetectorResult detectorResult = detector.detectIfPresent(isMirror);
+      if (detectorResult == null) {
+        return null;
       }
+      points = detectorResult.getPoints();
+      decoderResult = new Decoder().decode(detectorResult);
+    } catch (ReaderException re) {
+      return DecodeOutcome.of(re);
     }
 
     if (hints != null) {
@@ -106,7 +136,7 @@ public final class AztecReader implements Reader {
       result.putMetadata(ResultMetadataType.ERROR_CORRECTION_LEVEL, ecLevel);
     }
     
-    return result;
+    return DecodeOutcome.of(result);
   }
 
   @Override
@@ -37,6 +37,7 @@ import com.google.zxing.common.reedsolomon.ReedSolomonException;
 public final class Detector {
 
   private final BitMatrix image;
+  private final GridSampler gridSampler;
 
   private boolean compact;
   private int nbLayers;
@@ -45,7 +46,16 @@ public final class Detector {
   private int shift;
 
   public Detector(BitMatrix image) {
+    this(image, GridSampler.getInstance());
+  }
+
+  /**
+   * @param image image to detect an Aztec Code in
+   * @param gridSampler sampler with which to read the code's modules from image
+   */
+  public Detector(BitMatrix image, GridSampler gridSampler) {
     this.image = image;
+    this.gridSampler = gridSampler;
   }
 
   public AztecDetectorResult detect() throws NotFoundException {
@@ -60,6 +70,23 @@ public final class Detector {
    * @throws NotFoundException if no Aztec Code can be found
    */
    public AztecDetectorResult detect(boolean isMirror) throws NotFoundException {
+    AztecDetectorResult detectorResult = detectIfPresent(isMirror);
+    if (detectorResult == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return detectorResult;
+  }
+
+  /**
+   * Like {@link #detect(boolean)}, but returns null rather than throwing when there is no bull's eye
+   * at the center of the image, the usual case for images without an Aztec Code. Mirroring doesn't
+   * change that, so there's no need to look again for a mirror image.
+   *
+   * @param isMirror if true, image is a mirror-image of original
+   * @return {@link AztecDetectorResult} encapsulating results of detecting an Aztec Code, or null
+   * @throws NotFoundException if the bull's eye has no valid parameters around it
+   */
+  public AztecDetectorResult detectIfPresent(boolean isMirror) throws NotFoundException {
 
     // 1. Get the center of the aztec matrix
     Point pCenter = getMatrixCenter();
@@ -67,6 +94,9 @@ public final class Detector {
     // 2. Get the center points of the four diagonal points just outside the bull's eye
     //  [topRight, bottomRight, bottomLeft, topLeft]
     ResultPoint[] bullsEyeCorners = getBullsEyeCorners(pCenter);
+    if (bullsEyeCorners == null) {
+      return null;
+    }
 
     if (isMirror) {
       ResultPoint temp = bullsEyeCorners[0];
@@ -229,10 +259,9 @@ public final class Detector {
    * Returns [topRight, bottomRight, bottomLeft, topLeft]
    * 
    * @param pCenter Center point
-   * @return The corners of the bull-eye
-   * @throws NotFoundException If no valid bull-eye can be found
+   * @return The corners of the bull-eye, or null if no valid bull-eye can be found
    */
-  private ResultPoint[] getBullsEyeCorners(Point pCenter) throws NotFoundException {
+  private ResultPoint[] getBullsEyeCorners(Point pCenter) {
     
     Point pina = pCenter;
     Point pinb = pCenter;
@@ -267,7 +296,7 @@ public final class Detector {
     }
 
     if (nbCenterLayers != 5 && nbCenterLayers != 7) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
     
     compact = nbCenterLayers == 5;
@@ -299,17 +328,23 @@ public final class Detector {
     ResultPoint pointD;
 
     //Get a white rectangle that can be the border of the matrix in center bull's eye or
+    ResultPoint[] cornerPoints;
     try {
+      cornerPoints = new WhiteRectangleDetector(image).detectIfPresent();
+    } catch (NotFoundException e) {
+      // The initial rectangle doesn't fit in the image
+      cornerPoints = null;
+    }
+    if (cornerPoints != null) {
 
-      ResultPoint[] cornerPoints = new WhiteRectangleDetector(image).detect();
       pointA = cornerPoints[0];
       pointB = cornerPoints[1];
       pointC = cornerPoints[2];
       pointD = cornerPoints[3];
 
-    } catch (NotFoundException e) {
+    } else {
 
-      // This exception can be in case the initial rectangle is white
+      // There may be no rectangle in case the initial rectangle is white
       // In that case, surely in the bull's eye, we try to expand the rectangle.
       int cx = image.getWidth() / 2;
       int cy = image.getHeight() / 2;
@@ -328,13 +363,17 @@ public final class Detector {
     // This will ensure that we end up with a white rectangle in center bull's eye
     // in order to compute a more accurate center.
     try {
-      ResultPoint[] cornerPoints = new WhiteRectangleDetector(image, 15, cx, cy).detect();
+      cornerPoints = new WhiteRectangleDetector(image, 15, cx, cy).detectIfPresent();
+    } catch (NotFoundException e) {
+      cornerPoints = null;
+    }
+    if (cornerPoints != null) {
       pointA = cornerPoints[0];
       pointB = cornerPoints[1];
       pointC = cornerPoints[2];
       pointD = cornerPoints[3];
-    } catch (NotFoundException e) {
-      // This exception can be in case the initial rectangle is white
+    } else {
+      // There may be no rectangle in case the initial rectangle is white
       // In that case we try to expand the rectangle.
       pointA = getFirstDifferent(new Point(cx + 7, cy - 7), false, 1, -1).toResultPoint();
       pointB = getFirstDifferent(new Point(cx + 7, cy + 7), false, 1, 1).toResultPoint();
@@ -370,23 +409,22 @@ public final class Detector {
                                ResultPoint bottomRight,
                                ResultPoint bottomLeft) throws NotFoundException {
       
-    GridSampler sampler = GridSampler.getInstance();
     int dimension = getDimension();
 
     float low = dimension / 2.0f - nbCenterLayers;
     float high = dimension / 2.0f + nbCenterLayers;
 
-    return sampler.sampleGrid(image,
-                              dimension,
-                              dimension,
-                              low, low,   // topleft
-                              high, low,  // topright
-                              high, high, // bottomright
-                              low, high,  // bottomleft
-                              topLeft.getX(), topLeft.getY(),
-                              topRight.getX(), topRight.getY(),
-                              bottomRight.getX(), bottomRight.getY(),
-                              bottomLeft.getX(), bottomLeft.getY());
+    return gridSampler.sampleGrid(image,
+                                  dimension,
+                                  dimension,
+                                  low, low,   // topleft
+                                  high, low,  // topright
+                                  high, high, // bottomright
+                                  low, high,  // bottomleft
+                                  topLeft.getX(), topLeft.getY(),
+                                  topRight.getX(), topRight.getY(),
+                                  bottomRight.getX(), bottomRight.getY(),
+                                  bottomLeft.getX(), bottomLeft.getY());
   }
 
   /**
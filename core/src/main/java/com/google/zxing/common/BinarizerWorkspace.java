@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * <p>Holds the buffers a {@link HybridBinarizer} needs to binarize one frame: a copy of the
+ * luminance data, the per-block black point grid, and the output {@link BitMatrix}. Callers which
+ * binarize a continuous stream of same-sized frames, such as a camera preview, can create one
+ * workspace and pass it to each new binarizer so that no large arrays are allocated per frame.</p>
+ *
+ * <p>Binarizers derived from one using a workspace, for crops, bands and downsampled levels of
+ * the frame, use the same workspace. So that these don't make each other reallocate, the working
+ * buffers only ever grow, and an output matrix is kept for each of the last few sizes used.</p>
+ *
+ * <p>Because the output matrix is reused, a {@link BitMatrix} returned by a binarizer using this
+ * workspace is only valid until the next binarization of an image of the same size that uses the
+ * same workspace. This class is not thread-safe; use one instance per decoding thread.</p>
+ */
+public final class BinarizerWorkspace {
+
+  private static final byte[] EMPTY = new byte[0];
+  private static final int[][] NO_BLOCKS = new int[0][0];
+  // Enough for a frame, its bands or a crop, and a downsampled level
+  private static final int MAX_MATRIX_SIZES = 4;
+
+  private byte[] luminances;
+  private byte[] row;
+  private int[][] blackPoints;
+  private int[][] blockThresholds;
+  // Most recently used first
+  private final BitMatrix[] matrices;
+
+  public BinarizerWorkspace() {
+    luminances = EMPTY;
+    row = EMPTY;
+    blackPoints = NO_BLOCKS;
+    blockThresholds = new int[2][0];
+    matrices = new BitMatrix[MAX_MATRIX_SIZES];
+  }
+
+  /**
+   * Copies all luminance data from the source into this workspace's buffer, one row at a time,
+   * rather than asking the source for a freshly allocated matrix.
+   *
+   * @param source source of luminance data
+   * @return row-major luminance data, of which only the first width * height bytes are valid
+   */
+  byte[] getLuminances(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    int area = width * height;
+    if (luminances.length < area) {
+      luminances = new byte[area];
+    }
+    if (row.length < width) {
+      row = new byte[width];
+    }
+    byte[] localLuminances = luminances;
+    for (int y = 0, offset = 0; y < height; y++, offset += width) {
+      byte[] sourceRow = source.getRow(y, row);
+      System.arraycopy(sourceRow, 0, localLuminances, offset, width);
+    }
+    return localLuminances;
+  }
+
+  /**
+   * @param subWidth number of blocks across
+   * @param subHeight number of blocks down
+   * @return a black point grid of at least the given size, whose contents are undefined
+   */
+  int[][] getBlackPoints(int subWidth, int subHeight) {
+    int oldWidth = blackPoints.length == 0 ? 0 : blackPoints[0].length;
+    if (blackPoints.length < subHeight || oldWidth < subWidth) {
+      blackPoints = new int[Math.max(subHeight, blackPoints.length)][Math.max(subWidth, oldWidth)];
+    }
+    return blackPoints;
+  }
+
+  /**
+   * @param subWidth number of blocks across
+   * @return two rows of per-block thresholds, each of at least the given size
+   */
+  int[][] getBlockThresholds(int subWidth) {
+    if (blockThresholds[0].length < subWidth) {
+      blockThresholds = new int[2][subWidth];
+    }
+    return blockThresholds;
+  }
+
+  /**
+   * @param width matrix width
+   * @param height matrix height
+   * @return a {@link BitMatrix} of the given size, whose contents are undefined. It is the one
+   *  returned for this size before, unless several other sizes have been asked for since.
+   */
+  BitMatrix getMatrix(int width, int height) {
+    // If no matrix has this size, replace the least recently used
+    int index = matrices.length - 1;
+    for (int i = 0; i < matrices.length; i++) {
+      BitMatrix matrix = matrices[i];
+      if (matrix == null || (matrix.getWidth() == width && matrix.getHeight() == height)) {
+        index = i;
+        break;
+      }
+    }
+    BitMatrix matrix = matrices[index];
+    if (matrix == null || matrix.getWidth() != width || matrix.getHeight() != height) {
+      matrix = new BitMatrix(width, height);
+    }
+    System.arraycopy(matrices, 0, matrices, 1, index);
+    matrices[0] = matrix;
+    return matrix;
+  }
+
+}
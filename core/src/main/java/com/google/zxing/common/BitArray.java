@@ -19,18 +19,18 @@ package com.google.zxing.common;
 import java.util.Arrays;
 
 /**
- * <p>A simple, fast array of bits, represented compactly by an array of ints internally.</p>
+ * <p>A simple, fast array of bits, represented compactly by an array of longs internally.</p>
  *
  * @author Sean Owen
  */
 public final class BitArray implements Cloneable {
 
-  private int[] bits;
+  private long[] bits;
   private int size;
 
   public BitArray() {
     this.size = 0;
-    this.bits = new int[1];
+    this.bits = new long[1];
   }
 
   public BitArray(int size) {
@@ -40,6 +40,14 @@ public final class BitArray implements Cloneable {
 
   // For testing only
   BitArray(int[] bits, int size) {
+    this.bits = new long[(bits.length + 1) / 2];
+    for (int i = 0; i < bits.length; i++) {
+      this.bits[i / 2] |= (bits[i] & 0xFFFFFFFFL) << ((i & 0x01) * 32);
+    }
+    this.size = size;
+  }
+
+  private BitArray(long[] bits, int size) {
     this.bits = bits;
     this.size = size;
   }
@@ -53,8 +61,8 @@ public final class BitArray implements Cloneable {
   }
 
   private void ensureCapacity(int size) {
-    if (size > bits.length * 32) {
-      int[] newBits = makeArray(size);
+    if (size > bits.length * 64) {
+      long[] newBits = makeArray(size);
       System.arraycopy(bits, 0, newBits, 0, bits.length);
       this.bits = newBits;
     }
@@ -65,7 +73,7 @@ public final class BitArray implements Cloneable {
    * @return true iff bit i is set
    */
   public boolean get(int i) {
-    return (bits[i / 32] & (1 << (i & 0x1F))) != 0;
+    return (bits[i / 64] & (1L << (i & 0x3F))) != 0;
   }
 
   /**
@@ -74,7 +82,7 @@ public final class BitArray implements Cloneable {
    * @param i bit to set
    */
   public void set(int i) {
-    bits[i / 32] |= 1 << (i & 0x1F);
+    bits[i / 64] |= 1L << (i & 0x3F);
   }
 
   /**
@@ -83,7 +91,7 @@ public final class BitArray implements Cloneable {
    * @param i bit to set
    */
   public void flip(int i) {
-    bits[i / 32] ^= 1 << (i & 0x1F);
+    bits[i / 64] ^= 1L << (i & 0x3F);
   }
 
   /**
@@ -96,17 +104,17 @@ public final class BitArray implements Cloneable {
     if (from >= size) {
       return size;
     }
-    int bitsOffset = from / 32;
-    int currentBits = bits[bitsOffset];
+    int bitsOffset = from / 64;
+    long currentBits = bits[bitsOffset];
     // mask off lesser bits first
-    currentBits &= ~((1 << (from & 0x1F)) - 1);
+    currentBits &= ~((1L << (from & 0x3F)) - 1);
     while (currentBits == 0) {
       if (++bitsOffset == bits.length) {
         return size;
       }
       currentBits = bits[bitsOffset];
     }
-    int result = (bitsOffset * 32) + Integer.numberOfTrailingZeros(currentBits);
+    int result = (bitsOffset * 64) + Long.numberOfTrailingZeros(currentBits);
     return result > size ? size : result;
   }
 
@@ -119,29 +127,31 @@ public final class BitArray implements Cloneable {
     if (from >= size) {
       return size;
     }
-    int bitsOffset = from / 32;
-    int currentBits = ~bits[bitsOffset];
+    int bitsOffset = from / 64;
+    long currentBits = ~bits[bitsOffset];
     // mask off lesser bits first
-    currentBits &= ~((1 << (from & 0x1F)) - 1);
+    currentBits &= ~((1L << (from & 0x3F)) - 1);
     while (currentBits == 0) {
       if (++bitsOffset == bits.length) {
         return size;
       }
       currentBits = ~bits[bitsOffset];
     }
-    int result = (bitsOffset * 32) + Integer.numberOfTrailingZeros(currentBits);
+    int result = (bitsOffset * 64) + Long.numberOfTrailingZeros(currentBits);
     return result > size ? size : result;
   }
 
   /**
    * Sets a block of 32 bits, starting at bit i.
    *
-   * @param i first bit to set
+   * @param i first bit to set, which must be a multiple of 32
    * @param newBits the new value of the next 32 bits. Note again that the least-significant bit
    * corresponds to bit i, the next-least-significant to i+1, and so on.
    */
   public void setBulk(int i, int newBits) {
-    bits[i / 32] = newBits;
+    int shift = i & 0x20;
+    long mask = 0xFFFFFFFFL << shift;
+    bits[i / 64] = (bits[i / 64] & ~mask) | ((newBits & 0xFFFFFFFFL) << shift);
   }
 
   /**
@@ -158,13 +168,13 @@ public final class BitArray implements Cloneable {
       return;
     }
     end--; // will be easier to treat this as the last actually set bit -- inclusive
-    int firstInt = start / 32;
-    int lastInt = end / 32;
-    for (int i = firstInt; i <= lastInt; i++) {
-      int firstBit = i > firstInt ? 0 : start & 0x1F;
-      int lastBit = i < lastInt ? 31 : end & 0x1F;
+    int firstWord = start / 64;
+    int lastWord = end / 64;
+    for (int i = firstWord; i <= lastWord; i++) {
+      int firstBit = i > firstWord ? 0 : start & 0x3F;
+      int lastBit = i < lastWord ? 63 : end & 0x3F;
       // Ones from firstBit to lastBit, inclusive
-      int mask = (2 << lastBit) - (1 << firstBit);
+      long mask = (2L << lastBit) - (1L << firstBit);
       bits[i] |= mask;
     }
   }
@@ -196,13 +206,13 @@ public final class BitArray implements Cloneable {
       return true; // empty range matches
     }
     end--; // will be easier to treat this as the last actually set bit -- inclusive
-    int firstInt = start / 32;
-    int lastInt = end / 32;
-    for (int i = firstInt; i <= lastInt; i++) {
-      int firstBit = i > firstInt ? 0 : start & 0x1F;
-      int lastBit = i < lastInt ? 31 : end & 0x1F;
+    int firstWord = start / 64;
+    int lastWord = end / 64;
+    for (int i = firstWord; i <= lastWord; i++) {
+      int firstBit = i > firstWord ? 0 : start & 0x3F;
+      int lastBit = i < lastWord ? 63 : end & 0x3F;
       // Ones from firstBit to lastBit, inclusive
-      int mask = (2 << lastBit) - (1 << firstBit);
+      long mask = (2L << lastBit) - (1L << firstBit);
 
       // Return false if we're looking for 1s and the masked bits[i] isn't all 1s (that is,
       // equals the mask, or we're looking for 0s and the masked portion is not all 0s
@@ -216,7 +226,7 @@ public final class BitArray implements Cloneable {
   public void appendBit(boolean bit) {
     ensureCapacity(size + 1);
     if (bit) {
-      bits[size / 32] |= 1 << (size & 0x1F);
+      bits[size / 64] |= 1L << (size & 0x3F);
     }
     size++;
   }
@@ -252,7 +262,7 @@ public final class BitArray implements Cloneable {
       throw new IllegalArgumentException("Sizes don't match");
     }
     for (int i = 0; i < bits.length; i++) {
-      // The last int could be incomplete (i.e. not have 32 bits in
+      // The last word could be incomplete (i.e. not have 64 bits in
       // it) but there is no problem since 0 XOR 0 == 0.
       bits[i] ^= other.bits[i];
     }
@@ -262,7 +272,7 @@ public final class BitArray implements Cloneable {
    *
    * @param bitOffset first bit to start writing
    * @param array array to write into. Bytes are written most-significant byte first. This is the opposite
-   *  of the internal representation, which is exposed by {@link #getBitArray()}
+   *  of the internal representation, which is exposed by {@link #getWords()}
    * @param offset position in array to start writing
    * @param numBytes how many bytes to write
    */
@@ -280,10 +290,27 @@ public final class BitArray implements Cloneable {
   }
 
   /**
-   * @return underlying array of ints. The first element holds the first 32 bits, and the least
-   *         significant bit is bit 0.
+   * <p><strong>This returns a copy of the bits. Changes to it are lost; they do not change this
+   * array.</strong></p>
+   *
+   * @return the bits as an array of {@code (size + 31) / 32} ints. The first element holds the
+   *         first 32 bits, and the least significant bit is bit 0.
+   * @deprecated call {@link #getWords()}, which returns the bits themselves without copying
    */
+  @Deprecated
   public int[] getBitArray() {
+    int[] ints = new int[(size + 31) / 32];
+    for (int i = 0; i < ints.length; i++) {
+      ints[i] = (int) (bits[i / 2] >>> ((i & 0x01) * 32));
+    }
+    return ints;
+  }
+
+  /**
+   * @return underlying array of longs. The first element holds the first 64 bits, and the least
+   *         significant bit is bit 0. Changes to it change this array.
+   */
+  public long[] getWords() {
     return bits;
   }
 
@@ -291,36 +318,30 @@ public final class BitArray implements Cloneable {
    * Reverses all bits in the array.
    */
   public void reverse() {
-    int[] newBits = new int[bits.length];
-    // reverse all int's first
-    int len = (size - 1) / 32;
+    long[] newBits = new long[bits.length];
+    // reverse all words first
+    int len = (size - 1) / 64;
     int oldBitsLen = len + 1;
     for (int i = 0; i < oldBitsLen; i++) {
-      long x = (long) bits[i];
-      x = ((x >>  1) & 0x55555555L) | ((x & 0x55555555L) <<  1);
-      x = ((x >>  2) & 0x33333333L) | ((x & 0x33333333L) <<  2);
-      x = ((x >>  4) & 0x0f0f0f0fL) | ((x & 0x0f0f0f0fL) <<  4);
-      x = ((x >>  8) & 0x00ff00ffL) | ((x & 0x00ff00ffL) <<  8);
-      x = ((x >> 16) & 0x0000ffffL) | ((x & 0x0000ffffL) << 16);
-      newBits[len - i] = (int) x;
+      newBits[len - i] = Long.reverse(bits[i]);
     }
-    // now correct the int's if the bit size isn't a multiple of 32
-    if (size != oldBitsLen * 32) {
-      int leftOffset = oldBitsLen * 32 - size;
-      int currentInt = newBits[0] >>> leftOffset;
+    // now correct the words if the bit size isn't a multiple of 64
+    if (size != oldBitsLen * 64) {
+      int leftOffset = oldBitsLen * 64 - size;
+      long currentWord = newBits[0] >>> leftOffset;
       for (int i = 1; i < oldBitsLen; i++) {
-        int nextInt = newBits[i];
-        currentInt |= nextInt << (32 - leftOffset);
-        newBits[i - 1] = currentInt;
-        currentInt = nextInt >>> leftOffset;
+        long nextWord = newBits[i];
+        currentWord |= nextWord << (64 - leftOffset);
+        newBits[i - 1] = currentWord;
+        currentWord = nextWord >>> leftOffset;
       }
-      newBits[oldBitsLen - 1] = currentInt;
+      newBits[oldBitsLen - 1] = currentWord;
     }
     bits = newBits;
   }
 
-  private static int[] makeArray(int size) {
-    return new int[(size + 31) / 32];
+  private static long[] makeArray(int size) {
+    return new long[(size + 63) / 64];
   }
 
   @Override
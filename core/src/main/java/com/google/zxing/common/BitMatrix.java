@@ -23,11 +23,11 @@ import java.util.Arrays;
  * module, x is the column position, and y is the row position. The ordering is always x, y.
  * The origin is at the top-left.</p>
  *
- * <p>Internally the bits are represented in a 1-D array of 32-bit ints. However, each row begins
- * with a new int. This is done intentionally so that we can copy out a row into a BitArray very
+ * <p>Internally the bits are represented in a 1-D array of 64-bit longs. However, each row begins
+ * with a new long. This is done intentionally so that we can copy out a row into a BitArray very
  * efficiently.</p>
  *
- * <p>The ordering of bits is row-major. Within each int, the least significant bits are used first,
+ * <p>The ordering of bits is row-major. Within each long, the least significant bits are used first,
  * meaning they represent lower x values. This is compatible with BitArray's implementation.</p>
  *
  * @author Sean Owen
@@ -38,7 +38,7 @@ public final class BitMatrix implements Cloneable {
   private final int width;
   private final int height;
   private final int rowSize;
-  private final int[] bits;
+  private final long[] bits;
 
   // A helper to construct a square matrix.
   public BitMatrix(int dimension) {
@@ -51,11 +51,11 @@ public final class BitMatrix implements Cloneable {
     }
     this.width = width;
     this.height = height;
-    this.rowSize = (width + 31) / 32;
-    bits = new int[rowSize * height];
+    this.rowSize = (width + 63) / 64;
+    bits = new long[rowSize * height];
   }
 
-  private BitMatrix(int width, int height, int rowSize, int[] bits) {
+  private BitMatrix(int width, int height, int rowSize, long[] bits) {
     this.width = width;
     this.height = height;
     this.rowSize = rowSize;
@@ -127,8 +127,8 @@ public final class BitMatrix implements Cloneable {
    * @return value of given bit in matrix
    */
   public boolean get(int x, int y) {
-    int offset = y * rowSize + (x / 32);
-    return ((bits[offset] >>> (x & 0x1f)) & 1) != 0;
+    int offset = y * rowSize + (x / 64);
+    return ((bits[offset] >>> (x & 0x3f)) & 1) != 0;
   }
 
   /**
@@ -138,13 +138,89 @@ public final class BitMatrix implements Cloneable {
    * @param y The vertical component (i.e. which row)
    */
   public void set(int x, int y) {
-    int offset = y * rowSize + (x / 32);
-    bits[offset] |= 1 << (x & 0x1f);
+    int offset = y * rowSize + (x / 64);
+    bits[offset] |= 1L << (x & 0x3f);
+  }
+
+  /**
+   * <p>Sets a block of 32 bits in one row, replacing the bits already there.</p>
+   *
+   * @param x The horizontal component of the first bit to set, which must be a multiple of 32
+   * @param y The vertical component (i.e. which row)
+   * @param newBits the new value of the next 32 bits. The least-significant bit corresponds to x,
+   *  the next-least-significant to x+1, and so on.
+   * @see #setWord(int, int, long)
+   */
+  public void setBulk(int x, int y, int newBits) {
+    int offset = y * rowSize + (x / 64);
+    int shift = x & 0x20;
+    long mask = 0xFFFFFFFFL << shift;
+    bits[offset] = (bits[offset] & ~mask) | ((newBits & 0xFFFFFFFFL) << shift);
+  }
+
+  /**
+   * <p>Sets a block of 64 bits in one row, replacing the bits already there. This lets
+   * producers of whole rows, such as binarizers, store a word at a time.</p>
+   *
+   * @param x The horizontal component of the first bit to set, which must be a multiple of 64
+   * @param y The vertical component (i.e. which row)
+   * @param word the new value of the next 64 bits. The least-significant bit corresponds to x,
+   *  the next-least-significant to x+1, and so on.
+   */
+  public void setWord(int x, int y, long word) {
+    bits[y * rowSize + (x / 64)] = word;
+  }
+
+  /**
+   * <p>Replaces one row with the pixels of a row of luminance data no lighter than the threshold of
+   * the block of pixels each falls in, building and storing 64 bits at a time. This is the inner
+   * loop of binarizers which threshold the image block by block.</p>
+   *
+   * @param y The row to set
+   * @param luminances luminance data of the row, as from {@code LuminanceSource.getMatrix()}
+   * @param offset offset of the row's first pixel in luminances
+   * @param thresholds threshold of each block across the row; any entries past the last block are
+   *  ignored
+   * @param blockSizePower blocks are 2^blockSizePower pixels wide
+   * @param lastBlockStart where the last block starts if it is shifted left to end at the right of
+   *  the row, overlapping the one before; pixels under both are thresholded against the larger
+   *  threshold. Pass the width of the matrix if blocks don't overlap.
+   */
+  void setRowBelowThresholds(int y,
+                             byte[] luminances,
+                             int offset,
+                             int[] thresholds,
+                             int blockSizePower,
+                             int lastBlockStart) {
+    int blockSizeMask = (1 << blockSizePower) - 1;
+    int lastThreshold = thresholds[(width - 1) >> blockSizePower];
+    int rowOffset = y * rowSize;
+    int threshold = 0;
+    long word = 0L;
+    for (int x = 0; x < width; x++) {
+      if ((x & blockSizeMask) == 0 || x == lastBlockStart) {
+        threshold = thresholds[x >> blockSizePower];
+        if (x >= lastBlockStart) {
+          threshold = Math.max(threshold, lastThreshold);
+        }
+      }
+      // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0.
+      if ((luminances[offset + x] & 0xFF) <= threshold) {
+        word |= 1L << (x & 0x3f);
+      }
+      if ((x & 0x3f) == 0x3f) {
+        bits[rowOffset + (x >> 6)] = word;
+        word = 0L;
+      }
+    }
+    if ((width & 0x3f) != 0) {
+      bits[rowOffset + (width >> 6)] = word;
+    }
   }
 
   public void unset(int x, int y) {
-    int offset = y * rowSize + (x / 32);
-    bits[offset] &= ~(1 << (x & 0x1f));
+    int offset = y * rowSize + (x / 64);
+    bits[offset] &= ~(1L << (x & 0x3f));
   }
 
   /**
@@ -154,8 +230,8 @@ public final class BitMatrix implements Cloneable {
    * @param y The vertical component (i.e. which row)
    */
   public void flip(int x, int y) {
-    int offset = y * rowSize + (x / 32);
-    bits[offset] ^= 1 << (x & 0x1f);
+    int offset = y * rowSize + (x / 64);
+    bits[offset] ^= 1L << (x & 0x3f);
   }
 
   /**
@@ -166,16 +242,13 @@ public final class BitMatrix implements Cloneable {
    */
   public void xor(BitMatrix mask) {
     if (width != mask.getWidth() || height != mask.getHeight()
-        || rowSize != mask.getRowSize()) {
+        || rowSize != mask.rowSize) {
       throw new IllegalArgumentException("input matrix dimensions do not match");
     }
-    BitArray rowArray = new BitArray(width / 32 + 1);
-    for (int y = 0; y < height; y++) {
-      int offset = y * rowSize;
-      int[] row = mask.getRow(y, rowArray).getBitArray();
-      for (int x = 0; x < rowSize; x++) {
-        bits[offset + x] ^= row[x];
-      }
+    // Rows are laid out alike, so the matrices can be combined word by word
+    long[] maskBits = mask.bits;
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] ^= maskBits[i];
     }
   }
 
@@ -212,7 +285,7 @@ public final class BitMatrix implements Cloneable {
     for (int y = top; y < bottom; y++) {
       int offset = y * rowSize;
       for (int x = left; x < right; x++) {
-        bits[offset + (x / 32)] |= 1 << (x & 0x1f);
+        bits[offset + (x / 64)] |= 1L << (x & 0x3f);
       }
     }
   }
@@ -231,10 +304,7 @@ public final class BitMatrix implements Cloneable {
     } else {
       row.clear();
     }
-    int offset = y * rowSize;
-    for (int x = 0; x < rowSize; x++) {
-      row.setBulk(x * 32, bits[offset + x]);
-    }
+    System.arraycopy(bits, y * rowSize, row.getWords(), 0, rowSize);
     return row;
   }
 
@@ -243,7 +313,7 @@ public final class BitMatrix implements Cloneable {
    * @param row {@link BitArray} to copy from
    */
   public void setRow(int y, BitArray row) {
-    System.arraycopy(row.getBitArray(), 0, bits, y * rowSize, rowSize);
+    System.arraycopy(row.getWords(), 0, bits, y * rowSize, rowSize);
   }
 
   /**
@@ -276,8 +346,8 @@ public final class BitMatrix implements Cloneable {
     int bottom = -1;
 
     for (int y = 0; y < height; y++) {
-      for (int x32 = 0; x32 < rowSize; x32++) {
-        int theBits = bits[y * rowSize + x32];
+      for (int x64 = 0; x64 < rowSize; x64++) {
+        long theBits = bits[y * rowSize + x64];
         if (theBits != 0) {
           if (y < top) {
             top = y;
@@ -285,23 +355,13 @@ public final class BitMatrix implements Cloneable {
           if (y > bottom) {
             bottom = y;
           }
-          if (x32 * 32 < left) {
-            int bit = 0;
-            while ((theBits << (31 - bit)) == 0) {
-              bit++;
-            }
-            if ((x32 * 32 + bit) < left) {
-              left = x32 * 32 + bit;
-            }
+          int first = x64 * 64 + Long.numberOfTrailingZeros(theBits);
+          if (first < left) {
+            left = first;
           }
-          if (x32 * 32 + 31 > right) {
-            int bit = 31;
-            while ((theBits >>> bit) == 0) {
-              bit--;
-            }
-            if ((x32 * 32 + bit) > right) {
-              right = x32 * 32 + bit;
-            }
+          int last = x64 * 64 + 63 - Long.numberOfLeadingZeros(theBits);
+          if (last > right) {
+            right = last;
           }
         }
       }
@@ -331,14 +391,8 @@ public final class BitMatrix implements Cloneable {
       return null;
     }
     int y = bitsOffset / rowSize;
-    int x = (bitsOffset % rowSize) * 32;
-
-    int theBits = bits[bitsOffset];
-    int bit = 0;
-    while ((theBits << (31 - bit)) == 0) {
-      bit++;
-    }
-    x += bit;
+    int x = (bitsOffset % rowSize) * 64;
+    x += Long.numberOfTrailingZeros(bits[bitsOffset]);
     return new int[] {x, y};
   }
 
@@ -352,14 +406,8 @@ public final class BitMatrix implements Cloneable {
     }
 
     int y = bitsOffset / rowSize;
-    int x = (bitsOffset % rowSize) * 32;
-
-    int theBits = bits[bitsOffset];
-    int bit = 31;
-    while ((theBits >>> bit) == 0) {
-      bit--;
-    }
-    x += bit;
+    int x = (bitsOffset % rowSize) * 64;
+    x += 63 - Long.numberOfLeadingZeros(bits[bitsOffset]);
 
     return new int[] {x, y};
   }
@@ -379,10 +427,10 @@ public final class BitMatrix implements Cloneable {
   }
 
   /**
-   * @return The row size of the matrix
+   * @return The row size of the matrix, in 32-bit ints, as in {@link BitArray#getBitArray()}
    */
   public int getRowSize() {
-    return rowSize;
+    return (width + 31) / 32;
   }
 
   @Override
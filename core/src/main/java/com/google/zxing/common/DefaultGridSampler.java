@@ -43,6 +43,15 @@ public final class DefaultGridSampler extends GridSampler {
     return sampleGrid(image, dimensionX, dimensionY, transform);
   }
 
+  /**
+   * Along each row of modules, the numerators and denominator of the transform grow by a constant
+   * step, so they are updated by adding it rather than recomputed, leaving one division per
+   * module. Sampled bits are collected a word at a time and copied into the result row by row.
+   *
+   * Points up to a pixel off the image are moved onto its edge, as by
+   * {@link #checkAndNudgePoints(BitMatrix, float[])}; points further out mean the code can't be
+   * sampled.
+   */
   @Override
   public BitMatrix sampleGrid(BitMatrix image,
                               int dimensionX,
@@ -51,38 +60,63 @@ public final class DefaultGridSampler extends GridSampler {
     if (dimensionX <= 0 || dimensionY <= 0) {
       throw NotFoundException.getNotFoundInstance();      
     }
+    int width = image.getWidth();
+    int height = image.getHeight();
     BitMatrix bits = new BitMatrix(dimensionX, dimensionY);
-    float[] points = new float[2 * dimensionX];
+    BitArray row = new BitArray(dimensionX);
+    long[] rowWords = row.getWords();
+    double[] start = new double[6];
     for (int y = 0; y < dimensionY; y++) {
-      int max = points.length;
-      float iValue = (float) y + 0.5f;
-      for (int x = 0; x < max; x += 2) {
-        points[x] = (float) (x / 2) + 0.5f;
-        points[x + 1] = iValue;
-      }
-      transform.transformPoints(points);
-      // Quick check to see if points transformed to something inside the image;
-      // sufficient to check the endpoints
-      checkAndNudgePoints(image, points);
-      try {
-        for (int x = 0; x < max; x += 2) {
-          if (image.get((int) points[x], (int) points[x + 1])) {
-            // Black(-ish) pixel
-            bits.set(x / 2, y);
-          }
+      transform.startRow(0.5f, y + 0.5f, start);
+      double numeratorX = start[0];
+      double numeratorY = start[1];
+      double denominator = start[2];
+      double stepX = start[3];
+      double stepY = start[4];
+      double stepDenominator = start[5];
+      long word = 0L;
+      for (int x = 0; x < dimensionX; x++) {
+        double reciprocal = 1.0 / denominator;
+        int imageX = nudge(numeratorX * reciprocal, width);
+        int imageY = nudge(numeratorY * reciprocal, height);
+        if (image.get(imageX, imageY)) {
+          // Black(-ish) pixel
+          word |= 1L << (x & 0x3F);
+        }
+        if ((x & 0x3F) == 0x3F || x == dimensionX - 1) {
+          rowWords[x >> 6] = word;
+          word = 0L;
         }
-      } catch (ArrayIndexOutOfBoundsException aioobe) {
-        // This feels wrong, but, sometimes if the finder patterns are misidentified, the resulting
-        // transform gets "twisted" such that it maps a straight line of points to a set of points
-        // whose endpoints are in bounds, but others are not. There is probably some mathematical
-        // way to detect this about the transformation that I don't know yet.
-        // This results in an ugly runtime exception despite our clever checks above -- can't have
-        // that. We could check each point's coordinates but that feels duplicative. We settle for
-        // catching and wrapping ArrayIndexOutOfBoundsException.
-        throw NotFoundException.getNotFoundInstance();
+        numeratorX += stepX;
+        numeratorY += stepY;
+        denominator += stepDenominator;
       }
+      bits.setRow(y, row);
     }
     return bits;
   }
 
+  /**
+   * @param coordinate coordinate of a sample point
+   * @param size width or height of the image
+   * @return the coordinate as a pixel index, moved onto the image if up to a pixel off it
+   * @throws NotFoundException if further off the image
+   */
+  private static int nudge(double coordinate, int size) throws NotFoundException {
+    int pixel = (int) coordinate;
+    if (pixel >= 0 && pixel < size) {
+      return pixel;
+    }
+    if (pixel == -1) {
+      return 0;
+    }
+    if (pixel == size) {
+      return size - 1;
+    }
+    // This used to turn up as an ArrayIndexOutOfBoundsException when finder patterns were
+    // misidentified, and the transform got "twisted" so that a row's endpoints were in bounds
+    // but points between were not
+    throw NotFoundException.getNotFoundInstance();
+  }
+
 }
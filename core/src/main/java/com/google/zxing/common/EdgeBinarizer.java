@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+
+/**
+ * This Binarizer finds the edges of bars in a row of luminance data rather than thresholding each
+ * pixel against one black point. Between two zero crossings of the gradient along the row,
+ * luminance only falls, or only rises: that stretch is one edge. Edges with too little contrast to
+ * be bars are taken for noise and ignored. Each edge is then placed at the first pixel past where
+ * it crosses halfway between the lightest and darkest luminance of the edges around it. Edges
+ * alternate between light-to-dark and dark-to-light, and pixels between the two are black.
+ *
+ * Because each edge is judged against its neighbors only, bars keep their widths under uneven
+ * lighting, and narrow bars blurred too much to cross a black point for the whole row are still
+ * found. But each row costs more than in {@link GlobalHistogramBinarizer}, and small, sharp
+ * images decode less often than with it or {@link HybridBinarizer}, so this is only worth using
+ * where 1D barcodes are known to be blurred. No reader uses it by default.
+ *
+ * For 2D readers, {@link #getBlackMatrix()} is that of {@link GlobalHistogramBinarizer}.
+ */
+public final class EdgeBinarizer extends GlobalHistogramBinarizer {
+
+  // Rows whose greatest edge contrast is less than this have no bars worth reading
+  private static final int MIN_DYNAMIC_RANGE = 24;
+  // And an edge must have at least this contrast, in any row, not to be taken for noise...
+  private static final int MIN_EDGE_CONTRAST = 16;
+  // ... as well as 1 / 2^EDGE_CONTRAST_SHIFT of the greatest in the row
+  private static final int EDGE_CONTRAST_SHIFT = 2;
+  // Edges this many either side of one give the light and dark luminance it's judged against
+  private static final int NEIGHBORHOOD = 4;
+  private static final byte[] EMPTY = new byte[0];
+
+  private byte[] luminances;
+  // First and last pixel of each edge
+  private int[] starts;
+  private int[] ends;
+
+  public EdgeBinarizer(LuminanceSource source) {
+    super(source);
+    luminances = EMPTY;
+    starts = new int[0];
+    ends = new int[0];
+  }
+
+  @Override
+  public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
+    LuminanceSource source = getLuminanceSource();
+    int width = source.getWidth();
+    if (row == null || row.getSize() < width) {
+      row = new BitArray(width);
+    } else {
+      row.clear();
+    }
+    if (width < 3) {
+      return super.getBlackRow(y, row);
+    }
+    initArrays(width);
+    byte[] localLuminances = source.getRow(y, luminances);
+
+    int numEdges = findEdges(localLuminances, width);
+    int maxContrast = 0;
+    for (int i = 0; i < numEdges; i++) {
+      maxContrast = Math.max(maxContrast, Math.abs(contrast(localLuminances, i)));
+    }
+    if (maxContrast < MIN_DYNAMIC_RANGE) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    int minContrast = Math.max(MIN_EDGE_CONTRAST, maxContrast >> EDGE_CONTRAST_SHIFT);
+    numEdges = dropNoise(localLuminances, numEdges, minContrast);
+    if (numEdges == 0) {
+      return row;
+    }
+
+    // Edges alternate, so whether pixels are black follows from the first
+    boolean black = contrast(localLuminances, 0) > 0;
+    int start = 0;
+    for (int i = 0; i < numEdges; i++) {
+      int end = locate(localLuminances, numEdges, i);
+      if (black) {
+        row.setRange(start, end);
+      }
+      start = end;
+      black = !black;
+    }
+    if (black) {
+      row.setRange(start, width);
+    }
+    return row;
+  }
+
+  /**
+   * Finds every stretch of the row over which luminance only falls or only rises, into
+   * {@link #starts} and {@link #ends}. Flat stretches don't end an edge.
+   *
+   * @return number of edges found
+   */
+  private int findEdges(byte[] localLuminances, int width) {
+    int[] localStarts = starts;
+    int[] localEnds = ends;
+    int numEdges = 0;
+    int last = localLuminances[0] & 0xff;
+    int lastGradient = 0;
+    for (int x = 0; x < width - 1; x++) {
+      int next = localLuminances[x + 1] & 0xff;
+      int gradient = next - last;
+      last = next;
+      if (gradient == 0) {
+        continue;
+      }
+      if (lastGradient == 0 || (gradient > 0) != (lastGradient > 0)) {
+        // The gradient crossed zero, starting an edge
+        localStarts[numEdges++] = x;
+        lastGradient = gradient;
+      }
+      localEnds[numEdges - 1] = x + 1;
+    }
+    return numEdges;
+  }
+
+  /**
+   * Drops edges with less than the given contrast. Edges either side of one dropped go the same
+   * way, and are merged into one, so that edges still alternate.
+   *
+   * @return number of edges left
+   */
+  private int dropNoise(byte[] localLuminances, int numEdges, int minContrast) {
+    int[] localStarts = starts;
+    int[] localEnds = ends;
+    int kept = 0;
+    for (int i = 0; i < numEdges; i++) {
+      int contrast = contrast(localLuminances, i);
+      if (Math.abs(contrast) < minContrast) {
+        continue;
+      }
+      if (kept > 0 && (contrast > 0) == (contrast(localLuminances, kept - 1) > 0)) {
+        // Extend the last edge kept through this one
+        localEnds[kept - 1] = localEnds[i];
+      } else {
+        localStarts[kept] = localStarts[i];
+        localEnds[kept++] = localEnds[i];
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * @return first pixel on the far side of an edge: the first past where it crosses halfway
+   *  between the lightest and darkest luminance at the ends of it and its neighbors. If it doesn't
+   *  cross, as when a narrow bar is blurred, the edge is just inside the end nearer halfway.
+   */
+  private int locate(byte[] localLuminances, int numEdges, int edge) {
+    int light = 0;
+    int dark = 255;
+    int last = Math.min(numEdges - 1, edge + NEIGHBORHOOD);
+    for (int i = Math.max(0, edge - NEIGHBORHOOD); i <= last; i++) {
+      int startLuminance = localLuminances[starts[i]] & 0xff;
+      int endLuminance = localLuminances[ends[i]] & 0xff;
+      light = Math.max(light, Math.max(startLuminance, endLuminance));
+      dark = Math.min(dark, Math.min(startLuminance, endLuminance));
+    }
+    // Doubled, to stay in integers
+    int middle = light + dark;
+    int start = starts[edge];
+    int end = ends[edge];
+    boolean rising = contrast(localLuminances, edge) > 0;
+    for (int x = start; x < end; x++) {
+      int here = 2 * (localLuminances[x] & 0xff);
+      int next = 2 * (localLuminances[x + 1] & 0xff);
+      if (rising ? here <= middle && middle < next : here >= middle && middle > next) {
+        return x + 1;
+      }
+    }
+    boolean nearerStart = rising == middle < 2 * (localLuminances[start] & 0xff);
+    return nearerStart ? start + 1 : end;
+  }
+
+  /**
+   * @return change in luminance over an edge, negative for light-to-dark
+   */
+  private int contrast(byte[] localLuminances, int edge) {
+    return (localLuminances[ends[edge]] & 0xff) - (localLuminances[starts[edge]] & 0xff);
+  }
+
+  @Override
+  public Binarizer createBinarizer(LuminanceSource source) {
+    return new EdgeBinarizer(source);
+  }
+
+  private void initArrays(int width) {
+    if (starts.length < width) {
+      luminances = new byte[width];
+      starts = new int[width];
+      ends = new int[width];
+    }
+  }
+
+}
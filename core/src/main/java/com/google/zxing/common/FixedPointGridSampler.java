@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.NotFoundException;
+
+/**
+ * <p>A {@link GridSampler} which steps the perspective transform along each row in fixed-point
+ * arithmetic. Along a row, the numerators and denominator of the transform change by a constant
+ * from one module to the next, so each module costs three additions and two integer divisions.
+ * Unlike the floating-point steps of {@link DefaultGridSampler}, these are added exactly, so no
+ * error builds up along the row.</p>
+ *
+ * <p>Points up to a pixel outside the image are moved onto its edge, as by
+ * {@link #checkAndNudgePoints(BitMatrix, float[])}, anywhere in the row; points further out mean
+ * the code can't be sampled.</p>
+ *
+ * <p>Use it for all decoding with {@link #setGridSampler(GridSampler)}, or for some calls with
+ * {@link com.google.zxing.DecodeHintType#GRID_SAMPLER}.</p>
+ */
+public final class FixedPointGridSampler extends GridSampler {
+
+  // Fixed-point values have this many bits of fraction
+  private static final int FRACTION_BITS = 32;
+  private static final double ONE = 1L << FRACTION_BITS;
+  // Larger values could overflow when stepped along a row
+  private static final double MAX_FIXED = 1L << 62;
+
+  @Override
+  public BitMatrix sampleGrid(BitMatrix image,
+                              int dimensionX,
+                              int dimensionY,
+                              float p1ToX, float p1ToY,
+                              float p2ToX, float p2ToY,
+                              float p3ToX, float p3ToY,
+                              float p4ToX, float p4ToY,
+                              float p1FromX, float p1FromY,
+                              float p2FromX, float p2FromY,
+                              float p3FromX, float p3FromY,
+                              float p4FromX, float p4FromY) throws NotFoundException {
+
+    PerspectiveTransform transform = PerspectiveTransform.quadrilateralToQuadrilateral(
+        p1ToX, p1ToY, p2ToX, p2ToY, p3ToX, p3ToY, p4ToX, p4ToY,
+        p1FromX, p1FromY, p2FromX, p2FromY, p3FromX, p3FromY, p4FromX, p4FromY);
+
+    return sampleGrid(image, dimensionX, dimensionY, transform);
+  }
+
+  @Override
+  public BitMatrix sampleGrid(BitMatrix image,
+                              int dimensionX,
+                              int dimensionY,
+                              PerspectiveTransform transform) throws NotFoundException {
+    if (dimensionX <= 0 || dimensionY <= 0) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    int width = image.getWidth();
+    int height = image.getHeight();
+    BitMatrix bits = new BitMatrix(dimensionX, dimensionY);
+    double[] row = new double[6];
+    for (int y = 0; y < dimensionY; y++) {
+      transform.startRow(0.5f, y + 0.5f, row);
+      // Scale so that the denominator starts at 1. Numerators are then about pixel coordinates,
+      // whatever the scale of the transform, which leaves fixed point plenty of range.
+      double scale = ONE / row[2];
+      long numeratorX = toFixed(row[0] * scale);
+      long numeratorY = toFixed(row[1] * scale);
+      long denominator = 1L << FRACTION_BITS;
+      long stepX = toFixed(row[3] * scale);
+      long stepY = toFixed(row[4] * scale);
+      long stepDenominator = toFixed(row[5] * scale);
+      // The denominator is linear along the row, so it is positive throughout if it is at the end.
+      // Otherwise the row crosses the horizon of the transform.
+      if (denominator + stepDenominator * (dimensionX - 1) <= 0) {
+        throw NotFoundException.getNotFoundInstance();
+      }
+      for (int x = 0; x < dimensionX; x++) {
+        int imageX = nudge(numeratorX / denominator, width);
+        int imageY = nudge(numeratorY / denominator, height);
+        if (image.get(imageX, imageY)) {
+          // Black(-ish) pixel
+          bits.set(x, y);
+        }
+        numeratorX += stepX;
+        numeratorY += stepY;
+        denominator += stepDenominator;
+      }
+    }
+    return bits;
+  }
+
+  private static long toFixed(double value) throws NotFoundException {
+    if (!(Math.abs(value) < MAX_FIXED)) {
+      // Also rejects NaN
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return (long) value;
+  }
+
+  /**
+   * @param coordinate coordinate of a sample point, truncated toward zero
+   * @param size width or height of the image
+   * @return the coordinate, moved onto the image if up to a pixel off it
+   * @throws NotFoundException if further off the image
+   */
+  private static int nudge(long coordinate, int size) throws NotFoundException {
+    if (coordinate >= 0 && coordinate < size) {
+      return (int) coordinate;
+    }
+    if (coordinate == -1) {
+      return 0;
+    }
+    if (coordinate == size) {
+      return size - 1;
+    }
+    throw NotFoundException.getNotFoundInstance();
+  }
+
+}
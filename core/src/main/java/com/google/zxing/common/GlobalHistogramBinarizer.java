@@ -118,11 +118,19 @@ public class GlobalHistogramBinarizer extends Binarizer {
     byte[] localLuminances = source.getMatrix();
     for (int y = 0; y < height; y++) {
       int offset = y * width;
+      long word = 0L;
       for (int x = 0; x < width; x++) {
         int pixel = localLuminances[offset + x] & 0xff;
         if (pixel < blackPoint) {
-          matrix.set(x, y);
+          word |= 1L << (x & 0x3f);
         }
+        if ((x & 0x3f) == 0x3f) {
+          matrix.setWord(x & ~0x3f, y, word);
+          word = 0L;
+        }
+      }
+      if ((width & 0x3f) != 0) {
+        matrix.setWord(width & ~0x3f, y, word);
       }
     }
 
@@ -16,8 +16,11 @@
 
 package com.google.zxing.common;
 
+import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 
+import java.util.Map;
+
 /**
  * Implementations of this class can, given locations of finder patterns for a QR code in an
  * image, sample the right points in the image to reconstruct the QR code, accounting for
@@ -27,7 +30,8 @@ import com.google.zxing.NotFoundException;
  * versa.
  *
  * The implementation used can be controlled by calling {@link #setGridSampler(GridSampler)}
- * with an instance of a class which implements this interface.
+ * with an instance of a class which implements this interface, or for a single call, by passing
+ * one as {@link DecodeHintType#GRID_SAMPLER}.
  *
  * @author Sean Owen
  */
@@ -55,6 +59,16 @@ public abstract class GridSampler {
     return gridSampler;
   }
 
+  /**
+   * @param hints decode hints, or null
+   * @return the {@link DecodeHintType#GRID_SAMPLER} hint if given, or else the current
+   *  implementation of GridSampler
+   */
+  public static GridSampler fromHints(Map<DecodeHintType,?> hints) {
+    GridSampler sampler = hints == null ? null : (GridSampler) hints.get(DecodeHintType.GRID_SAMPLER);
+    return sampler == null ? gridSampler : sampler;
+  }
+
   /**
    * Samples an image for a rectangular matrix of bits of the given dimension. The sampling
    * transformation is determined by the coordinates of 4 points, in the original and transformed
@@ -20,6 +20,9 @@ import com.google.zxing.Binarizer;
 import com.google.zxing.LuminanceSource;
 import com.google.zxing.NotFoundException;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * This class implements a local thresholding algorithm, which while slower than the
  * GlobalHistogramBinarizer, is fairly efficient for what it does. It is designed for
@@ -47,10 +50,40 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
   private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
   private static final int MIN_DYNAMIC_RANGE = 24;
 
+  // Images with at least this many pixels are binarized in parallel, if a pool was given
+  private static final int PARALLEL_MINIMUM_PIXELS = 1 << 21;
+  // Number of rows of blocks below which a band is not split further
+  private static final int BAND_BLOCK_ROWS = 32;
+
+  private final BinarizerWorkspace workspace;
+  private final ForkJoinPool pool;
   private BitMatrix matrix;
+  private PartialMatrix partialMatrix;
 
   public HybridBinarizer(LuminanceSource source) {
+    this(source, null, null);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param workspace reusable buffers to binarize into instead of allocating new ones for each
+   *  image, or null to allocate. See {@link BinarizerWorkspace} for the lifetime of the result.
+   */
+  public HybridBinarizer(LuminanceSource source, BinarizerWorkspace workspace) {
+    this(source, workspace, null);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param workspace reusable buffers to binarize into, or null to allocate
+   * @param pool if not null, large images are split into horizontal bands of blocks which are
+   *  binarized in parallel in this pool (on Java 8, this may be {@code ForkJoinPool.commonPool()}).
+   *  The result is identical to binarizing sequentially.
+   */
+  public HybridBinarizer(LuminanceSource source, BinarizerWorkspace workspace, ForkJoinPool pool) {
     super(source);
+    this.workspace = workspace;
+    this.pool = pool;
   }
 
   /**
@@ -63,23 +96,41 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
     if (matrix != null) {
       return matrix;
     }
+    if (partialMatrix != null) {
+      // Finish what getBlackMatrixRows() started rather than binarizing those rows again
+      matrix = partialMatrix.binarizeRows(0, partialMatrix.subHeight);
+      partialMatrix = null;
+      return matrix;
+    }
     LuminanceSource source = getLuminanceSource();
     int width = source.getWidth();
     int height = source.getHeight();
     if (width >= MINIMUM_DIMENSION && height >= MINIMUM_DIMENSION) {
-      byte[] luminances = source.getMatrix();
-      int subWidth = width >> BLOCK_SIZE_POWER;
-      if ((width & BLOCK_SIZE_MASK) != 0) {
-        subWidth++;
+      byte[] luminances = workspace == null ? source.getMatrix() : workspace.getLuminances(source);
+      int subWidth = countBlocks(width);
+      int subHeight = countBlocks(height);
+      int[][] blackPoints;
+      int[][] blockThresholds;
+      BitMatrix newMatrix;
+      if (workspace == null) {
+        blackPoints = new int[subHeight][subWidth];
+        blockThresholds = new int[2][subWidth];
+        newMatrix = new BitMatrix(width, height);
+      } else {
+        blackPoints = workspace.getBlackPoints(subWidth, subHeight);
+        blockThresholds = workspace.getBlockThresholds(subWidth);
+        newMatrix = workspace.getMatrix(width, height);
       }
-      int subHeight = height >> BLOCK_SIZE_POWER;
-      if ((height & BLOCK_SIZE_MASK) != 0) {
-        subHeight++;
+      if (pool != null && width * height >= PARALLEL_MINIMUM_PIXELS) {
+        pool.invoke(new BandTask(luminances, subWidth, subHeight, width, height, blackPoints, null, 0, subHeight));
+        resolveLowContrastBlocks(subWidth, 0, subHeight, blackPoints);
+        pool.invoke(new BandTask(luminances, subWidth, subHeight, width, height, blackPoints, newMatrix, 0, subHeight));
+      } else {
+        calculateBlockStatistics(luminances, subWidth, width, height, blackPoints, 0, subHeight);
+        resolveLowContrastBlocks(subWidth, 0, subHeight, blackPoints);
+        calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints,
+                                   blockThresholds, newMatrix, 0, subHeight);
       }
-      int[][] blackPoints = calculateBlackPoints(luminances, subWidth, subHeight, width, height);
-
-      BitMatrix newMatrix = new BitMatrix(width, height);
-      calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints, newMatrix);
       matrix = newMatrix;
     } else {
       // If the image is too small, fall back to the global histogram approach.
@@ -88,15 +139,59 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
     return matrix;
   }
 
+  /**
+   * Binarizes only the rows of blocks covering the given rows, the first time they are asked for,
+   * along with the black points of the blocks above them which their thresholds depend on. The
+   * rows are the same as those of {@link #getBlackMatrix()}, which then reuses them. With a
+   * workspace, whose buffers may be taken over by the next image, this binarizes the whole image.
+   */
+  @Override
+  public BitMatrix getBlackMatrixRows(int top, int height) throws NotFoundException {
+    if (matrix != null || workspace != null) {
+      return getBlackMatrix();
+    }
+    if (partialMatrix == null) {
+      LuminanceSource source = getLuminanceSource();
+      if (source.getWidth() < MINIMUM_DIMENSION || source.getHeight() < MINIMUM_DIMENSION) {
+        return getBlackMatrix();
+      }
+      partialMatrix = new PartialMatrix(source.getMatrix(), source.getWidth(), source.getHeight());
+    }
+    int fromY = partialMatrix.getBlockRow(top);
+    int toY = partialMatrix.getBlockRow(top + height - 1) + 1;
+    return partialMatrix.binarizeRows(fromY, toY);
+  }
+
   @Override
   public Binarizer createBinarizer(LuminanceSource source) {
-    return new HybridBinarizer(source);
+    return new HybridBinarizer(source, workspace, pool);
+  }
+
+  /**
+   * Like {@link #createBinarizer(LuminanceSource)}, but without the workspace, whose buffers only
+   * one binarizer may use at a time. The pool is still shared, as it can take tasks from any thread.
+   */
+  @Override
+  public Binarizer createIndependentBinarizer(LuminanceSource source) {
+    return new HybridBinarizer(source, null, pool);
+  }
+
+  private static int countBlocks(int pixels) {
+    return (pixels + BLOCK_SIZE_MASK) >> BLOCK_SIZE_POWER;
   }
 
   /**
    * For each block in the image, calculate the average black point using a 5x5 grid
    * of the blocks around it. Also handles the corner cases (fractional blocks are computed based
    * on the last pixels in the row/column which are also used in the previous block).
+   *
+   * The thresholds for one row of blocks are computed first, then each pixel row they cover is
+   * thresholded as a whole, a word at a time. A pixel covered by two blocks (in the last, overlapping
+   * row or column of blocks) is black if it is black under either threshold, that is, under the
+   * larger of the two, so those pixels are thresholded once against the maximum.
+   *
+   * Only the rows of blocks in [fromY,toY) are processed, and only pixel rows those blocks are
+   * responsible for are written, so disjoint ranges may be processed concurrently.
    */
   private static void calculateThresholdForBlock(byte[] luminances,
                                                  int subWidth,
@@ -104,75 +199,98 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
                                                  int width,
                                                  int height,
                                                  int[][] blackPoints,
-                                                 BitMatrix matrix) {
-    for (int y = 0; y < subHeight; y++) {
+                                                 int[][] blockThresholds,
+                                                 BitMatrix matrix,
+                                                 int fromY,
+                                                 int toY) {
+    int maxYOffset = height - BLOCK_SIZE;
+    int[] previousThresholds = blockThresholds[0];
+    int[] thresholds = blockThresholds[1];
+    for (int y = fromY; y < toY; y++) {
+      calculateBlockThresholds(subWidth, subHeight, blackPoints, y, thresholds);
       int yoffset = y << BLOCK_SIZE_POWER;
-      int maxYOffset = height - BLOCK_SIZE;
       if (yoffset > maxYOffset) {
+        // The last row of blocks is shifted up to end at the bottom of the image, so its first rows
+        // are also covered by the previous row of blocks. It handles them, against both.
         yoffset = maxYOffset;
-      }
-      for (int x = 0; x < subWidth; x++) {
-        int xoffset = x << BLOCK_SIZE_POWER;
-        int maxXOffset = width - BLOCK_SIZE;
-        if (xoffset > maxXOffset) {
-          xoffset = maxXOffset;
+        int previousEnd = y << BLOCK_SIZE_POWER;
+        calculateBlockThresholds(subWidth, subHeight, blackPoints, y - 1, previousThresholds);
+        for (int x = 0; x < subWidth; x++) {
+          previousThresholds[x] = Math.max(previousThresholds[x], thresholds[x]);
         }
-        int left = cap(x, 2, subWidth - 3);
-        int top = cap(y, 2, subHeight - 3);
-        int sum = 0;
-        for (int z = -2; z <= 2; z++) {
-          int[] blackRow = blackPoints[top + z];
-          sum += blackRow[left - 2] + blackRow[left - 1] + blackRow[left] + blackRow[left + 1] + blackRow[left + 2];
+        for (int yy = yoffset; yy < previousEnd; yy++) {
+          thresholdRow(luminances, yy, width, previousThresholds, matrix);
+        }
+        for (int yy = previousEnd; yy < height; yy++) {
+          thresholdRow(luminances, yy, width, thresholds, matrix);
+        }
+      } else {
+        // Leave rows shared with a shifted last row of blocks to it
+        int end = Math.min(yoffset + BLOCK_SIZE, y == subHeight - 2 ? maxYOffset : height);
+        for (int yy = yoffset; yy < end; yy++) {
+          thresholdRow(luminances, yy, width, thresholds, matrix);
         }
-        int average = sum / 25;
-        thresholdBlock(luminances, xoffset, yoffset, average, width, matrix);
       }
     }
   }
 
-  private static int cap(int value, int min, int max) {
-    return value < min ? min : value > max ? max : value;
+  private static void thresholdRow(byte[] luminances, int y, int width, int[] thresholds, BitMatrix matrix) {
+    // The last block is shifted left to end at the right of the image, and may overlap the one before
+    matrix.setRowBelowThresholds(y, luminances, y * width, thresholds, BLOCK_SIZE_POWER, width - BLOCK_SIZE);
   }
 
   /**
-   * Applies a single threshold to a block of pixels.
+   * Computes the threshold of each block in row y as the average black point of the 5x5 blocks
+   * around it, clamped to the grid.
    */
-  private static void thresholdBlock(byte[] luminances,
-                                     int xoffset,
-                                     int yoffset,
-                                     int threshold,
-                                     int stride,
-                                     BitMatrix matrix) {
-    for (int y = 0, offset = yoffset * stride + xoffset; y < BLOCK_SIZE; y++, offset += stride) {
-      for (int x = 0; x < BLOCK_SIZE; x++) {
-        // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0.
-        if ((luminances[offset + x] & 0xFF) <= threshold) {
-          matrix.set(xoffset + x, yoffset + y);
-        }
+  private static void calculateBlockThresholds(int subWidth,
+                                               int subHeight,
+                                               int[][] blackPoints,
+                                               int y,
+                                               int[] thresholds) {
+    int top = cap(y, 2, subHeight - 3);
+    for (int x = 0; x < subWidth; x++) {
+      int left = cap(x, 2, subWidth - 3);
+      int sum = 0;
+      for (int z = -2; z <= 2; z++) {
+        int[] blackRow = blackPoints[top + z];
+        sum += blackRow[left - 2] + blackRow[left - 1] + blackRow[left] + blackRow[left + 1] + blackRow[left + 2];
       }
+      thresholds[x] = sum / 25;
     }
   }
 
+  private static int cap(int value, int min, int max) {
+    return value < min ? min : value > max ? max : value;
+  }
+
   /**
    * Calculates a single black point for each block of pixels and saves it away.
    * See the following thread for a discussion of this algorithm:
    *  http://groups.google.com/group/zxing/browse_thread/thread/d06efa2c35a7ddc0
+   *
+   * This only looks at the pixels of each block in the rows of blocks [fromY,toY), so disjoint
+   * ranges may be processed concurrently. Blocks with too little contrast depend on their
+   * neighbors, so for now their minimum is stored as {@code ~min}, to be resolved afterwards by
+   * {@link #resolveLowContrastBlocks(int, int, int, int[][])}.
    */
-  private static int[][] calculateBlackPoints(byte[] luminances,
-                                              int subWidth,
-                                              int subHeight,
-                                              int width,
-                                              int height) {
-    int[][] blackPoints = new int[subHeight][subWidth];
-    for (int y = 0; y < subHeight; y++) {
+  private static void calculateBlockStatistics(byte[] luminances,
+                                               int subWidth,
+                                               int width,
+                                               int height,
+                                               int[][] blackPoints,
+                                               int fromY,
+                                               int toY) {
+    int maxYOffset = height - BLOCK_SIZE;
+    int maxXOffset = width - BLOCK_SIZE;
+    for (int y = fromY; y < toY; y++) {
       int yoffset = y << BLOCK_SIZE_POWER;
-      int maxYOffset = height - BLOCK_SIZE;
       if (yoffset > maxYOffset) {
         yoffset = maxYOffset;
       }
+      int[] blackRow = blackPoints[y];
       for (int x = 0; x < subWidth; x++) {
         int xoffset = x << BLOCK_SIZE_POWER;
-        int maxXOffset = width - BLOCK_SIZE;
         if (xoffset > maxXOffset) {
           xoffset = maxXOffset;
         }
@@ -203,35 +321,164 @@ public final class HybridBinarizer extends GlobalHistogramBinarizer {
         }
 
         // The default estimate is the average of the values in the block.
-        int average = sum >> (BLOCK_SIZE_POWER * 2);
-        if (max - min <= MIN_DYNAMIC_RANGE) {
-          // If variation within the block is low, assume this is a block with only light or only
-          // dark pixels. In that case we do not want to use the average, as it would divide this
-          // low contrast area into black and white pixels, essentially creating data out of noise.
-          //
-          // The default assumption is that the block is light/background. Since no estimate for
-          // the level of dark pixels exists locally, use half the min for the block.
-          average = min / 2;
-
-          if (y > 0 && x > 0) {
-            // Correct the "white background" assumption for blocks that have neighbors by comparing
-            // the pixels in this block to the previously calculated black points. This is based on
-            // the fact that dark barcode symbology is always surrounded by some amount of light
-            // background for which reasonable black point estimates were made. The bp estimated at
-            // the boundaries is used for the interior.
-
-            // The (min < bp) is arbitrary but works better than other heuristics that were tried.
-            int averageNeighborBlackPoint =
-                (blackPoints[y - 1][x] + (2 * blackPoints[y][x - 1]) + blackPoints[y - 1][x - 1]) / 4;
-            if (min < averageNeighborBlackPoint) {
-              average = averageNeighborBlackPoint;
-            }
+        blackRow[x] = max - min > MIN_DYNAMIC_RANGE ? sum >> (BLOCK_SIZE_POWER * 2) : ~min;
+      }
+    }
+  }
+
+  /**
+   * Replaces the placeholder left by {@link #calculateBlockStatistics(byte[], int, int, int, int[][], int, int)}
+   * for each low contrast block with its black point. This must see blocks in order, but only
+   * touches each block once, so is cheap compared to the per-pixel work. Only the rows of blocks in
+   * [fromY,toY) are resolved; they only depend on the rows above, which must be resolved already.
+   */
+  private static void resolveLowContrastBlocks(int subWidth, int fromY, int toY, int[][] blackPoints) {
+    for (int y = fromY; y < toY; y++) {
+      for (int x = 0; x < subWidth; x++) {
+        int value = blackPoints[y][x];
+        if (value >= 0) {
+          continue;
+        }
+        int min = ~value;
+        // If variation within the block is low, assume this is a block with only light or only
+        // dark pixels. In that case we do not want to use the average, as it would divide this
+        // low contrast area into black and white pixels, essentially creating data out of noise.
+        //
+        // The default assumption is that the block is light/background. Since no estimate for
+        // the level of dark pixels exists locally, use half the min for the block.
+        int average = min / 2;
+
+        if (y > 0 && x > 0) {
+          // Correct the "white background" assumption for blocks that have neighbors by comparing
+          // the pixels in this block to the previously calculated black points. This is based on
+          // the fact that dark barcode symbology is always surrounded by some amount of light
+          // background for which reasonable black point estimates were made. The bp estimated at
+          // the boundaries is used for the interior.
+
+          // The (min < bp) is arbitrary but works better than other heuristics that were tried.
+          int averageNeighborBlackPoint =
+              (blackPoints[y - 1][x] + (2 * blackPoints[y][x - 1]) + blackPoints[y - 1][x - 1]) / 4;
+          if (min < averageNeighborBlackPoint) {
+            average = averageNeighborBlackPoint;
           }
         }
         blackPoints[y][x] = average;
       }
     }
-    return blackPoints;
+  }
+
+  /**
+   * A matrix binarized a few rows of blocks at a time, in the same way as a whole one. The black
+   * points of a row of blocks depend on those above it, so they are computed from the top down as
+   * far as needed. A row of blocks is thresholded with the black points of the two rows on either
+   * side, so it can be thresholded once those are known.
+   */
+  private static final class PartialMatrix {
+
+    private final byte[] luminances;
+    private final int width;
+    private final int height;
+    private final int subWidth;
+    private final int subHeight;
+    private final int[][] blackPoints;
+    private final int[][] blockThresholds;
+    private final boolean[] thresholded;
+    private final BitMatrix matrix;
+    private int statisticsRows;
+
+    PartialMatrix(byte[] luminances, int width, int height) {
+      this.luminances = luminances;
+      this.width = width;
+      this.height = height;
+      subWidth = countBlocks(width);
+      subHeight = countBlocks(height);
+      blackPoints = new int[subHeight][subWidth];
+      blockThresholds = new int[2][subWidth];
+      thresholded = new boolean[subHeight];
+      matrix = new BitMatrix(width, height);
+    }
+
+    /**
+     * @return the row of blocks which thresholds pixel row y; the last one, shifted up to end at
+     *  the bottom of the image, thresholds all the rows it covers
+     */
+    int getBlockRow(int y) {
+      return y >= height - BLOCK_SIZE ? subHeight - 1 : y >> BLOCK_SIZE_POWER;
+    }
+
+    BitMatrix binarizeRows(int fromY, int toY) {
+      // Thresholds of a row of blocks are averaged over up to two rows of blocks below it, or down
+      // to the fifth row for the first rows
+      int neededRows = Math.min(subHeight, Math.max(toY + 2, 5));
+      if (neededRows > statisticsRows) {
+        calculateBlockStatistics(luminances, subWidth, width, height, blackPoints, statisticsRows, neededRows);
+        resolveLowContrastBlocks(subWidth, statisticsRows, neededRows, blackPoints);
+        statisticsRows = neededRows;
+      }
+      for (int y = fromY; y < toY; y++) {
+        if (!thresholded[y]) {
+          calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints,
+                                     blockThresholds, matrix, y, y + 1);
+          thresholded[y] = true;
+        }
+      }
+      return matrix;
+    }
+  }
+
+  /**
+   * Binarizes a band of rows of blocks, splitting it in two while it is large. Without a matrix,
+   * computes block statistics; with one, thresholds the band into it. Bands only ever write their
+   * own rows. The thresholding reads up to two rows of black points above and below the band, which
+   * are complete and no longer modified by then.
+   */
+  @SuppressWarnings("serial") // Inherits Serializable from ForkJoinTask, but is never serialized
+  private static final class BandTask extends RecursiveAction {
+
+    private final byte[] luminances;
+    private final int subWidth;
+    private final int subHeight;
+    private final int width;
+    private final int height;
+    private final int[][] blackPoints;
+    private final BitMatrix matrix;
+    private final int fromY;
+    private final int toY;
+
+    BandTask(byte[] luminances,
+             int subWidth,
+             int subHeight,
+             int width,
+             int height,
+             int[][] blackPoints,
+             BitMatrix matrix,
+             int fromY,
+             int toY) {
+      this.luminances = luminances;
+      this.subWidth = subWidth;
+      this.subHeight = subHeight;
+      this.width = width;
+      this.height = height;
+      this.blackPoints = blackPoints;
+      this.matrix = matrix;
+      this.fromY = fromY;
+      this.toY = toY;
+    }
+
+    @Override
+    protected void compute() {
+      if (toY - fromY > BAND_BLOCK_ROWS) {
+        int middle = (fromY + toY) / 2;
+        invokeAll(
+            new BandTask(luminances, subWidth, subHeight, width, height, blackPoints, matrix, fromY, middle),
+            new BandTask(luminances, subWidth, subHeight, width, height, blackPoints, matrix, middle, toY));
+      } else if (matrix == null) {
+        calculateBlockStatistics(luminances, subWidth, width, height, blackPoints, fromY, toY);
+      } else {
+        calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints,
+                                   new int[2][subWidth], matrix, fromY, toY);
+      }
+    }
   }
 
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+
+/**
+ * <p>A local thresholding binarizer which, unlike {@link HybridBinarizer}, builds a summed-area
+ * table (integral image) of the luminance once and then computes the mean of any window in
+ * constant time. The cost per pixel is therefore the same whatever the window size, which can be
+ * tuned to the barcodes at hand: large windows for labels with big modules, small ones for dense
+ * codes.</p>
+ *
+ * <p>The image is thresholded in 8x8 pixel blocks. Each block's threshold comes from the window
+ * of the given size centered on it, clipped to the image. By default a pixel is black if it is
+ * sufficiently darker than the window mean (Bradley and Roth). Optionally a summed-area table of
+ * squares is also built, and the threshold also takes the window's standard deviation into account
+ * (Sauvola), which copes better with low contrast areas at the cost of twice the memory.</p>
+ *
+ * <p>Like {@link HybridBinarizer}, this uses the global histogram approach for 1D rows.</p>
+ */
+public final class IntegralImageBinarizer extends GlobalHistogramBinarizer {
+
+  private static final int BLOCK_SIZE_POWER = 3;
+  private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_POWER;
+  private static final int DEFAULT_WINDOW_SIZE = BLOCK_SIZE * 5;
+  // Keeps every window sum of squares below 2^32; see buildIntegralImages()
+  private static final int MAX_WINDOW_SIZE = 256;
+  // Pixels darker than the mean by more than this percentage are black
+  private static final int MEAN_THRESHOLD_PERCENT = 85;
+  // Sauvola's sensitivity and dynamic range of the standard deviation
+  private static final double SAUVOLA_K = 0.2;
+  private static final double SAUVOLA_R = 128.0;
+
+  private final int windowSize;
+  private final boolean useVariance;
+  private BitMatrix matrix;
+
+  public IntegralImageBinarizer(LuminanceSource source) {
+    this(source, DEFAULT_WINDOW_SIZE, false);
+  }
+
+  /**
+   * @param source luminance data to binarize
+   * @param windowSize width and height in pixels of the window around each block whose statistics
+   *  determine the block's threshold, in [1,256]
+   * @param useVariance if true, also use the standard deviation of the window, not just its mean
+   */
+  public IntegralImageBinarizer(LuminanceSource source, int windowSize, boolean useVariance) {
+    super(source);
+    if (windowSize < 1 || windowSize > MAX_WINDOW_SIZE) {
+      throw new IllegalArgumentException("Window size must be in [1," + MAX_WINDOW_SIZE + "]: " + windowSize);
+    }
+    this.windowSize = windowSize;
+    this.useVariance = useVariance;
+  }
+
+  @Override
+  public BitMatrix getBlackMatrix() throws NotFoundException {
+    if (matrix != null) {
+      return matrix;
+    }
+    LuminanceSource source = getLuminanceSource();
+    int width = source.getWidth();
+    int height = source.getHeight();
+    byte[] luminances = source.getMatrix();
+    int[] sums = new int[(width + 1) * (height + 1)];
+    int[] squareSums = useVariance ? new int[sums.length] : null;
+    buildIntegralImages(luminances, width, height, sums, squareSums);
+
+    int subWidth = (width + BLOCK_SIZE - 1) >> BLOCK_SIZE_POWER;
+    int subHeight = (height + BLOCK_SIZE - 1) >> BLOCK_SIZE_POWER;
+    int[] thresholds = new int[subWidth];
+    BitMatrix newMatrix = new BitMatrix(width, height);
+    int halfWindow = windowSize / 2;
+    for (int y = 0; y < subHeight; y++) {
+      int yoffset = y << BLOCK_SIZE_POWER;
+      int blockBottom = Math.min(yoffset + BLOCK_SIZE, height);
+      int centerY = (yoffset + blockBottom) / 2;
+      int top = Math.max(0, centerY - halfWindow);
+      int bottom = Math.min(height, top + windowSize);
+      for (int x = 0; x < subWidth; x++) {
+        int xoffset = x << BLOCK_SIZE_POWER;
+        int centerX = (xoffset + Math.min(xoffset + BLOCK_SIZE, width)) / 2;
+        int left = Math.max(0, centerX - halfWindow);
+        int right = Math.min(width, left + windowSize);
+        thresholds[x] = calculateThreshold(sums, squareSums, width, left, top, right, bottom);
+      }
+      for (int yy = yoffset; yy < blockBottom; yy++) {
+        // Blocks don't overlap here; the last is just narrower
+        newMatrix.setRowBelowThresholds(yy, luminances, yy * width, thresholds, BLOCK_SIZE_POWER, width);
+      }
+    }
+    matrix = newMatrix;
+    return matrix;
+  }
+
+  @Override
+  public Binarizer createBinarizer(LuminanceSource source) {
+    return new IntegralImageBinarizer(source, windowSize, useVariance);
+  }
+
+  /**
+   * Builds the summed-area tables, each (width + 1) x (height + 1) with a leading row and column of
+   * zeroes. Sums over a large image overflow an int, but since they are only ever used to compute
+   * the sum over a window by adding and subtracting corners, the overflow cancels out as long as the
+   * window's own sum fits in 32 unsigned bits, which MAX_WINDOW_SIZE guarantees.
+   */
+  private static void buildIntegralImages(byte[] luminances,
+                                          int width,
+                                          int height,
+                                          int[] sums,
+                                          int[] squareSums) {
+    int stride = width + 1;
+    for (int y = 0; y < height; y++) {
+      int offset = y * width;
+      int above = y * stride + 1;
+      int current = above + stride;
+      int rowSum = 0;
+      int rowSquareSum = 0;
+      for (int x = 0; x < width; x++) {
+        int pixel = luminances[offset + x] & 0xFF;
+        rowSum += pixel;
+        sums[current + x] = sums[above + x] + rowSum;
+        if (squareSums != null) {
+          rowSquareSum += pixel * pixel;
+          squareSums[current + x] = squareSums[above + x] + rowSquareSum;
+        }
+      }
+    }
+  }
+
+  private static int calculateThreshold(int[] sums,
+                                        int[] squareSums,
+                                        int width,
+                                        int left,
+                                        int top,
+                                        int right,
+                                        int bottom) {
+    int stride = width + 1;
+    int area = (right - left) * (bottom - top);
+    long sum = windowSum(sums, stride, left, top, right, bottom);
+    if (squareSums == null) {
+      return (int) (sum * MEAN_THRESHOLD_PERCENT / (100L * area));
+    }
+    double mean = (double) sum / area;
+    double variance = (double) windowSum(squareSums, stride, left, top, right, bottom) / area - mean * mean;
+    double standardDeviation = variance > 0.0 ? Math.sqrt(variance) : 0.0;
+    return (int) (mean * (1.0 + SAUVOLA_K * (standardDeviation / SAUVOLA_R - 1.0)));
+  }
+
+  private static long windowSum(int[] table, int stride, int left, int top, int right, int bottom) {
+    int topOffset = top * stride;
+    int bottomOffset = bottom * stride;
+    int sum = table[bottomOffset + right] - table[bottomOffset + left] - table[topOffset + right] + table[topOffset + left];
+    return sum & 0xFFFFFFFFL;
+  }
+
+}
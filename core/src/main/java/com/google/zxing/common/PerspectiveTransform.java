@@ -94,6 +94,25 @@ public final class PerspectiveTransform {
     }
   }
 
+  /**
+   * Sets up transforming a row of points spaced 1 apart in x, incrementally. Along such a row
+   * the numerators and denominator of the transform are linear, so each point's can be had from
+   * the last one's by adding a step.
+   *
+   * @param x x of the first point in the row
+   * @param y y of every point in the row
+   * @param row receives the numerators of x and y, and the denominator, at the first point;
+   *  then how much each grows from one point to the next
+   */
+  void startRow(float x, float y, double[] row) {
+    row[0] = (double) a11 * x + (double) a21 * y + a31;
+    row[1] = (double) a12 * x + (double) a22 * y + a32;
+    row[2] = (double) a13 * x + (double) a23 * y + a33;
+    row[3] = a11;
+    row[4] = a12;
+    row[5] = a13;
+  }
+
   public static PerspectiveTransform squareToQuadrilateral(float x0, float y0,
                                                            float x1, float y1,
                                                            float x2, float y2,
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import java.util.Arrays;
+
+/**
+ * <p>A row of black and white pixels represented as the runs of same-colored pixels in it, along
+ * with the {@link BitArray} it was built from. Runs alternate between black and white, so a run's
+ * color follows from the color of the first one. 1D readers look for patterns in the widths of
+ * runs, which are available here without walking the row pixel by pixel.</p>
+ *
+ * <p>The runs are computed when this is constructed, so the row must not be modified afterwards.</p>
+ */
+public final class RunLengthRow {
+
+  private final BitArray row;
+  private final boolean firstBlack;
+  private final int numRuns;
+  // Start of each run, followed by the size of the row
+  private final int[] starts;
+
+  public RunLengthRow(BitArray row) {
+    this.row = row;
+    int size = row.getSize();
+    int[] starts = new int[16];
+    int numRuns = 0;
+    boolean black = size > 0 && row.get(0);
+    this.firstBlack = black;
+    int x = 0;
+    while (x < size) {
+      if (numRuns + 1 == starts.length) {
+        starts = Arrays.copyOf(starts, starts.length * 2);
+      }
+      starts[numRuns++] = x;
+      x = black ? row.getNextUnset(x) : row.getNextSet(x);
+      black = !black;
+    }
+    starts[numRuns] = size;
+    this.starts = starts;
+    this.numRuns = numRuns;
+  }
+
+  /**
+   * @return the row of pixels
+   */
+  public BitArray getRow() {
+    return row;
+  }
+
+  /**
+   * @return the number of pixels in the row
+   */
+  public int getSize() {
+    return starts[numRuns];
+  }
+
+  /**
+   * @return the number of runs in the row
+   */
+  public int getNumRuns() {
+    return numRuns;
+  }
+
+  /**
+   * @param run index of the run
+   * @return true iff the run is of black pixels
+   */
+  public boolean isBlack(int run) {
+    return firstBlack ^ ((run & 0x01) != 0);
+  }
+
+  /**
+   * @param run index of the run
+   * @return offset of the first pixel of the run
+   */
+  public int getRunStart(int run) {
+    return starts[run];
+  }
+
+  /**
+   * @param run index of the run
+   * @return offset just past the last pixel of the run
+   */
+  public int getRunEnd(int run) {
+    return starts[run + 1];
+  }
+
+  /**
+   * @param run index of the run
+   * @return number of pixels in the run
+   */
+  public int getRunLength(int run) {
+    return starts[run + 1] - starts[run];
+  }
+
+  /**
+   * @param x offset of a pixel in the row
+   * @return index of the run which contains the pixel
+   */
+  public int getRunIndex(int x) {
+    if (x < 0 || x >= getSize()) {
+      throw new IllegalArgumentException("Offset is outside the row: " + x);
+    }
+    int index = Arrays.binarySearch(starts, 0, numRuns, x);
+    // Otherwise the run starting before x, from the insertion point -(index + 1)
+    return index >= 0 ? index : -index - 2;
+  }
+
+}
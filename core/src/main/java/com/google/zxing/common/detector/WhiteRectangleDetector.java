@@ -83,6 +83,19 @@ public final class WhiteRectangleDetector {
    * @throws NotFoundException if no Data Matrix Code can be found
    */
   public ResultPoint[] detect() throws NotFoundException {
+    ResultPoint[] corners = detectIfPresent();
+    if (corners == null) {
+      return null;
+    }
+    return corners;
+  }
+
+  /**
+   * Like {@link #detect()}, but returns null rather than throwing if no rectangular region is found.
+   *
+   * @return {@link ResultPoint}[] describing the corners of the rectangular region, or null
+   */
+  public ResultPoint[] detectIfPresent() {
 
     int left = leftInit;
     int right = rightInit;
@@ -200,7 +213,7 @@ public final class WhiteRectangleDetector {
       }
 
       if (z == null) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
 
       ResultPoint t = null;
@@ -213,7 +226,7 @@ public final class WhiteRectangleDetector {
       }
 
       if (t == null) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
 
       ResultPoint x = null;
@@ -226,7 +239,7 @@ public final class WhiteRectangleDetector {
       }
 
       if (x == null) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
 
       ResultPoint y = null;
@@ -239,13 +252,13 @@ public final class WhiteRectangleDetector {
       }
 
       if (y == null) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
 
       return centerEdges(y, z, x, t);
 
     } else {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
   }
 
@@ -20,15 +20,19 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Reader;
+import com.google.zxing.OutcomeReader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.RegionsOfInterest;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.DecoderResult;
 import com.google.zxing.common.DetectorResult;
+import com.google.zxing.common.GridSampler;
 import com.google.zxing.datamatrix.decoder.Decoder;
 import com.google.zxing.datamatrix.detector.Detector;
 
@@ -40,7 +44,7 @@ import java.util.Map;
  *
  * @author bbrown@google.com (Brian Brown)
  */
-public final class DataMatrixReader implements Reader {
+public final class DataMatrixReader implements OutcomeReader {
 
   private static final ResultPoint[] NO_POINTS = new ResultPoint[0];
 
@@ -62,17 +66,45 @@ public final class DataMatrixReader implements Reader {
   @Override
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
-    DecoderResult decoderResult;
-    ResultPoint[] points;
-    if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
-      BitMatrix bits = extractPureBits(image.getBlackMatrix());
-      decoderResult = decoder.decode(bits);
-      points = NO_POINTS;
-    } else {
-      DetectorResult detectorResult = new Detector(image.getBlackMatrix()).detect();
-      decoderResult = decoder.decode(detectorResult.getBits());
-      points = detectorResult.getPoints();
+    return decodeOutcome(image, hints).getResultOrThrow();
+  }
+
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it. An image
+   * without the white rectangle and solid sides of a code fails without an exception; failures
+   * after that, in sampling or error correction, are caught here.
+   */
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+    try {
+      DecoderResult decoderResult;
+      ResultPoint[] points;
+      if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
+        BitMatrix bits = extractPureBits(image.getBlackMatrix());
+        if (bits == null) {
+          return DecodeOutcome.notFound();
+        }
+        decoderResult = decoder.decode(bits);
+        points = NO_POINTS;
+      } else {
+        DetectorResult detectorResult =
+            new Detector(image.getBlackMatrix(), GridSampler.fromHints(hints)).detectIfPresent();
+        if (detectorResult == null) {
+          return DecodeOutcome.notFound();
+        }
+        decoderResult = decoder.decode(detectorResult.getBits());
+        points = detectorResult.getPoints();
+      }
+      return DecodeOutcome.of(toResult(decoderResult, points));
+    } catch (ReaderException re) {
+      return DecodeOutcome.of(re);
     }
+  }
+
+  private static Result toResult(DecoderResult decoderResult, ResultPoint[] points) {
     Result result = new Result(decoderResult.getText(), decoderResult.getRawBytes(), points,
         BarcodeFormat.DATA_MATRIX);
     List<byte[]> byteSegments = decoderResult.getByteSegments();
@@ -97,17 +129,21 @@ public final class DataMatrixReader implements Reader {
    * around it. This is a specialized method that works exceptionally fast in this special
    * case.
    *
+   * @return the bits of the code, or null if the image doesn't look like one
    * @see com.google.zxing.qrcode.QRCodeReader#extractPureBits(BitMatrix)
    */
-  private static BitMatrix extractPureBits(BitMatrix image) throws NotFoundException {
+  private static BitMatrix extractPureBits(BitMatrix image) {
 
     int[] leftTopBlack = image.getTopLeftOnBit();
     int[] rightBottomBlack = image.getBottomRightOnBit();
     if (leftTopBlack == null || rightBottomBlack == null) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     int moduleSize = moduleSize(leftTopBlack, image);
+    if (moduleSize <= 0) {
+      return null;
+    }
 
     int top = leftTopBlack[1];
     int bottom = rightBottomBlack[1];
@@ -117,7 +153,7 @@ public final class DataMatrixReader implements Reader {
     int matrixWidth = (right - left + 1) / moduleSize;
     int matrixHeight = (bottom - top + 1) / moduleSize;
     if (matrixWidth <= 0 || matrixHeight <= 0) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // Push in the "border" by half the module width so that we start
@@ -140,7 +176,10 @@ public final class DataMatrixReader implements Reader {
     return bits;
   }
 
-  private static int moduleSize(int[] leftTopBlack, BitMatrix image) throws NotFoundException {
+  /**
+   * @return width of the black module at the top left, or 0 if it runs off the image
+   */
+  private static int moduleSize(int[] leftTopBlack, BitMatrix image) {
     int width = image.getWidth();
     int x = leftTopBlack[0];
     int y = leftTopBlack[1];
@@ -148,14 +187,9 @@ public final class DataMatrixReader implements Reader {
       x++;
     }
     if (x == width) {
-      throw NotFoundException.getNotFoundInstance();
-    }
-
-    int moduleSize = x - leftTopBlack[0];
-    if (moduleSize == 0) {
-      throw NotFoundException.getNotFoundInstance();
+      return 0;
     }
-    return moduleSize;
+    return x - leftTopBlack[0];
   }
 
 }
\ No newline at end of file
@@ -42,10 +42,21 @@ public final class Detector {
 
   private final BitMatrix image;
   private final WhiteRectangleDetector rectangleDetector;
+  private final GridSampler gridSampler;
 
   public Detector(BitMatrix image) throws NotFoundException {
+    this(image, GridSampler.getInstance());
+  }
+
+  /**
+   * @param image image to detect a Data Matrix Code in
+   * @param gridSampler sampler with which to read the code's modules from image
+   * @throws NotFoundException if image is too small to hold a code
+   */
+  public Detector(BitMatrix image, GridSampler gridSampler) throws NotFoundException {
     this.image = image;
     rectangleDetector = new WhiteRectangleDetector(image);
+    this.gridSampler = gridSampler;
   }
 
   /**
@@ -55,8 +66,26 @@ public final class Detector {
    * @throws NotFoundException if no Data Matrix Code can be found
    */
   public DetectorResult detect() throws NotFoundException {
+    DetectorResult detectorResult = detectIfPresent();
+    if (detectorResult == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return detectorResult;
+  }
+
+  /**
+   * <p>Like {@link #detect()}, but returns null rather than throwing when there is no white
+   * rectangle around a possible code with two solid sides, the usual case for images without one.</p>
+   *
+   * @return {@link DetectorResult} encapsulating results of detecting a Data Matrix Code, or null
+   * @throws NotFoundException if the code found can't be sampled
+   */
+  public DetectorResult detectIfPresent() throws NotFoundException {
 
-    ResultPoint[] cornerPoints = rectangleDetector.detect();
+    ResultPoint[] cornerPoints = rectangleDetector.detectIfPresent();
+    if (cornerPoints == null) {
+      return null;
+    }
     ResultPoint pointA = cornerPoints[0];
     ResultPoint pointB = cornerPoints[1];
     ResultPoint pointC = cornerPoints[2];
@@ -104,7 +133,7 @@ public final class Detector {
     }
 
     if (maybeTopLeft == null || bottomLeft == null || maybeBottomRight == null) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // Bottom left is correct but top left and bottom right might be switched
@@ -318,35 +347,33 @@ public final class Detector {
     table.put(key, value == null ? 1 : value + 1);
   }
 
-  private static BitMatrix sampleGrid(BitMatrix image,
-                                      ResultPoint topLeft,
-                                      ResultPoint bottomLeft,
-                                      ResultPoint bottomRight,
-                                      ResultPoint topRight,
-                                      int dimensionX,
-                                      int dimensionY) throws NotFoundException {
-
-    GridSampler sampler = GridSampler.getInstance();
-
-    return sampler.sampleGrid(image,
-                              dimensionX,
-                              dimensionY,
-                              0.5f,
-                              0.5f,
-                              dimensionX - 0.5f,
-                              0.5f,
-                              dimensionX - 0.5f,
-                              dimensionY - 0.5f,
-                              0.5f,
-                              dimensionY - 0.5f,
-                              topLeft.getX(),
-                              topLeft.getY(),
-                              topRight.getX(),
-                              topRight.getY(),
-                              bottomRight.getX(),
-                              bottomRight.getY(),
-                              bottomLeft.getX(),
-                              bottomLeft.getY());
+  private BitMatrix sampleGrid(BitMatrix image,
+                               ResultPoint topLeft,
+                               ResultPoint bottomLeft,
+                               ResultPoint bottomRight,
+                               ResultPoint topRight,
+                               int dimensionX,
+                               int dimensionY) throws NotFoundException {
+
+    return gridSampler.sampleGrid(image,
+                                  dimensionX,
+                                  dimensionY,
+                                  0.5f,
+                                  0.5f,
+                                  dimensionX - 0.5f,
+                                  0.5f,
+                                  dimensionX - 0.5f,
+                                  dimensionY - 0.5f,
+                                  0.5f,
+                                  dimensionY - 0.5f,
+                                  topLeft.getX(),
+                                  topLeft.getY(),
+                                  topRight.getX(),
+                                  topRight.getY(),
+                                  bottomRight.getX(),
+                                  bottomRight.getY(),
+                                  bottomLeft.getX(),
+                                  bottomLeft.getY());
   }
 
   /**
@@ -20,9 +20,12 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Reader;
+import com.google.zxing.OutcomeReader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.RegionsOfInterest;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
@@ -35,7 +38,7 @@ import java.util.Map;
 /**
  * This implementation can detect and decode a MaxiCode in an image.
  */
-public final class MaxiCodeReader implements Reader {
+public final class MaxiCodeReader implements OutcomeReader {
 
   private static final ResultPoint[] NO_POINTS = new ResultPoint[0];
   private static final int MATRIX_WIDTH = 30;
@@ -65,12 +68,31 @@ public final class MaxiCodeReader implements Reader {
   @Override
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeOutcome(image, hints).getResultOrThrow();
+  }
+
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it. Only pure
+   * barcodes are supported, so other images fail without an exception; failures in error
+   * correction are caught here.
+   */
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+    if (hints == null || !hints.containsKey(DecodeHintType.PURE_BARCODE)) {
+      return DecodeOutcome.notFound();
+    }
     DecoderResult decoderResult;
-    if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
+    try {
       BitMatrix bits = extractPureBits(image.getBlackMatrix());
+      if (bits == null) {
+        return DecodeOutcome.notFound();
+      }
       decoderResult = decoder.decode(bits, hints);
-    } else {
-      throw NotFoundException.getNotFoundInstance();
+    } catch (ReaderException re) {
+      return DecodeOutcome.of(re);
     }
 
     ResultPoint[] points = NO_POINTS;
@@ -80,7 +102,7 @@ public final class MaxiCodeReader implements Reader {
     if (ecLevel != null) {
       result.putMetadata(ResultMetadataType.ERROR_CORRECTION_LEVEL, ecLevel);
     }
-    return result;
+    return DecodeOutcome.of(result);
   }
 
   @Override
@@ -94,14 +116,15 @@ public final class MaxiCodeReader implements Reader {
    * around it. This is a specialized method that works exceptionally fast in this special
    * case.
    *
+   * @return the bits of the code, or null if the image is blank
    * @see com.google.zxing.datamatrix.DataMatrixReader#extractPureBits(BitMatrix)
    * @see com.google.zxing.qrcode.QRCodeReader#extractPureBits(BitMatrix)
    */
-  private static BitMatrix extractPureBits(BitMatrix image) throws NotFoundException {
+  private static BitMatrix extractPureBits(BitMatrix image) {
     
     int[] enclosingRectangle = image.getEnclosingRectangle();
     if (enclosingRectangle == null) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
     
     int left = enclosingRectangle[0];
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.OffsetResultPointCallback;
+import com.google.zxing.Reader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>This class attempts to decode a 2D barcode from a large image by first looking for it in a
+ * downsampled version of the image, where detection is much cheaper. The QR Code, Data Matrix and
+ * Aztec detectors are run on successively finer levels, starting from 1/8 of the width and
+ * height, until one of them finds a symbol. The points found only locate the symbol: they are
+ * scaled up to full resolution to choose an area around it, which is cropped out, and the
+ * delegate reader detects the symbol again in that crop and samples it at full resolution. Points
+ * found at a coarse level are a few pixels off at full scale, too far to sample dense symbols
+ * from directly, while detecting again in a small crop costs little.</p>
+ *
+ * <p>If no level finds anything, a symbol may have been too small to survive downsampling, so the
+ * delegate decodes the whole image as usual. If something was found but its area couldn't be
+ * decoded, the failure is reported without decoding the whole image, unless
+ * {@link DecodeHintType#TRY_HARDER} is set. A miss thus costs at most the detection on the
+ * levels, about a third of that on the full image, on top of the delegate's own work.</p>
+ *
+ * <p>This only helps with images that support downsampling, typically by wrapping their source in
+ * a {@link com.google.zxing.PyramidLuminanceSource}, and cropping. Otherwise the delegate is simply
+ * called on the whole image.</p>
+ *
+ * @see ByQuadrantReader
+ */
+public final class CoarseToFineReader implements Reader {
+
+  private static final int MAX_LEVELS = 3;
+  // Don't bother detecting in levels smaller than this in either dimension
+  private static final int MIN_LEVEL_DIMENSION = 100;
+
+  private final Reader delegate;
+
+  public CoarseToFineReader(Reader delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decode(image, null);
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    if (image.isDownsampleSupported() && image.isCropSupported()) {
+      List<BinaryBitmap> levels = new ArrayList<>(MAX_LEVELS);
+      BinaryBitmap level = image;
+      while (levels.size() < MAX_LEVELS && level.isDownsampleSupported() &&
+             Math.min(level.getWidth(), level.getHeight()) / 2 >= MIN_LEVEL_DIMENSION) {
+        level = level.downsample();
+        levels.add(level);
+      }
+      // Coarsest first; level i is 1 / 2^(i+1) of the full size
+      for (int i = levels.size() - 1; i >= 0; i--) {
+        List<ResultPoint[]> candidates = detect(levels.get(i), hints);
+        if (!candidates.isEmpty()) {
+          DecodeOutcome best = DecodeOutcome.notFound();
+          for (ResultPoint[] points : candidates) {
+            DecodeOutcome outcome = decodeAround(image, points, 2 << i, hints);
+            if (outcome.isSuccess()) {
+              return outcome.getResult();
+            }
+            best = DecodeOutcome.furthest(best, outcome);
+          }
+          // Found something here but couldn't decode it; finer levels and the whole image would
+          // most likely find the same
+          if (hints == null || !hints.containsKey(DecodeHintType.TRY_HARDER)) {
+            return best.getResultOrThrow();
+          }
+          break;
+        }
+      }
+    }
+    return delegate.decode(image, hints);
+  }
+
+  @Override
+  public void reset() {
+    delegate.reset();
+  }
+
+  /**
+   * Runs the detectors for the possible 2D formats on one level.
+   *
+   * @return the points found by each detector that found a symbol, in the level's coordinates
+   */
+  private static List<ResultPoint[]> detect(BinaryBitmap level, Map<DecodeHintType,?> hints) {
+    List<ResultPoint[]> candidates = new ArrayList<>(3);
+    BitMatrix matrix;
+    try {
+      matrix = level.getBlackMatrix();
+    } catch (NotFoundException nfe) {
+      return candidates;
+    }
+    @SuppressWarnings("unchecked")
+    Collection<BarcodeFormat> formats =
+        hints == null ? null : (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    if (formats == null || formats.contains(BarcodeFormat.QR_CODE)) {
+      // Don't pass along a result point callback, which would be told about points at the wrong scale
+      Map<DecodeHintType,Object> detectorHints = new EnumMap<>(DecodeHintType.class);
+      if (hints != null && hints.containsKey(DecodeHintType.TRY_HARDER)) {
+        detectorHints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+      }
+      try {
+        candidates.add(new com.google.zxing.qrcode.detector.Detector(matrix).detect(detectorHints).getPoints());
+      } catch (ReaderException re) {
+        // continue
+      }
+    }
+    if (formats == null || formats.contains(BarcodeFormat.DATA_MATRIX)) {
+      try {
+        candidates.add(new com.google.zxing.datamatrix.detector.Detector(matrix).detect().getPoints());
+      } catch (ReaderException re) {
+        // continue
+      }
+    }
+    if (formats == null || formats.contains(BarcodeFormat.AZTEC)) {
+      try {
+        candidates.add(new com.google.zxing.aztec.detector.Detector(matrix).detect(false).getPoints());
+      } catch (ReaderException re) {
+        // continue
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Crops the area of the full resolution image around points found in a downsampled level, and
+   * has the delegate detect and decode the symbol in it.
+   *
+   * @return the outcome, with points in the full image's coordinates
+   */
+  private DecodeOutcome decodeAround(BinaryBitmap image,
+                                     ResultPoint[] points,
+                                     int scale,
+                                     Map<DecodeHintType,?> hints) {
+    float minX = Float.MAX_VALUE;
+    float minY = Float.MAX_VALUE;
+    float maxX = -Float.MAX_VALUE;
+    float maxY = -Float.MAX_VALUE;
+    for (ResultPoint point : points) {
+      if (point != null) {
+        minX = Math.min(minX, point.getX());
+        minY = Math.min(minY, point.getY());
+        maxX = Math.max(maxX, point.getX());
+        maxY = Math.max(maxY, point.getY());
+      }
+    }
+    if (minX > maxX) {
+      return DecodeOutcome.notFound();
+    }
+    // Points may be finder pattern centers rather than corners, and the binarizer needs some
+    // context, so leave a generous margin of half the size of the area they span
+    float margin = Math.max(maxX - minX, maxY - minY) / 2.0f + 1.0f;
+    int left = Math.max(0, (int) ((minX - margin) * scale));
+    int top = Math.max(0, (int) ((minY - margin) * scale));
+    int right = Math.min(image.getWidth(), (int) ((maxX + margin) * scale) + scale);
+    int bottom = Math.min(image.getHeight(), (int) ((maxY + margin) * scale) + scale);
+    if (right <= left || bottom <= top) {
+      return DecodeOutcome.notFound();
+    }
+    BinaryBitmap area = image.crop(left, top, right - left, bottom - top);
+    DecodeOutcome outcome = DecodeOutcome.decode(delegate, area, OffsetResultPointCallback.forCrop(hints, left, top));
+    if (outcome.isSuccess()) {
+      makeAbsolute(outcome.getResult().getResultPoints(), left, top);
+    }
+    return outcome;
+  }
+
+  private static void makeAbsolute(ResultPoint[] points, int leftOffset, int topOffset) {
+    if (points != null) {
+      for (int i = 0; i < points.length; i++) {
+        ResultPoint relative = points[i];
+        if (relative != null) {
+          points[i] = new ResultPoint(relative.getX() + leftOffset, relative.getY() + topOffset);
+        }
+      }
+    }
+  }
+
+}
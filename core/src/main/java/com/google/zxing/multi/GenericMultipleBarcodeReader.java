@@ -17,6 +17,7 @@
 package com.google.zxing.multi;
 
 import com.google.zxing.BinaryBitmap;
+import com.google.zxing.Deadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
@@ -75,7 +76,8 @@ public final class GenericMultipleBarcodeReader implements MultipleBarcodeReader
                                 int xOffset,
                                 int yOffset,
                                 int currentDepth) {
-    if (currentDepth > MAX_DEPTH) {
+    if (currentDepth > MAX_DEPTH || Deadline.fromHints(hints).isExpired()) {
+      // Out of time, keep the results found so far
       return;
     }
     
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.Deadline;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
+import com.google.zxing.oned.MultiFormatOneDReader;
+import com.google.zxing.oned.OneDReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Finds all the 1D barcodes in an image in one sweep down it. Each scanned row is decoded
+ * from left to right: after a barcode is found in the row, the rest of the row, right of the
+ * barcode, is decoded in turn, until nothing more is found. Rows are also decoded reversed, for
+ * barcodes which are upside down.</p>
+ *
+ * <p>The barcodes found in each row are then grouped into symbols: results with the same text and
+ * format, spanning overlapping columns in nearby rows, are one symbol. One result is returned for
+ * each symbol, with {@link ResultMetadataType#AGREEING_ROWS} giving the number of rows it was
+ * found in. A symbol which overlaps another found in more rows, but reads differently, is taken
+ * to be a misread and dropped.</p>
+ *
+ * <p>Unlike {@link GenericMultipleBarcodeReader}, this never crops or binarizes the image again,
+ * so suits images with many 1D barcodes, like pallet labels.</p>
+ *
+ * @see GenericMultipleBarcodeReader
+ */
+public final class MultipleOneDReader implements MultipleBarcodeReader {
+
+  // Rows of a symbol may be this many scanned rows apart, as some of its rows may not decode
+  private static final int MAX_ROW_GAP = 4;
+
+  @Override
+  public Result[] decodeMultiple(BinaryBitmap image) throws NotFoundException {
+    return decodeMultiple(image, null);
+  }
+
+  @Override
+  public Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType,?> hints)
+      throws NotFoundException {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+    // As in OneDReader, about 32 rows, or 256 trying harder
+    int rowStep = Math.max(1, height >> (tryHarder ? 8 : 5));
+    Deadline deadline = Deadline.fromHints(hints);
+    OneDReader reader = new MultiFormatOneDReader(hints);
+
+    List<Symbol> symbols = new ArrayList<>();
+    for (int rowNumber = rowStep / 2; rowNumber < height && !deadline.isExpired(); rowNumber += rowStep) {
+      for (int attempt = 0; attempt < 2; attempt++) {
+        boolean reversed = attempt == 1;
+        RunLengthRow row;
+        try {
+          row = image.getCachedBlackRuns(rowNumber, reversed);
+        } catch (NotFoundException ignored) {
+          break;
+        }
+        int start = 0;
+        while (start < width) {
+          RunLengthRow remainder = start == 0 ? row : rightOf(row, start);
+          DecodeOutcome outcome = reader.decodeRowOutcome(rowNumber, remainder, hints);
+          if (!outcome.isSuccess()) {
+            break;
+          }
+          Result result = outcome.getResult();
+          float[] extent = getExtent(result.getResultPoints());
+          if (extent == null || extent[1] < start) {
+            break;
+          }
+          // Carry on right of this barcode
+          start = endOfBarcode(row, extent);
+          if (reversed) {
+            result.putMetadata(ResultMetadataType.ORIENTATION, 180);
+            ResultPoint[] points = result.getResultPoints();
+            for (int i = 0; i < points.length; i++) {
+              points[i] = new ResultPoint(width - points[i].getX() - 1, points[i].getY());
+            }
+            extent = new float[] {width - extent[1] - 1, width - extent[0] - 1};
+          }
+          addToSymbol(symbols, result, extent, rowNumber, rowStep * MAX_ROW_GAP);
+        }
+      }
+    }
+
+    List<Result> results = new ArrayList<>(symbols.size());
+    for (Symbol symbol : symbols) {
+      if (!isMisread(symbol, symbols)) {
+        symbol.result.putMetadata(ResultMetadataType.AGREEING_ROWS, symbol.rows);
+        results.add(symbol.result);
+      }
+    }
+    if (results.isEmpty()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return results.toArray(new Result[results.size()]);
+  }
+
+  /**
+   * Finds where the quiet zone right of a barcode starts. Result points don't mark the ends of a
+   * barcode: many readers put the last one in the middle of the stop pattern, and the rest of the
+   * stop pattern, left in the row, would be taken for the start of another barcode. The quiet zone
+   * is the first white run right of the last point which is wider than any run between the points.
+   *
+   * @param row the row the barcode was found in
+   * @param extent {@code {left, right}} bounds of the barcode's result points
+   * @return start of the quiet zone, or the row's size if there is none
+   */
+  private static int endOfBarcode(RunLengthRow row, float[] extent) {
+    int size = row.getSize();
+    int left = Math.max(0, (int) extent[0]);
+    int right = Math.min(size - 1, (int) extent[1]);
+    int lastRun = row.getRunIndex(right);
+    int maxRunLength = 0;
+    for (int run = row.getRunIndex(left); run < lastRun; run++) {
+      if (row.getRunStart(run) >= left) {
+        maxRunLength = Math.max(maxRunLength, row.getRunLength(run));
+      }
+    }
+    for (int run = lastRun + 1; run < row.getNumRuns(); run++) {
+      if (!row.isBlack(run) && row.getRunLength(run) > maxRunLength) {
+        return row.getRunStart(run);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return a copy of the row with everything left of start cleared to white
+   */
+  private static RunLengthRow rightOf(RunLengthRow row, int start) {
+    int size = row.getSize();
+    BitArray bits = new BitArray(size);
+    for (int run = row.getRunIndex(start); run < row.getNumRuns(); run++) {
+      if (row.isBlack(run)) {
+        bits.setRange(Math.max(start, row.getRunStart(run)), row.getRunEnd(run));
+      }
+    }
+    return new RunLengthRow(bits);
+  }
+
+  private static void addToSymbol(List<Symbol> symbols,
+                                  Result result,
+                                  float[] extent,
+                                  int rowNumber,
+                                  int maxGap) {
+    for (Symbol symbol : symbols) {
+      if (symbol.matches(result, extent, rowNumber, maxGap)) {
+        symbol.add(extent, rowNumber);
+        return;
+      }
+    }
+    symbols.add(new Symbol(result, extent, rowNumber));
+  }
+
+  private static boolean isMisread(Symbol symbol, List<Symbol> symbols) {
+    for (Symbol other : symbols) {
+      if (other.rows > symbol.rows && other.overlaps(symbol) && !other.sameText(symbol.result)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return {@code {left, right}} bounds of the points' x coordinates, or null if none
+   */
+  private static float[] getExtent(ResultPoint[] points) {
+    if (points == null || points.length == 0) {
+      return null;
+    }
+    float left = Float.POSITIVE_INFINITY;
+    float right = Float.NEGATIVE_INFINITY;
+    for (ResultPoint point : points) {
+      if (point != null) {
+        left = Math.min(left, point.getX());
+        right = Math.max(right, point.getX());
+      }
+    }
+    return left <= right ? new float[] {left, right} : null;
+  }
+
+  /**
+   * A barcode found in one or more rows.
+   */
+  private static final class Symbol {
+
+    private final Result result;
+    private float left;
+    private float right;
+    private final int top;
+    private int bottom;
+    private int rows;
+
+    Symbol(Result result, float[] extent, int rowNumber) {
+      this.result = result;
+      left = extent[0];
+      right = extent[1];
+      top = rowNumber;
+      bottom = rowNumber;
+      rows = 1;
+    }
+
+    boolean sameText(Result other) {
+      BarcodeFormat format = result.getBarcodeFormat();
+      return format == other.getBarcodeFormat() && result.getText().equals(other.getText());
+    }
+
+    boolean matches(Result other, float[] extent, int rowNumber, int maxGap) {
+      return sameText(other) && rowNumber - bottom <= maxGap &&
+          left <= extent[1] && extent[0] <= right;
+    }
+
+    void add(float[] extent, int rowNumber) {
+      left = Math.min(left, extent[0]);
+      right = Math.max(right, extent[1]);
+      if (rowNumber != bottom) {
+        // Not just found again in the same row reversed
+        bottom = rowNumber;
+        rows++;
+      }
+    }
+
+    boolean overlaps(Symbol other) {
+      return left <= other.right && other.left <= right &&
+          top <= other.bottom && other.top <= bottom;
+    }
+
+  }
+
+}
@@ -19,7 +19,6 @@ package com.google.zxing.multi.qrcode.detector;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ReaderException;
-import com.google.zxing.ResultPointCallback;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.DetectorResult;
 import com.google.zxing.qrcode.detector.Detector;
@@ -46,9 +45,8 @@ public final class MultiDetector extends Detector {
 
   public DetectorResult[] detectMulti(Map<DecodeHintType,?> hints) throws NotFoundException {
     BitMatrix image = getImage();
-    ResultPointCallback resultPointCallback =
-        hints == null ? null : (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
-    MultiFinderPatternFinder finder = new MultiFinderPatternFinder(image, resultPointCallback);
+    setHints(hints);
+    MultiFinderPatternFinder finder = new MultiFinderPatternFinder(image, getResultPointCallback());
     FinderPatternInfo[] infos = finder.findMulti(hints);
 
     if (infos.length == 0) {
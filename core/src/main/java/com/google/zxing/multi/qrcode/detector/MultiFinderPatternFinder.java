@@ -16,6 +16,7 @@
 
 package com.google.zxing.multi.qrcode.detector;
 
+import com.google.zxing.Deadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
@@ -247,7 +248,9 @@ final class MultiFinderPatternFinder extends FinderPatternFinder {
     }
 
     int[] stateCount = new int[5];
-    for (int i = iSkip - 1; i < maxI; i += iSkip) {
+    // Out of time, settle for the patterns found so far
+    Deadline deadline = Deadline.fromHints(hints);
+    for (int i = iSkip - 1; i < maxI && !deadline.isExpired(); i += iSkip) {
       // Get a row of black/white values
       stateCount[0] = 0;
       stateCount[1] = 0;
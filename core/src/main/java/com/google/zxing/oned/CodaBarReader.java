@@ -18,10 +18,12 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -69,6 +71,9 @@ public final class CodaBarReader extends OneDReader {
   private final StringBuilder decodeRowResult;
   private int[] counters;
   private int counterLength;
+  // The row whose runs are in counters, so that decoding a row just searched needn't count again
+  private RunLengthRow countedRow;
+  private final StartPatternFinder startPatternFinder = new CodaBarStartPatternFinder();
 
   public CodaBarReader() {
     decodeRowResult = new StringBuilder(20);
@@ -78,17 +83,37 @@ public final class CodaBarReader extends OneDReader {
 
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints) throws NotFoundException {
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) throws NotFoundException {
+    DecodeOutcome outcome = decodeRowOutcome(rowNumber, row, startPatternFinder.find(row), hints);
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return startPatternFinder;
+  }
+
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow row, int[] startPattern, Map<DecodeHintType,?> hints) {
 
-    Arrays.fill(counters, 0);
-    setCounters(row);
-    int startOffset = findStartPattern();
+    if (!setCounters(row)) {
+      return DecodeOutcome.notFound();
+    }
+    int startOffset = startPattern[0];
     int nextStart = startOffset;
 
     decodeRowResult.setLength(0);
     do {
       int charOffset = toNarrowWidePattern(nextStart);
       if (charOffset == -1) {
-        throw NotFoundException.getNotFoundInstance();
+        return DecodeOutcome.notFound();
       }
       // Hack: We store the position in the alphabet table into a
       // StringBuilder, so that we can access the decoded patterns in
@@ -113,10 +138,12 @@ public final class CodaBarReader extends OneDReader {
     // otherwise this is probably a false positive. The exception is if we are
     // at the end of the row. (I.e. the barcode barely fits.)
     if (nextStart < counterLength && trailingWhitespace < lastPatternSize / 2) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
-    validatePattern(startOffset);
+    if (!validatePattern(startOffset)) {
+      return DecodeOutcome.notFound();
+    }
 
     // Translate character table offsets to actual characters.
     for (int i = 0; i < decodeRowResult.length(); i++) {
@@ -125,17 +152,17 @@ public final class CodaBarReader extends OneDReader {
     // Ensure a valid start and end character
     char startchar = decodeRowResult.charAt(0);
     if (!arrayContains(STARTEND_ENCODING, startchar)) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
     char endchar = decodeRowResult.charAt(decodeRowResult.length() - 1);
     if (!arrayContains(STARTEND_ENCODING, endchar)) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     // remove stop/start characters character and check if a long enough string is contained
     if (decodeRowResult.length() <= MIN_CHARACTER_LENGTH) {
       // Almost surely a false positive ( start + stop + at least 1 character)
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     if (hints == null || !hints.containsKey(DecodeHintType.RETURN_CODABAR_START_END)) {
@@ -152,16 +179,16 @@ public final class CodaBarReader extends OneDReader {
       runningCount += counters[i];
     }
     float right = (float) runningCount;
-    return new Result(
+    return DecodeOutcome.of(new Result(
         decodeRowResult.toString(),
         null,
         new ResultPoint[]{
             new ResultPoint(left, (float) rowNumber),
             new ResultPoint(right, (float) rowNumber)},
-        BarcodeFormat.CODABAR);
+        BarcodeFormat.CODABAR));
   }
 
-  void validatePattern(int start) throws NotFoundException {
+  boolean validatePattern(int start) {
     // First, sum up the total size of our four categories of stripe sizes;
     int[] sizes = {0, 0, 0, 0};
     int[] counts = {0, 0, 0, 0};
@@ -210,7 +237,7 @@ public final class CodaBarReader extends OneDReader {
         int category = (j & 1) + (pattern & 1) * 2;
         int size = counters[pos + j];
         if (size < mins[category] || size > maxes[category]) {
-          throw NotFoundException.getNotFoundInstance();
+          return false;
         }
         pattern >>= 1;
       }
@@ -219,49 +246,64 @@ public final class CodaBarReader extends OneDReader {
       }
       pos += 8;
     }
+    return true;
   }
 
   /**
    * Records the size of all runs of white and black pixels, starting with white.
    * This is just like recordPattern, except it records all the counters, and
-   * uses our builtin "counters" member for storage.
-   * @param row row to count from
+   * uses our builtin "counters" member for storage. Does nothing if they already hold this row,
+   * as they do when the start pattern finder has just searched it.
+   * @param row runs of the row to count from
+   * @return false if the row has no white run to start from
    */
-  private void setCounters(BitArray row) throws NotFoundException {
-    counterLength = 0;
-    // Start from the first white bit.
-    int i = row.getNextUnset(0);
-    int end = row.getSize();
-    if (i >= end) {
-      throw NotFoundException.getNotFoundInstance();
+  private boolean setCounters(RunLengthRow row) {
+    if (row == countedRow) {
+      return true;
     }
-    boolean isWhite = true;
-    int count = 0;
-    while (i < end) {
-      if (row.get(i) ^ isWhite) { // that is, exactly one is true
-        count++;
-      } else {
-        counterAppend(count);
-        count = 1;
-        isWhite = !isWhite;
-      }
-      i++;
+    countedRow = null;
+    // Start from the first white run.
+    int firstRun = row.isBlack(0) ? 1 : 0;
+    int numRuns = row.getNumRuns();
+    if (firstRun >= numRuns) {
+      return false;
     }
-    counterAppend(count);
-  }
-
-  private void counterAppend(int e) {
-    counters[counterLength] = e;
-    counterLength++;
+    counterLength = numRuns - firstRun;
+    // Keep room after the last counter; anything read past it is zero
     if (counterLength >= counters.length) {
-      int[] temp = new int[counterLength * 2];
-      System.arraycopy(counters, 0, temp, 0, counterLength);
-      counters = temp;
+      counters = new int[counterLength * 2];
     }
+    for (int i = 0; i < counterLength; i++) {
+      counters[i] = row.getRunLength(firstRun + i);
+    }
+    Arrays.fill(counters, counterLength, counters.length, 0);
+    countedRow = row;
+    return true;
   }
 
-  private int findStartPattern() throws NotFoundException {
-    for (int i = 1; i < counterLength; i += 2) {
+  /**
+   * Finds the start pattern in the counters, which it sets when reset for each row.
+   * The start pattern is returned as the offset into the counters of its first bar.
+   */
+  private final class CodaBarStartPatternFinder extends StartPatternFinder {
+
+    private int firstRun;
+
+    @Override
+    void reset(RunLengthRow row) {
+      if (!setCounters(row)) {
+        counterLength = 0;
+      }
+      // Counters start from the first white run
+      firstRun = row.isBlack(0) ? 1 : 0;
+    }
+
+    @Override
+    int[] match(RunLengthRow row, int run) {
+      int i = run - firstRun;
+      if (i < 1) {
+        return null;
+      }
       int charOffset = toNarrowWidePattern(i);
       if (charOffset != -1 && arrayContains(STARTEND_ENCODING, ALPHABET[charOffset])) {
         // Look for whitespace before start pattern, >= 50% of width of start pattern
@@ -271,11 +313,11 @@ public final class CodaBarReader extends OneDReader {
           patternSize += counters[j];
         }
         if (i == 1 || counters[i - 1] >= patternSize / 2) {
-          return i;
+          return new int[]{i};
         }
       }
+      return null;
     }
-    throw NotFoundException.getNotFoundInstance();
   }
 
   static boolean arrayContains(char[] array, char key) {
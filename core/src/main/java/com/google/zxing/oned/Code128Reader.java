@@ -19,11 +19,13 @@ package com.google.zxing.oned;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -166,54 +168,42 @@ public final class Code128Reader extends OneDReader {
   private static final int CODE_START_C = 105;
   private static final int CODE_STOP = 106;
 
-  private static int[] findStartPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    int counterPosition = 0;
-    int[] counters = new int[6];
-    int patternStart = rowOffset;
-    boolean isWhite = false;
-    int patternLength = counters.length;
-
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          float bestVariance = MAX_AVG_VARIANCE;
-          int bestMatch = -1;
-          for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
-            float variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
-                MAX_INDIVIDUAL_VARIANCE);
-            if (variance < bestVariance) {
-              bestVariance = variance;
-              bestMatch = startCode;
-            }
-          }
-          // Look for whitespace before start pattern, >= 50% of width of start pattern
-          if (bestMatch >= 0 &&
-              row.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart, false)) {
-            return new int[]{patternStart, i, bestMatch};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+  private final StartPatternFinder startPatternFinder = new StartPatternFinder() {
+    private final int[] counters = new int[6];
+    @Override
+    int[] match(RunLengthRow row, int run) {
+      // Leave at least one run after the pattern
+      if (!recordRuns(row, run, counters)) {
+        return null;
+      }
+      int patternStart = row.getRunStart(run);
+      int patternEnd = row.getRunEnd(run + counters.length - 1);
+      // Look for whitespace before start pattern, >= 50% of width of start pattern
+      if (run > 0 &&
+          Math.max(0, patternStart - (patternEnd - patternStart) / 2) < row.getRunStart(run - 1)) {
+        return null;
+      }
+      float bestVariance = MAX_AVG_VARIANCE;
+      int bestMatch = -1;
+      for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
+        float variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
+            MAX_INDIVIDUAL_VARIANCE);
+        if (variance < bestVariance) {
+          bestVariance = variance;
+          bestMatch = startCode;
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
       }
+      return bestMatch >= 0 ? new int[]{patternStart, patternEnd, bestMatch} : null;
     }
-    throw NotFoundException.getNotFoundInstance();
-  }
+  };
 
-  private static int decodeCode(BitArray row, int[] counters, int rowOffset)
-      throws NotFoundException {
-    recordPattern(row, rowOffset, counters);
+  /**
+   * @return the code at rowOffset, or -1 if there is none
+   */
+  private static int decodeCode(BitArray row, int[] counters, int rowOffset) {
+    if (!tryRecordPattern(row, rowOffset, counters)) {
+      return -1;
+    }
     float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     for (int d = 0; d < CODE_PATTERNS.length; d++) {
@@ -225,20 +215,35 @@ public final class Code128Reader extends OneDReader {
       }
     }
     // TODO We're overlooking the fact that the STOP pattern has 7 values, not 6.
-    if (bestMatch >= 0) {
-      return bestMatch;
-    } else {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return bestMatch;
   }
 
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, FormatException, ChecksumException {
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, RunLengthRow runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, FormatException, ChecksumException {
+    return decodeRowOutcome(rowNumber, runs, startPatternFinder.find(runs), hints).getResultOrThrow();
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return startPatternFinder;
+  }
+
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber,
+                                 RunLengthRow runs,
+                                 int[] startPatternInfo,
+                                 Map<DecodeHintType,?> hints) {
 
     boolean convertFNC1 = hints != null && hints.containsKey(DecodeHintType.ASSUME_GS1);
 
-    int[] startPatternInfo = findStartPattern(row);
+    BitArray row = runs.getRow();
     int startCode = startPatternInfo[2];
 
     List<Byte> rawCodes = new ArrayList<>(20);
@@ -256,7 +261,7 @@ public final class Code128Reader extends OneDReader {
         codeSet = CODE_CODE_C;
         break;
       default:
-        throw FormatException.getFormatInstance();
+        return DecodeOutcome.formatError();
     }
 
     boolean done = false;
@@ -286,6 +291,9 @@ public final class Code128Reader extends OneDReader {
 
       // Decode another code from image
       code = decodeCode(row, counters, nextStart);
+      if (code < 0) {
+        return DecodeOutcome.notFound();
+      }
 
       rawCodes.add((byte) code);
 
@@ -311,7 +319,7 @@ public final class Code128Reader extends OneDReader {
         case CODE_START_A:
         case CODE_START_B:
         case CODE_START_C:
-          throw FormatException.getFormatInstance();
+          return DecodeOutcome.formatError();
       }
 
       switch (codeSet) {
@@ -490,21 +498,21 @@ public final class Code128Reader extends OneDReader {
     if (!row.isRange(nextStart,
                      Math.min(row.getSize(), nextStart + (nextStart - lastStart) / 2),
                      false)) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     // Pull out from sum the value of the penultimate check code
     checksumTotal -= multiplier * lastCode;
     // lastCode is the checksum then:
     if (checksumTotal % 103 != lastCode) {
-      throw ChecksumException.getChecksumInstance();
+      return DecodeOutcome.checksumError();
     }
 
     // Need to pull out the check digits from string
     int resultLength = result.length();
     if (resultLength == 0) {
       // false positive
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     // Only bother if the result had at least one character, and if the checksum digit happened to
@@ -526,13 +534,13 @@ public final class Code128Reader extends OneDReader {
       rawBytes[i] = rawCodes.get(i);
     }
 
-    return new Result(
+    return DecodeOutcome.of(new Result(
         result.toString(),
         rawBytes,
         new ResultPoint[]{
             new ResultPoint(left, (float) rowNumber),
             new ResultPoint(right, (float) rowNumber)},
-        BarcodeFormat.CODE_128);
+        BarcodeFormat.CODE_128));
 
   }
 
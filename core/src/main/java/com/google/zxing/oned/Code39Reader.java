@@ -19,13 +19,14 @@ package com.google.zxing.oned;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
-import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -55,10 +56,30 @@ public final class Code39Reader extends OneDReader {
 
   static final int ASTERISK_ENCODING = CHARACTER_ENCODINGS[39];
 
+  private static final char NOT_A_CHARACTER = '\0';
+
   private final boolean usingCheckDigit;
   private final boolean extendedMode;
   private final StringBuilder decodeRowResult;
   private final int[] counters;
+  private final StartPatternFinder asteriskPatternFinder = new StartPatternFinder() {
+    private final int[] patternCounters = new int[9];
+    @Override
+    int[] match(RunLengthRow row, int run) {
+      // Leave at least one run after the pattern
+      if (!recordRuns(row, run, patternCounters)) {
+        return null;
+      }
+      int patternStart = row.getRunStart(run);
+      int patternEnd = row.getRunEnd(run + patternCounters.length - 1);
+      // Look for whitespace before start pattern, >= 50% of width of start pattern
+      if (run > 0 &&
+          Math.max(0, patternStart - ((patternEnd - patternStart) / 2)) < row.getRunStart(run - 1)) {
+        return null;
+      }
+      return toNarrowWidePattern(patternCounters) == ASTERISK_ENCODING ? new int[]{patternStart, patternEnd} : null;
+    }
+  };
 
   /**
    * Creates a reader that assumes all encoded data is data, and does not treat the final
@@ -99,13 +120,28 @@ public final class Code39Reader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, RunLengthRow runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRowOutcome(rowNumber, runs, asteriskPatternFinder.find(runs), hints).getResultOrThrow();
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return asteriskPatternFinder;
+  }
+
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow runs, int[] start, Map<DecodeHintType,?> hints) {
 
     int[] theCounters = counters;
-    Arrays.fill(theCounters, 0);
     StringBuilder result = decodeRowResult;
     result.setLength(0);
 
-    int[] start = findAsteriskPattern(row, theCounters);
+    BitArray row = runs.getRow();
     // Read off white space    
     int nextStart = row.getNextSet(start[1]);
     int end = row.getSize();
@@ -113,12 +149,17 @@ public final class Code39Reader extends OneDReader {
     char decodedChar;
     int lastStart;
     do {
-      recordPattern(row, nextStart, theCounters);
+      if (!tryRecordPattern(row, nextStart, theCounters)) {
+        return DecodeOutcome.notFound();
+      }
       int pattern = toNarrowWidePattern(theCounters);
       if (pattern < 0) {
-        throw NotFoundException.getNotFoundInstance();
+        return DecodeOutcome.notFound();
       }
       decodedChar = patternToChar(pattern);
+      if (decodedChar == NOT_A_CHARACTER) {
+        return DecodeOutcome.notFound();
+      }
       result.append(decodedChar);
       lastStart = nextStart;
       for (int counter : theCounters) {
@@ -138,7 +179,7 @@ public final class Code39Reader extends OneDReader {
     // If 50% of last pattern size, following last pattern, is not whitespace, fail
     // (but if it's whitespace to the very end of the image, that's OK)
     if (nextStart != end && (whiteSpaceAfterEnd * 2) < lastPatternSize) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     if (usingCheckDigit) {
@@ -148,69 +189,38 @@ public final class Code39Reader extends OneDReader {
         total += CHECK_DIGIT_STRING.indexOf(decodeRowResult.charAt(i));
       }
       if (result.charAt(max) != CHECK_DIGIT_STRING.charAt(total % 43)) {
-        throw ChecksumException.getChecksumInstance();
+        return DecodeOutcome.checksumError();
       }
       result.setLength(max);
     }
 
     if (result.length() == 0) {
       // false positive
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     String resultString;
     if (extendedMode) {
       resultString = decodeExtended(result);
+      if (resultString == null) {
+        return DecodeOutcome.formatError();
+      }
     } else {
       resultString = result.toString();
     }
 
     float left = (float) (start[1] + start[0]) / 2.0f;
     float right = lastStart + lastPatternSize / 2.0f;
-    return new Result(
+    return DecodeOutcome.of(new Result(
         resultString,
         null,
         new ResultPoint[]{
             new ResultPoint(left, (float) rowNumber),
             new ResultPoint(right, (float) rowNumber)},
-        BarcodeFormat.CODE_39);
+        BarcodeFormat.CODE_39));
 
   }
 
-  private static int[] findAsteriskPattern(BitArray row, int[] counters) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    int counterPosition = 0;
-    int patternStart = rowOffset;
-    boolean isWhite = false;
-    int patternLength = counters.length;
-
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          // Look for whitespace before start pattern, >= 50% of width of start pattern
-          if (toNarrowWidePattern(counters) == ASTERISK_ENCODING &&
-              row.isRange(Math.max(0, patternStart - ((i - patternStart) / 2)), patternStart, false)) {
-            return new int[]{patternStart, i};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
-      }
-    }
-    throw NotFoundException.getNotFoundInstance();
-  }
-
   // For efficiency, returns -1 on failure. Not throwing here saved as many as 700 exceptions
   // per image when using some of our blackbox images.
   private static int toNarrowWidePattern(int[] counters) {
@@ -256,16 +266,22 @@ public final class Code39Reader extends OneDReader {
     return -1;
   }
 
-  private static char patternToChar(int pattern) throws NotFoundException {
+  /**
+   * @return the character with this pattern, or {@link #NOT_A_CHARACTER} if there is none
+   */
+  private static char patternToChar(int pattern) {
     for (int i = 0; i < CHARACTER_ENCODINGS.length; i++) {
       if (CHARACTER_ENCODINGS[i] == pattern) {
         return ALPHABET_STRING.charAt(i);
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return NOT_A_CHARACTER;
   }
 
-  private static String decodeExtended(CharSequence encoded) throws FormatException {
+  /**
+   * @return the decoded text, or null if it contains an invalid extended sequence
+   */
+  private static String decodeExtended(CharSequence encoded) {
     int length = encoded.length();
     StringBuilder decoded = new StringBuilder(length);
     for (int i = 0; i < length; i++) {
@@ -279,7 +295,7 @@ public final class Code39Reader extends OneDReader {
             if (next >= 'A' && next <= 'Z') {
               decodedChar = (char) (next + 32);
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
           case '$':
@@ -287,7 +303,7 @@ public final class Code39Reader extends OneDReader {
             if (next >= 'A' && next <= 'Z') {
               decodedChar = (char) (next - 64);
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
           case '%':
@@ -297,7 +313,7 @@ public final class Code39Reader extends OneDReader {
             } else if (next >= 'F' && next <= 'W') {
               decodedChar = (char) (next - 11);
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
           case '/':
@@ -307,7 +323,7 @@ public final class Code39Reader extends OneDReader {
             } else if (next == 'Z') {
               decodedChar = ':';
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
         }
@@ -19,11 +19,13 @@ package com.google.zxing.oned;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -54,8 +56,21 @@ public final class Code93Reader extends OneDReader {
   };
   private static final int ASTERISK_ENCODING = CHARACTER_ENCODINGS[47];
 
+  private static final char NOT_A_CHARACTER = '\0';
+
   private final StringBuilder decodeRowResult;
   private final int[] counters;
+  private final StartPatternFinder asteriskPatternFinder = new StartPatternFinder() {
+    private final int[] patternCounters = new int[6];
+    @Override
+    int[] match(RunLengthRow row, int run) {
+      // Leave at least one run after the pattern
+      if (recordRuns(row, run, patternCounters) && toPattern(patternCounters) == ASTERISK_ENCODING) {
+        return new int[]{row.getRunStart(run), row.getRunEnd(run + patternCounters.length - 1)};
+      }
+      return null;
+    }
+  };
 
   public Code93Reader() {
     decodeRowResult = new StringBuilder(20);
@@ -65,8 +80,24 @@ public final class Code93Reader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, RunLengthRow runs, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRowOutcome(rowNumber, runs, asteriskPatternFinder.find(runs), hints).getResultOrThrow();
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return asteriskPatternFinder;
+  }
 
-    int[] start = findAsteriskPattern(row);
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow runs, int[] start, Map<DecodeHintType,?> hints) {
+
+    BitArray row = runs.getRow();
     // Read off white space    
     int nextStart = row.getNextSet(start[1]);
     int end = row.getSize();
@@ -79,12 +110,17 @@ public final class Code93Reader extends OneDReader {
     char decodedChar;
     int lastStart;
     do {
-      recordPattern(row, nextStart, theCounters);
+      if (!tryRecordPattern(row, nextStart, theCounters)) {
+        return DecodeOutcome.notFound();
+      }
       int pattern = toPattern(theCounters);
       if (pattern < 0) {
-        throw NotFoundException.getNotFoundInstance();
+        return DecodeOutcome.notFound();
       }
       decodedChar = patternToChar(pattern);
+      if (decodedChar == NOT_A_CHARACTER) {
+        return DecodeOutcome.notFound();
+      }
       result.append(decodedChar);
       lastStart = nextStart;
       for (int counter : theCounters) {
@@ -102,64 +138,35 @@ public final class Code93Reader extends OneDReader {
 
     // Should be at least one more black module
     if (nextStart == end || !row.get(nextStart)) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     if (result.length() < 2) {
       // false positive -- need at least 2 checksum digits
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
-    checkChecksums(result);
+    if (!checkChecksums(result)) {
+      return DecodeOutcome.checksumError();
+    }
     // Remove checksum digits
     result.setLength(result.length() - 2);
 
     String resultString = decodeExtended(result);
+    if (resultString == null) {
+      return DecodeOutcome.formatError();
+    }
 
     float left = (float) (start[1] + start[0]) / 2.0f;
     float right = lastStart + lastPatternSize / 2.0f;
-    return new Result(
+    return DecodeOutcome.of(new Result(
         resultString,
         null,
         new ResultPoint[]{
             new ResultPoint(left, (float) rowNumber),
             new ResultPoint(right, (float) rowNumber)},
-        BarcodeFormat.CODE_93);
-
-  }
+        BarcodeFormat.CODE_93));
 
-  private int[] findAsteriskPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    Arrays.fill(counters, 0);
-    int[] theCounters = counters;
-    int patternStart = rowOffset;
-    boolean isWhite = false;
-    int patternLength = theCounters.length;
-
-    int counterPosition = 0;
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) ^ isWhite) {
-        theCounters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (toPattern(theCounters) == ASTERISK_ENCODING) {
-            return new int[]{patternStart, i};
-          }
-          patternStart += theCounters[0] + theCounters[1];
-          System.arraycopy(theCounters, 2, theCounters, 0, patternLength - 2);
-          theCounters[patternLength - 2] = 0;
-          theCounters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        theCounters[counterPosition] = 1;
-        isWhite = !isWhite;
-      }
-    }
-    throw NotFoundException.getNotFoundInstance();
   }
 
   private static int toPattern(int[] counters) {
@@ -185,23 +192,29 @@ public final class Code93Reader extends OneDReader {
     return pattern;
   }
 
-  private static char patternToChar(int pattern) throws NotFoundException {
+  /**
+   * @return the character with this pattern, or {@link #NOT_A_CHARACTER} if there is none
+   */
+  private static char patternToChar(int pattern) {
     for (int i = 0; i < CHARACTER_ENCODINGS.length; i++) {
       if (CHARACTER_ENCODINGS[i] == pattern) {
         return ALPHABET[i];
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return NOT_A_CHARACTER;
   }
 
-  private static String decodeExtended(CharSequence encoded) throws FormatException {
+  /**
+   * @return the decoded text, or null if it contains an invalid extended sequence
+   */
+  private static String decodeExtended(CharSequence encoded) {
     int length = encoded.length();
     StringBuilder decoded = new StringBuilder(length);
     for (int i = 0; i < length; i++) {
       char c = encoded.charAt(i);
       if (c >= 'a' && c <= 'd') {
         if (i >= length - 1) {
-          throw FormatException.getFormatInstance();
+          return null;
         }
         char next = encoded.charAt(i + 1);
         char decodedChar = '\0';
@@ -211,7 +224,7 @@ public final class Code93Reader extends OneDReader {
             if (next >= 'A' && next <= 'Z') {
               decodedChar = (char) (next + 32);
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
           case 'a':
@@ -219,7 +232,7 @@ public final class Code93Reader extends OneDReader {
             if (next >= 'A' && next <= 'Z') {
               decodedChar = (char) (next - 64);
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
           case 'b':
@@ -239,7 +252,7 @@ public final class Code93Reader extends OneDReader {
               // %T to %Z all map to DEL (127)
               decodedChar = 127;
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
           case 'c':
@@ -249,7 +262,7 @@ public final class Code93Reader extends OneDReader {
             } else if (next == 'Z') {
               decodedChar = ':';
             } else {
-              throw FormatException.getFormatInstance();
+              return null;
             }
             break;
         }
@@ -263,14 +276,12 @@ public final class Code93Reader extends OneDReader {
     return decoded.toString();
   }
 
-  private static void checkChecksums(CharSequence result) throws ChecksumException {
+  private static boolean checkChecksums(CharSequence result) {
     int length = result.length();
-    checkOneChecksum(result, length - 2, 20);
-    checkOneChecksum(result, length - 1, 15);
+    return checkOneChecksum(result, length - 2, 20) && checkOneChecksum(result, length - 1, 15);
   }
 
-  private static void checkOneChecksum(CharSequence result, int checkPosition, int weightMax)
-      throws ChecksumException {
+  private static boolean checkOneChecksum(CharSequence result, int checkPosition, int weightMax) {
     int weight = 1;
     int total = 0;
     for (int i = checkPosition - 1; i >= 0; i--) {
@@ -279,9 +290,7 @@ public final class Code93Reader extends OneDReader {
         weight = 1;
       }
     }
-    if (result.charAt(checkPosition) != ALPHABET[total % 47]) {
-      throw ChecksumException.getChecksumInstance();
-    }
+    return result.charAt(checkPosition) == ALPHABET[total % 47];
   }
 
 }
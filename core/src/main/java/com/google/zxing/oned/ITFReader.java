@@ -18,11 +18,13 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
 import java.util.Map;
 
@@ -56,11 +58,24 @@ public final class ITFReader extends OneDReader {
   // Stores the actual narrow line width of the image being decoded.
   private int narrowLineWidth = -1;
 
+  private final StartPatternFinder startPatternFinder = new StartPatternFinder() {
+    private final int[] counters = new int[START_PATTERN.length];
+    @Override
+    int[] match(RunLengthRow row, int run) {
+      // Leave at least one run after the pattern
+      if (recordRuns(row, run, counters) &&
+          patternMatchVariance(counters, START_PATTERN, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return new int[]{row.getRunStart(run), row.getRunEnd(run + counters.length - 1)};
+      }
+      return null;
+    }
+  };
+
   /**
    * Start/end guard pattern.
    *
-   * Note: The end pattern is reversed because the row is reversed before
-   * searching for the END_PATTERN
+   * Note: The end pattern is reversed because the row is searched from
+   * right to left for the END_PATTERN
    */
   private static final int[] START_PATTERN = {N, N, N, N};
   private static final int[] END_PATTERN_REVERSED = {N, N, W};
@@ -84,13 +99,45 @@ public final class ITFReader extends OneDReader {
   @Override
   public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws FormatException, NotFoundException {
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber, RunLengthRow runs, Map<DecodeHintType,?> hints)
+      throws FormatException, NotFoundException {
+    DecodeOutcome outcome = decodeRowOutcome(rowNumber, runs, startPatternFinder.find(runs), hints);
+    if (outcome.getFailure() == DecodeOutcome.Failure.FORMAT) {
+      throw FormatException.getFormatInstance();
+    }
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return startPatternFinder;
+  }
+
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow runs, int[] startPattern, Map<DecodeHintType,?> hints) {
 
     // Find out where the Middle section (payload) starts & ends
-    int[] startRange = decodeStart(row);
-    int[] endRange = decodeEnd(row);
+    int[] startRange = decodeStart(runs, startPattern);
+    if (startRange == null) {
+      return DecodeOutcome.notFound();
+    }
+    int[] endRange = decodeEnd(runs);
+    if (endRange == null) {
+      return DecodeOutcome.notFound();
+    }
+    BitArray row = runs.getRow();
 
     StringBuilder result = new StringBuilder(20);
-    decodeMiddle(row, startRange[1], endRange[0], result);
+    if (!decodeMiddle(row, startRange[1], endRange[0], result)) {
+      return DecodeOutcome.notFound();
+    }
     String resultString = result.toString();
 
     int[] allowedLengths = null;
@@ -120,27 +167,27 @@ public final class ITFReader extends OneDReader {
       lengthOK = true;
     }
     if (!lengthOK) {
-      throw FormatException.getFormatInstance();
+      return DecodeOutcome.formatError();
     }
 
-    return new Result(
+    return DecodeOutcome.of(new Result(
         resultString,
         null, // no natural byte representation for these barcodes
         new ResultPoint[] { new ResultPoint(startRange[1], (float) rowNumber),
                             new ResultPoint(endRange[0], (float) rowNumber)},
-        BarcodeFormat.ITF);
+        BarcodeFormat.ITF));
   }
 
   /**
    * @param row          row of black/white values to search
    * @param payloadStart offset of start pattern
    * @param resultString {@link StringBuilder} to append decoded chars to
-   * @throws NotFoundException if decoding could not complete successfully
+   * @return false if decoding could not complete successfully
    */
-  private static void decodeMiddle(BitArray row,
-                                   int payloadStart,
-                                   int payloadEnd,
-                                   StringBuilder resultString) throws NotFoundException {
+  private static boolean decodeMiddle(BitArray row,
+                                      int payloadStart,
+                                      int payloadEnd,
+                                      StringBuilder resultString) {
 
     // Digits are interleaved in pairs - 5 black lines for one digit, and the
     // 5
@@ -154,7 +201,9 @@ public final class ITFReader extends OneDReader {
     while (payloadStart < payloadEnd) {
 
       // Get 10 runs of black/white.
-      recordPattern(row, payloadStart, counterDigitPair);
+      if (!tryRecordPattern(row, payloadStart, counterDigitPair)) {
+        return false;
+      }
       // Split them into each array
       for (int k = 0; k < 5; k++) {
         int twoK = 2 * k;
@@ -163,163 +212,114 @@ public final class ITFReader extends OneDReader {
       }
 
       int bestMatch = decodeDigit(counterBlack);
+      if (bestMatch < 0) {
+        return false;
+      }
       resultString.append((char) ('0' + bestMatch));
       bestMatch = decodeDigit(counterWhite);
+      if (bestMatch < 0) {
+        return false;
+      }
       resultString.append((char) ('0' + bestMatch));
 
       for (int counterDigit : counterDigitPair) {
         payloadStart += counterDigit;
       }
     }
+    return true;
   }
 
   /**
    * Identify where the start of the middle / payload section starts.
    *
-   * @param row row of black/white values to search
+   * @param row runs of black/white values to search
+   * @param startPattern the start block, as found by the start pattern finder
    * @return Array, containing index of start of 'start block' and end of
-   *         'start block'
+   *         'start block', or null if it lacks a quiet zone
    */
-  int[] decodeStart(BitArray row) throws NotFoundException {
-    int endStart = skipWhiteSpace(row);
-    int[] startPattern = findGuardPattern(row, endStart, START_PATTERN);
-
+  int[] decodeStart(RunLengthRow row, int[] startPattern) {
     // Determine the width of a narrow line in pixels. We can do this by
     // getting the width of the start pattern and dividing by 4 because its
     // made up of 4 narrow lines.
     this.narrowLineWidth = (startPattern[1] - startPattern[0]) / 4;
 
-    validateQuietZone(row, startPattern[0]);
-
-    return startPattern;
+    int run = row.getRunIndex(startPattern[0]);
+    return validateQuietZone(run == 0 ? 0 : row.getRunLength(run - 1), startPattern[0]) ? startPattern : null;
   }
 
   /**
    * The start & end patterns must be pre/post fixed by a quiet zone. This
-   * zone must be at least 10 times the width of a narrow line.  Scan back until
-   * we either get to the start of the barcode or match the necessary number of
-   * quiet zone pixels.
-   *
-   * Note: Its assumed the row is reversed when using this method to find
-   * quiet zone after the end pattern.
+   * zone must be at least 10 times the width of a narrow line, or reach the
+   * edge of the row.
    *
    * ref: http://www.barcode-1.net/i25code.html
    *
-   * @param row bit array representing the scanned barcode.
-   * @param startPattern index into row of the start or end pattern.
-   * @throws NotFoundException if the quiet zone cannot be found
+   * @param quietWidth width of the white run outside the start or end pattern
+   * @param edgeDistance distance from the start or end pattern to the edge of the row
+   * @return false if the quiet zone cannot be found
    */
-  private void validateQuietZone(BitArray row, int startPattern) throws NotFoundException {
+  private boolean validateQuietZone(int quietWidth, int edgeDistance) {
 
     int quietCount = this.narrowLineWidth * 10;  // expect to find this many pixels of quiet zone
 
     // if there are not so many pixel at all let's try as many as possible
-    quietCount = quietCount < startPattern ? quietCount : startPattern;
+    quietCount = quietCount < edgeDistance ? quietCount : edgeDistance;
 
-    for (int i = startPattern - 1; quietCount > 0 && i >= 0; i--) {
-      if (row.get(i)) {
-        break;
-      }
-      quietCount--;
-    }
-    if (quietCount != 0) {
-      // Unable to find the necessary number of quiet zone pixels.
-      throw NotFoundException.getNotFoundInstance();
-    }
-  }
-
-  /**
-   * Skip all whitespace until we get to the first black line.
-   *
-   * @param row row of black/white values to search
-   * @return index of the first black line.
-   * @throws NotFoundException Throws exception if no black lines are found in the row
-   */
-  private static int skipWhiteSpace(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int endStart = row.getNextSet(0);
-    if (endStart == width) {
-      throw NotFoundException.getNotFoundInstance();
-    }
-
-    return endStart;
+    // Otherwise, unable to find the necessary number of quiet zone pixels.
+    return quietWidth >= quietCount;
   }
 
   /**
    * Identify where the end of the middle / payload section ends.
    *
-   * @param row row of black/white values to search
+   * @param row runs of black/white values to search
    * @return Array, containing index of start of 'end block' and end of 'end
-   *         block'
+   *         block', or null if it is not found
    */
-  int[] decodeEnd(BitArray row) throws NotFoundException {
-
-    // For convenience, reverse the row and then
-    // search from 'the start' for the end block
-    row.reverse();
-    try {
-      int endStart = skipWhiteSpace(row);
-      int[] endPattern = findGuardPattern(row, endStart, END_PATTERN_REVERSED);
-
-      // The start & end patterns must be pre/post fixed by a quiet zone. This
-      // zone must be at least 10 times the width of a narrow line.
-      // ref: http://www.barcode-1.net/i25code.html
-      validateQuietZone(row, endPattern[0]);
-
-      // Now recalculate the indices of where the 'endblock' starts & stops to
-      // accommodate
-      // the reversed nature of the search
-      int temp = endPattern[0];
-      endPattern[0] = row.getSize() - endPattern[1];
-      endPattern[1] = row.getSize() - temp;
-
-      return endPattern;
-    } finally {
-      // Put the row back the right way.
-      row.reverse();
+  int[] decodeEnd(RunLengthRow row) {
+    // Search from the right for the end block, whose runs are then counted
+    // backwards from the last one
+    int run = findGuardPatternInReverse(row, END_PATTERN_REVERSED);
+    if (run < 0) {
+      return null;
     }
+    int lastRun = row.getNumRuns() - 1 - run;
+    int patternStart = row.getRunStart(lastRun - (END_PATTERN_REVERSED.length - 1));
+    int patternEnd = row.getRunEnd(lastRun);
+
+    // The start & end patterns must be pre/post fixed by a quiet zone. This
+    // zone must be at least 10 times the width of a narrow line.
+    // ref: http://www.barcode-1.net/i25code.html
+    if (!validateQuietZone(run == 0 ? 0 : row.getRunLength(lastRun + 1), row.getSize() - patternEnd)) {
+      return null;
+    }
+    return new int[]{patternStart, patternEnd};
   }
 
   /**
-   * @param row       row of black/white values to search
-   * @param rowOffset position to start search
+   * @param row       runs of black/white values to search, from the right of the
+   *                  row to the left
    * @param pattern   pattern of counts of number of black and white pixels that are
-   *                  being searched for as a pattern
-   * @return start/end horizontal offset of guard pattern, as an array of two
-   *         ints
-   * @throws NotFoundException if pattern is not found
+   *                  being searched for as a pattern, starting with black
+   * @return index of the first run of the pattern, counting from the last run
+   *         of the row, or -1 if pattern is not found
    */
-  private static int[] findGuardPattern(BitArray row,
-                                        int rowOffset,
-                                        int[] pattern) throws NotFoundException {
+  private static int findGuardPatternInReverse(RunLengthRow row, int[] pattern) {
     int patternLength = pattern.length;
     int[] counters = new int[patternLength];
-    int width = row.getSize();
-    boolean isWhite = false;
-
-    int counterPosition = 0;
-    int patternStart = rowOffset;
-    for (int x = rowOffset; x < width; x++) {
-      if (row.get(x) ^ isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
-            return new int[]{patternStart, x};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, patternLength - 2);
-          counters[patternLength - 2] = 0;
-          counters[patternLength - 1] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+    int numRuns = row.getNumRuns();
+
+    // Start from the last black run, and leave at least one run before the pattern
+    int firstBlack = row.isBlack(numRuns - 1) ? 0 : 1;
+    for (int run = firstBlack; run + patternLength < numRuns; run += 2) {
+      for (int i = 0; i < patternLength; i++) {
+        counters[i] = row.getRunLength(numRuns - 1 - (run + i));
+      }
+      if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return run;
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return -1;
   }
 
   /**
@@ -327,10 +327,9 @@ public final class ITFReader extends OneDReader {
    * digit.
    *
    * @param counters the counts of runs of observed black/white/black/... values
-   * @return The decoded digit
-   * @throws NotFoundException if digit cannot be decoded
+   * @return The decoded digit, or -1 if digit cannot be decoded
    */
-  private static int decodeDigit(int[] counters) throws NotFoundException {
+  private static int decodeDigit(int[] counters) {
     float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     int max = PATTERNS.length;
@@ -342,11 +341,7 @@ public final class ITFReader extends OneDReader {
         bestMatch = i;
       }
     }
-    if (bestMatch >= 0) {
-      return bestMatch;
-    } else {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return bestMatch;
   }
 
 }
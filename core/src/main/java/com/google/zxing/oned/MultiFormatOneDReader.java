@@ -17,12 +17,13 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
-import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 import com.google.zxing.oned.rss.RSS14Reader;
 import com.google.zxing.oned.rss.expanded.RSSExpandedReader;
 
@@ -37,6 +38,7 @@ import java.util.Map;
 public final class MultiFormatOneDReader extends OneDReader {
 
   private final OneDReader[] readers;
+  private final StartPatternFinder[] startPatternFinders;
 
   public MultiFormatOneDReader(Map<DecodeHintType,?> hints) {
     @SuppressWarnings("unchecked")    
@@ -85,21 +87,53 @@ public final class MultiFormatOneDReader extends OneDReader {
       readers.add(new RSSExpandedReader());
     }
     this.readers = readers.toArray(new OneDReader[readers.size()]);
+    startPatternFinders = new StartPatternFinder[this.readers.length];
+    for (int i = 0; i < this.readers.length; i++) {
+      startPatternFinders[i] = this.readers[i].getStartPatternFinder();
+    }
   }
 
   @Override
   public Result decodeRow(int rowNumber,
                           BitArray row,
                           Map<DecodeHintType,?> hints) throws NotFoundException {
-    for (OneDReader reader : readers) {
-      try {
-        return reader.decodeRow(rowNumber, row, hints);
-      } catch (ReaderException re) {
-        // continue
-      }
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber,
+                          RunLengthRow row,
+                          Map<DecodeHintType,?> hints) throws NotFoundException {
+    DecodeOutcome outcome = decodeRowOutcome(rowNumber, row, hints);
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
     }
+    return outcome.getResult();
+  }
 
-    throw NotFoundException.getNotFoundInstance();
+  @Override
+  public DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) {
+    // Look for the start patterns of all readers which have one in a single pass over the row.
+    // Those readers only need to decode the row if theirs is there; the others (RSS, whose
+    // readers also collect finder patterns across rows) always try.
+    int[][] startPatterns = StartPatternFinder.findAll(row, startPatternFinders);
+    DecodeOutcome best = DecodeOutcome.notFound();
+    for (int i = 0; i < readers.length; i++) {
+      DecodeOutcome outcome;
+      if (startPatternFinders[i] == null) {
+        outcome = readers[i].decodeRowOutcome(rowNumber, row, hints);
+      } else if (startPatterns[i] != null) {
+        // The start pattern was there, so this may get further than other readers
+        outcome = readers[i].decodeRowOutcome(rowNumber, row, startPatterns[i], hints);
+      } else {
+        continue;
+      }
+      if (outcome.isSuccess()) {
+        return outcome;
+      }
+      best = DecodeOutcome.furthest(best, outcome);
+    }
+    return best;
   }
 
   @Override
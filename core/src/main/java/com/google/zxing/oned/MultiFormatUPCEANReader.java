@@ -18,11 +18,12 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
-import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -38,6 +39,8 @@ import java.util.Map;
 public final class MultiFormatUPCEANReader extends OneDReader {
 
   private final UPCEANReader[] readers;
+  // The start guard is found once and reused on multiple implementations
+  private final StartPatternFinder startGuardFinder = new UPCEANReader.StartGuardFinder();
 
   public MultiFormatUPCEANReader(Map<DecodeHintType,?> hints) {
     @SuppressWarnings("unchecked")
@@ -70,15 +73,36 @@ public final class MultiFormatUPCEANReader extends OneDReader {
   public Result decodeRow(int rowNumber,
                           BitArray row,
                           Map<DecodeHintType,?> hints) throws NotFoundException {
-    // Compute this location once and reuse it on multiple implementations
-    int[] startGuardPattern = UPCEANReader.findStartGuardPattern(row);
+    return decodeRow(rowNumber, new RunLengthRow(row), hints);
+  }
+
+  @Override
+  public Result decodeRow(int rowNumber,
+                          RunLengthRow row,
+                          Map<DecodeHintType,?> hints) throws NotFoundException {
+    DecodeOutcome outcome = decodeRowOutcome(rowNumber, row, startGuardFinder.find(row), hints);
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return startGuardFinder;
+  }
+
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber,
+                                 RunLengthRow row,
+                                 int[] startGuardPattern,
+                                 Map<DecodeHintType,?> hints) {
     for (UPCEANReader reader : readers) {
-      Result result;
-      try {
-        result = reader.decodeRow(rowNumber, row, startGuardPattern, hints);
-      } catch (ReaderException ignored) {
+      DecodeOutcome outcome = reader.decodeRowOutcome(rowNumber, row.getRow(), startGuardPattern, hints);
+      if (!outcome.isSuccess()) {
         continue;
       }
+      Result result = outcome.getResult();
       // Special case: a 12-digit code encoded in UPC-A is identical to a "0"
       // followed by those 12 digits encoded as EAN-13. Each will recognize such a code,
       // UPC-A as a 12-digit string and EAN-13 as a 13-digit string starting with "0".
@@ -106,12 +130,12 @@ public final class MultiFormatUPCEANReader extends OneDReader {
                                        result.getResultPoints(),
                                        BarcodeFormat.UPC_A);
         resultUPCA.putAllMetadata(result.getResultMetadata());
-        return resultUPCA;
+        return DecodeOutcome.of(resultUPCA);
       }
-      return result;
+      return outcome;
     }
 
-    throw NotFoundException.getNotFoundInstance();
+    return DecodeOutcome.notFound();
   }
 
   @Override
@@ -18,15 +18,20 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
+import com.google.zxing.Deadline;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Reader;
+import com.google.zxing.OutcomeReader;
 import com.google.zxing.ReaderException;
+import com.google.zxing.RegionsOfInterest;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.RunLengthRow;
 
 import java.util.Arrays;
 import java.util.EnumMap;
@@ -39,46 +44,79 @@ import java.util.Map;
  * @author dswitkin@google.com (Daniel Switkin)
  * @author Sean Owen
  */
-public abstract class OneDReader implements Reader {
+public abstract class OneDReader implements OutcomeReader {
 
   @Override
   public Result decode(BinaryBitmap image) throws NotFoundException, FormatException {
     return decode(image, null);
   }
 
-  // Note that we don't try rotation without the try harder flag, even if rotation was supported.
   @Override
   public Result decode(BinaryBitmap image,
                        Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
-    try {
-      return doDecode(image, hints);
-    } catch (NotFoundException nfe) {
-      boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
-      if (tryHarder && image.isRotateSupported()) {
-        BinaryBitmap rotatedImage = image.rotateCounterClockwise();
-        Result result = doDecode(rotatedImage, hints);
-        // Record that we found it rotated 90 degrees CCW / 270 degrees CW
-        Map<ResultMetadataType,?> metadata = result.getResultMetadata();
-        int orientation = 270;
-        if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
-          // But if we found it reversed in doDecode(), add in that result here:
-          orientation = (orientation +
-              (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
-        }
-        result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
-        // Update result points
-        ResultPoint[] points = result.getResultPoints();
-        if (points != null) {
-          int height = rotatedImage.getHeight();
-          for (int i = 0; i < points.length; i++) {
-            points[i] = new ResultPoint(height - points[i].getY() - 1, points[i].getX());
-          }
-        }
-        return result;
-      } else {
-        throw nfe;
+    DecodeOutcome outcome = decodeOutcome(image, hints);
+    if (!outcome.isSuccess()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return outcome.getResult();
+  }
+
+  // Note that we don't try rotation without the try harder flag, even if rotation was supported.
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+    DecodeOutcome outcome = doDecode(image, hints);
+    if (!outcome.isSuccess() && hints != null && hints.containsKey(DecodeHintType.SCAN_ANGLES)) {
+      outcome = DecodeOutcome.furthest(outcome, doDecodeAngled(image, hints));
+    }
+    if (outcome.isSuccess() || !shouldTryRotated(image, hints)) {
+      return outcome;
+    }
+    BinaryBitmap rotatedImage = image.rotateCounterClockwise();
+    return DecodeOutcome.furthest(outcome, fromRotated(doDecode(rotatedImage, hints), rotatedImage));
+  }
+
+  /**
+   * @return true iff a barcode not found in the image should be looked for again in the image
+   *  rotated 90 degrees
+   */
+  static boolean shouldTryRotated(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+    return tryHarder && image.isRotateSupported() && !Deadline.fromHints(hints).isExpired();
+  }
+
+  /**
+   * Maps a result found in the image rotated 90 degrees counterclockwise back to the original image.
+   *
+   * @param outcome outcome of decoding the rotated image
+   * @param rotatedImage the rotated image
+   * @return the same outcome, with orientation and result points updated if it is a success
+   */
+  static DecodeOutcome fromRotated(DecodeOutcome outcome, BinaryBitmap rotatedImage) {
+    if (!outcome.isSuccess()) {
+      return outcome;
+    }
+    Result result = outcome.getResult();
+    // Record that we found it rotated 90 degrees CCW / 270 degrees CW
+    Map<ResultMetadataType,?> metadata = result.getResultMetadata();
+    int orientation = 270;
+    if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
+      // But if we found it reversed in doDecode(), add in that result here:
+      orientation = (orientation +
+          (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
+    }
+    result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
+    // Update result points
+    ResultPoint[] points = result.getResultPoints();
+    if (points != null) {
+      int height = rotatedImage.getHeight();
+      for (int i = 0; i < points.length; i++) {
+        points[i] = new ResultPoint(height - points[i].getY() - 1, points[i].getX());
       }
     }
+    return outcome;
   }
 
   @Override
@@ -95,19 +133,156 @@ public abstract class OneDReader implements Reader {
    * decided that moving up and down by about 1/16 of the image is pretty good; we try more of the
    * image if "trying harder".
    *
+   * With {@link DecodeHintType#ROW_CONSENSUS}, rows are scanned until enough of them agree, rather
+   * than until the first decodes.
+   *
    * @param image The image to decode
    * @param hints Any hints that were requested
-   * @return The contents of the decoded barcode
-   * @throws NotFoundException Any spontaneous errors which occur
+   * @return The contents of the decoded barcode, or the failure which got furthest
    */
-  private Result doDecode(BinaryBitmap image,
-                          Map<DecodeHintType,?> hints) throws NotFoundException {
+  private DecodeOutcome doDecode(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    int width = image.getWidth();
+    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+    int[] rowNumbers = getRowsToScan(image.getHeight(), tryHarder);
+    Deadline deadline = Deadline.fromHints(hints);
+    // Null unless several rows must agree on a barcode before it's returned
+    RowVotes votes = RowVotes.fromHints(hints);
+    // The failure which got furthest, if no row decodes
+    DecodeOutcome failure = DecodeOutcome.notFound();
+
+    for (int x = 0; x < rowNumbers.length && !deadline.isExpired(); x++) {
+      int rowNumber = rowNumbers[x];
+
+      // Estimate black point for this row and load it. Rows are cached by the image, so other
+      // readers scanning the same image share them.
+      // While we have the image data in a BitArray, it's fairly cheap to reverse it to
+      // handle decoding upside down barcodes. The reversed row is cached too.
+      RunLengthRow row;
+      RunLengthRow reversedRow;
+      try {
+        row = image.getCachedBlackRuns(rowNumber, false);
+        reversedRow = image.getCachedBlackRuns(rowNumber, true);
+      } catch (NotFoundException ignored) {
+        continue;
+      }
+
+      // This means we will only ever draw result points *once* in the life of this method
+      // since we want to avoid drawing the wrong points after flipping the row, and,
+      // don't want to clutter with noise from every single row scan -- just the scans
+      // that start on the center line.
+      Map<DecodeHintType,?> reversedHints = withoutResultPointCallback(hints);
+      DecodeOutcome outcome = decodeRowEitherWay(rowNumber, width, row, reversedRow, hints, reversedHints);
+      if (outcome.isSuccess()) {
+        if (votes == null) {
+          // We found our barcode
+          return outcome;
+        }
+        Result agreed = votes.add(outcome.getResult());
+        if (agreed != null) {
+          return DecodeOutcome.of(agreed);
+        }
+      } else {
+        failure = DecodeOutcome.furthest(failure, outcome);
+      }
+      hints = reversedHints;
+    }
+
+    Result best = votes == null ? null : votes.getBest();
+    return best == null ? failure : DecodeOutcome.of(best);
+  }
+
+  /**
+   * Looks for a barcode along lines at each of the angles in {@link DecodeHintType#SCAN_ANGLES}.
+   * Lines at each angle are scanned from the middle outward, as rows are, each read forward and
+   * reversed as a row. They're sampled from {@link BinaryBitmap#getBlackMatrixRows(int, int)}, so
+   * that a large image is only binarized down to where the lines reach.
+   *
+   * @param image The image to decode
+   * @param hints Any hints that were requested
+   * @return The contents of the decoded barcode, or the failure which got furthest
+   */
+  final DecodeOutcome doDecodeAngled(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    int[] angles = (int[]) hints.get(DecodeHintType.SCAN_ANGLES);
     int width = image.getWidth();
     int height = image.getHeight();
-    BitArray row = new BitArray(width);
+    boolean tryHarder = hints.containsKey(DecodeHintType.TRY_HARDER);
+    Deadline deadline = Deadline.fromHints(hints);
+    // Points found along a line aren't where they seem to be in the image until mapped back
+    Map<DecodeHintType,?> lineHints = withoutResultPointCallback(hints);
+
+    DecodeOutcome failure = DecodeOutcome.notFound();
+    for (int degrees : angles) {
+      // A line and the same line reversed are both read, so only angles in (-90,90] are needed
+      int angle = ((degrees % 180) + 180) % 180;
+      if (angle > 90) {
+        angle -= 180;
+      }
+      if (angle == 0) {
+        // Those are just rows, already scanned
+        continue;
+      }
+      for (ScanLine line : ScanLine.forAngle(width, height, angle, tryHarder)) {
+        if (deadline.isExpired()) {
+          return failure;
+        }
+        int top = line.getTop();
+        int bottom = Math.min(height - 1, line.getBottom());
+        BitMatrix matrix;
+        try {
+          matrix = image.getBlackMatrixRows(top, bottom - top + 1);
+        } catch (NotFoundException ignored) {
+          continue;
+        }
+        BitArray bits = line.sample(matrix);
+        RunLengthRow row = new RunLengthRow(bits);
+        BitArray reversedBits = bits.clone();
+        reversedBits.reverse();
+        RunLengthRow reversedRow = new RunLengthRow(reversedBits);
+        DecodeOutcome outcome =
+            decodeRowEitherWay(0, line.getLength(), row, reversedRow, lineHints, lineHints);
+        if (outcome.isSuccess()) {
+          return fromLine(outcome, line, angle);
+        }
+        failure = DecodeOutcome.furthest(failure, outcome);
+      }
+    }
+    return failure;
+  }
+
+  /**
+   * Maps a result found along a line at an angle back to the image.
+   */
+  private static DecodeOutcome fromLine(DecodeOutcome outcome, ScanLine line, int angle) {
+    Result result = outcome.getResult();
+    // A barcode read along a line turned counterclockwise is itself turned that way
+    Map<ResultMetadataType,?> metadata = result.getResultMetadata();
+    int orientation = 360 - angle;
+    if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
+      // Found reversed in decodeRowEitherWay()
+      orientation += (Integer) metadata.get(ResultMetadataType.ORIENTATION);
+    }
+    result.putMetadata(ResultMetadataType.ORIENTATION, orientation % 360);
+    ResultPoint[] points = result.getResultPoints();
+    if (points != null) {
+      for (int i = 0; i < points.length; i++) {
+        if (points[i] != null) {
+          points[i] = line.toImage(points[i]);
+        }
+      }
+    }
+    return outcome;
+  }
 
+  /**
+   * Lists the rows to scan for a barcode, in the order to scan them, as described in
+   * {@link #doDecode(BinaryBitmap, Map)}.
+   *
+   * @param height height of the image
+   * @param tryHarder true to scan rows throughout the image rather than near the middle
+   * @return row numbers, from the middle outward
+   */
+  static int[] getRowsToScan(int height, boolean tryHarder) {
     int middle = height >> 1;
-    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
     int rowStep = Math.max(1, height >> (tryHarder ? 8 : 5));
     int maxLines;
     if (tryHarder) {
@@ -115,9 +290,9 @@ public abstract class OneDReader implements Reader {
     } else {
       maxLines = 15; // 15 rows spaced 1/32 apart is roughly the middle half of the image
     }
-
+    int[] rowNumbers = new int[maxLines];
+    int count = 0;
     for (int x = 0; x < maxLines; x++) {
-
       // Scanning from the middle out. Determine which row we're looking at next:
       int rowStepsAboveOrBelow = (x + 1) / 2;
       boolean isAbove = (x & 0x01) == 0; // i.e. is x even?
@@ -126,52 +301,60 @@ public abstract class OneDReader implements Reader {
         // Oops, if we run off the top or bottom, stop
         break;
       }
+      rowNumbers[count++] = rowNumber;
+    }
+    return count == maxLines ? rowNumbers : Arrays.copyOf(rowNumbers, count);
+  }
 
-      // Estimate black point for this row and load it:
-      try {
-        row = image.getBlackRow(rowNumber, row);
-      } catch (NotFoundException ignored) {
-        continue;
-      }
-
-      // While we have the image data in a BitArray, it's fairly cheap to reverse it in place to
-      // handle decoding upside down barcodes.
-      for (int attempt = 0; attempt < 2; attempt++) {
-        if (attempt == 1) { // trying again?
-          row.reverse(); // reverse the row and continue
-          // This means we will only ever draw result points *once* in the life of this method
-          // since we want to avoid drawing the wrong points after flipping the row, and,
-          // don't want to clutter with noise from every single row scan -- just the scans
-          // that start on the center line.
-          if (hints != null && hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
-            Map<DecodeHintType,Object> newHints = new EnumMap<>(DecodeHintType.class);
-            newHints.putAll(hints);
-            newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
-            hints = newHints;
-          }
-        }
-        try {
-          // Look for a barcode
-          Result result = decodeRow(rowNumber, row, hints);
-          // We found our barcode
-          if (attempt == 1) {
-            // But it was upside down, so note that
-            result.putMetadata(ResultMetadataType.ORIENTATION, 180);
-            // And remember to flip the result points horizontally.
-            ResultPoint[] points = result.getResultPoints();
-            if (points != null) {
-              points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
-              points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
-            }
-          }
-          return result;
-        } catch (ReaderException re) {
-          // continue -- just couldn't decode this row
-        }
-      }
+  /**
+   * Looks for a barcode in a row, and failing that in the row reversed, in case the barcode is
+   * upside down.
+   *
+   * @param rowNumber row number from top of the row
+   * @param width width of the image
+   * @param row the runs of black/white pixels in the row
+   * @param reversedRow the same, reversed
+   * @param hints decode hints for the row
+   * @param reversedHints decode hints for the reversed row
+   * @return the result of decoding the row, or the reason it failed
+   */
+  final DecodeOutcome decodeRowEitherWay(int rowNumber,
+                                         int width,
+                                         RunLengthRow row,
+                                         RunLengthRow reversedRow,
+                                         Map<DecodeHintType,?> hints,
+                                         Map<DecodeHintType,?> reversedHints) {
+    DecodeOutcome outcome = decodeRowOutcome(rowNumber, row, hints);
+    if (outcome.isSuccess()) {
+      return outcome;
     }
+    DecodeOutcome reversedOutcome = decodeRowOutcome(rowNumber, reversedRow, reversedHints);
+    if (!reversedOutcome.isSuccess()) {
+      return DecodeOutcome.furthest(outcome, reversedOutcome);
+    }
+    Result result = reversedOutcome.getResult();
+    // But it was upside down, so note that
+    result.putMetadata(ResultMetadataType.ORIENTATION, 180);
+    // And remember to flip the result points horizontally.
+    ResultPoint[] points = result.getResultPoints();
+    if (points != null) {
+      points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
+      points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
+    }
+    return reversedOutcome;
+  }
 
-    throw NotFoundException.getNotFoundInstance();
+  /**
+   * @return the hints, without {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK}
+   */
+  static Map<DecodeHintType,?> withoutResultPointCallback(Map<DecodeHintType,?> hints) {
+    if (hints == null || !hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
+      return hints;
+    }
+    Map<DecodeHintType,Object> newHints = new EnumMap<>(DecodeHintType.class);
+    newHints.putAll(hints);
+    newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    return newHints;
   }
 
   /**
@@ -190,11 +373,26 @@ public abstract class OneDReader implements Reader {
   protected static void recordPattern(BitArray row,
                                       int start,
                                       int[] counters) throws NotFoundException {
+    if (!tryRecordPattern(row, start, counters)) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+  }
+
+  /**
+   * Like {@link #recordPattern(BitArray, int, int[])}, but returns false rather than throwing
+   * if the counters cannot be filled.
+   *
+   * @param row row to count from
+   * @param start offset into row to start at
+   * @param counters array into which to record counts
+   * @return true iff counters were filled entirely from row
+   */
+  protected static boolean tryRecordPattern(BitArray row, int start, int[] counters) {
     int numCounters = counters.length;
     Arrays.fill(counters, 0, numCounters, 0);
     int end = row.getSize();
     if (start >= end) {
-      throw NotFoundException.getNotFoundInstance();
+      return false;
     }
     boolean isWhite = !row.get(start);
     int counterPosition = 0;
@@ -215,9 +413,7 @@ public abstract class OneDReader implements Reader {
     }
     // If we read fully the last section of pixels and filled up our counters -- or filled
     // the last counter but ran off the side of the image, OK. Otherwise, a problem.
-    if (!(counterPosition == numCounters || (counterPosition == numCounters - 1 && i == end))) {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return counterPosition == numCounters || (counterPosition == numCounters - 1 && i == end);
   }
 
   protected static void recordPatternInReverse(BitArray row, int start, int[] counters)
@@ -294,4 +490,77 @@ public abstract class OneDReader implements Reader {
   public abstract Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException;
 
+  /**
+   * <p>Like {@link #decodeRow(int, BitArray, Map)}, but takes the row as runs of black and white
+   * pixels, which {@link #decode(BinaryBitmap, Map)} computes once per row and shares between
+   * readers. Readers which search the row for patterns run by run should override this. By default
+   * it decodes the underlying {@link BitArray}.</p>
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels in the row
+   * @param hints decode hints
+   * @return {@link Result} containing encoded string and start/end of barcode
+   * @throws NotFoundException if no potential barcode is found
+   * @throws ChecksumException if a potential barcode is found but does not pass its checksum
+   * @throws FormatException if a potential barcode is found but format is invalid
+   */
+  public Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, row.getRow(), hints);
+  }
+
+  /**
+   * <p>Like {@link #decodeRow(int, RunLengthRow, Map)}, but returns failure rather than throwing it.
+   * Readers with a {@link #getStartPatternFinder()} report rows without their start pattern,
+   * by far the most common failure, without an exception.</p>
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels in the row
+   * @param hints decode hints
+   * @return the result of decoding the row, or the reason it failed
+   */
+  public DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) {
+    StartPatternFinder startPatternFinder = getStartPatternFinder();
+    if (startPatternFinder == null) {
+      try {
+        return DecodeOutcome.of(decodeRow(rowNumber, row, hints));
+      } catch (ReaderException re) {
+        return DecodeOutcome.of(re);
+      }
+    }
+    int[] startPattern = startPatternFinder.findFirst(row);
+    if (startPattern == null) {
+      return DecodeOutcome.notFound();
+    }
+    return decodeRowOutcome(rowNumber, row, startPattern, hints);
+  }
+
+  /**
+   * @return finder for this reader's start pattern, which {@link MultiFormatOneDReader} uses to
+   *  look for it along with other readers' start patterns, or null if there is none
+   */
+  StartPatternFinder getStartPatternFinder() {
+    return null;
+  }
+
+  /**
+   * Like {@link #decodeRowOutcome(int, RunLengthRow, Map)}, but for a row in which this reader's
+   * {@link #getStartPatternFinder()} has already found the start pattern. Readers with a finder
+   * override this to report failure without an exception, and implement
+   * {@link #decodeRow(int, RunLengthRow, Map)} on top of it.
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels in the row
+   * @param startPattern location of the start pattern, as found by the finder
+   * @param hints decode hints
+   * @return the result of decoding the row, or the reason it failed
+   */
+  DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow row, int[] startPattern, Map<DecodeHintType,?> hints) {
+    try {
+      return DecodeOutcome.of(decodeRow(rowNumber, row, hints));
+    } catch (ReaderException re) {
+      return DecodeOutcome.of(re);
+    }
+  }
+
 }
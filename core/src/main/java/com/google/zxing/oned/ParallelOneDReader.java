@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.Deadline;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.OutcomeReader;
+import com.google.zxing.RegionsOfInterest;
+import com.google.zxing.Result;
+import com.google.zxing.common.RunLengthRow;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Like {@link MultiFormatOneDReader}, but scans the rows of the image on several threads at
+ * once. This pays off with {@link DecodeHintType#TRY_HARDER}, when every few rows of the image
+ * may be scanned; otherwise only 15 rows are.</p>
+ *
+ * <p>Threads take rows in the same order as {@link OneDReader}, from the middle outward, each
+ * with its own reader and its own view of the image (see {@link BinaryBitmap#newView()}). Once a
+ * row decodes, rows further out are skipped, but rows closer to the middle are still finished, and
+ * the result from the row closest to the middle wins. So the result is the one a single thread
+ * would have found, except from readers such as RSS Expanded which piece a barcode together from
+ * several rows, as each thread sees only some of the rows.</p>
+ *
+ * <p>If no row decodes, lines at the angles in {@link DecodeHintType#SCAN_ANGLES} are then
+ * scanned as {@link OneDReader} does, but only on the calling thread.</p>
+ *
+ * <p>New readers are created for each call, so one instance may be used from several threads at
+ * once.</p>
+ *
+ * @see MultiFormatOneDReader
+ */
+public final class ParallelOneDReader implements OutcomeReader {
+
+  private final Executor executor;
+  private final int threads;
+
+  /**
+   * @param executor runs the scanning threads
+   * @param threads number of threads to scan with, counting the calling thread, which also scans
+   */
+  public ParallelOneDReader(Executor executor, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    this.executor = executor;
+    this.threads = threads;
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image) throws NotFoundException, ChecksumException, FormatException {
+    return decode(image, null);
+  }
+
+  /**
+   * Like {@link #decodeOutcome(BinaryBitmap, Map)}, but throws the failure which got furthest.
+   *
+   * @throws NotFoundException if no barcode was found
+   * @throws FormatException if a barcode's contents were not valid
+   * @throws ChecksumException if a barcode did not pass its checksum
+   */
+  @Override
+  public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeOutcome(image, hints).getResultOrThrow();
+  }
+
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+    DecodeOutcome outcome = scan(image, hints);
+    if (!outcome.isSuccess() && hints != null && hints.containsKey(DecodeHintType.SCAN_ANGLES)) {
+      outcome = DecodeOutcome.furthest(outcome, new MultiFormatOneDReader(hints).doDecodeAngled(image, hints));
+    }
+    if (outcome.isSuccess() || !OneDReader.shouldTryRotated(image, hints)) {
+      return outcome;
+    }
+    BinaryBitmap rotatedImage = image.rotateCounterClockwise();
+    return DecodeOutcome.furthest(outcome, OneDReader.fromRotated(scan(rotatedImage, hints), rotatedImage));
+  }
+
+  @Override
+  public void reset() {
+    // do nothing
+  }
+
+  private DecodeOutcome scan(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+    int[] rowNumbers = OneDReader.getRowsToScan(image.getHeight(), tryHarder);
+    RowScan rowScan = new RowScan(image, rowNumbers, hints);
+
+    for (int i = 1; i < threads; i++) {
+      executor.execute(rowScan);
+    }
+    try {
+      rowScan.scanRows();
+      // Rows closer to the middle than the best so far may still be in progress on other threads.
+      // Workers the executor hasn't started by now aren't waited for, and find nothing to do if
+      // they start later, so a busy executor can't hold up the caller.
+      rowScan.awaitWorkers();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      return DecodeOutcome.notFound();
+    } finally {
+      rowScan.stop();
+    }
+    return rowScan.getOutcome();
+  }
+
+  /**
+   * The rows of one image to scan, shared by the threads scanning them.
+   */
+  private static final class RowScan implements Runnable {
+
+    private final BinaryBitmap image;
+    private final int[] rowNumbers;
+    private final Map<DecodeHintType,?> hints;
+    private final Deadline deadline;
+    // Index into rowNumbers of the next row to scan
+    private final AtomicInteger next = new AtomicInteger();
+    // Index of the row closest to the middle which decoded so far
+    private final AtomicInteger best;
+    private final AtomicReferenceArray<DecodeOutcome> outcomes;
+    // Guarded by this: workers still scanning, whether workers may still start, and the first
+    // exception a worker threw
+    private int active;
+    private boolean closed;
+    private Throwable failure;
+
+    RowScan(BinaryBitmap image, int[] rowNumbers, Map<DecodeHintType,?> hints) {
+      this.image = image;
+      this.rowNumbers = rowNumbers;
+      this.hints = hints;
+      deadline = Deadline.fromHints(hints);
+      best = new AtomicInteger(rowNumbers.length);
+      outcomes = new AtomicReferenceArray<>(rowNumbers.length);
+    }
+
+    /**
+     * Scans rows on an executor's thread, unless the caller has already stopped waiting for
+     * workers.
+     */
+    @Override
+    public void run() {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        active++;
+      }
+      try {
+        scanRows();
+      } catch (RuntimeException | Error e) {
+        synchronized (this) {
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      } finally {
+        synchronized (this) {
+          active--;
+          notifyAll();
+        }
+      }
+    }
+
+    /**
+     * Waits for workers which have started to finish, and keeps any others from starting.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized void awaitWorkers() throws InterruptedException {
+      closed = true;
+      while (active > 0) {
+        wait();
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+    }
+
+    void scanRows() {
+      OneDReader reader = new MultiFormatOneDReader(hints);
+      BinaryBitmap view = image.newView();
+      int width = view.getWidth();
+      // As in OneDReader, only the first row draws result points
+      Map<DecodeHintType,?> laterHints = OneDReader.withoutResultPointCallback(hints);
+      int index;
+      while ((index = next.getAndIncrement()) < best.get() && !deadline.isExpired()) {
+        int rowNumber = rowNumbers[index];
+        RunLengthRow row;
+        RunLengthRow reversedRow;
+        try {
+          row = view.getCachedBlackRuns(rowNumber, false);
+          reversedRow = view.getCachedBlackRuns(rowNumber, true);
+        } catch (NotFoundException ignored) {
+          continue;
+        }
+        DecodeOutcome outcome = reader.decodeRowEitherWay(
+            rowNumber, width, row, reversedRow, index == 0 ? hints : laterHints, laterHints);
+        outcomes.set(index, outcome);
+        if (outcome.isSuccess()) {
+          int current;
+          while (index < (current = best.get()) && !best.compareAndSet(current, index)) {
+            // retry
+          }
+        }
+      }
+    }
+
+    /**
+     * Makes threads which haven't started yet finish at once.
+     */
+    void stop() {
+      next.set(rowNumbers.length);
+    }
+
+    /**
+     * @return outcome of the row closest to the middle which decoded, or else the failure which
+     *  got furthest
+     */
+    DecodeOutcome getOutcome() {
+      int index = best.get();
+      if (index < rowNumbers.length) {
+        return outcomes.get(index);
+      }
+      DecodeOutcome failure = DecodeOutcome.notFound();
+      for (int i = 0; i < rowNumbers.length; i++) {
+        DecodeOutcome outcome = outcomes.get(i);
+        if (outcome != null) {
+          failure = DecodeOutcome.furthest(failure, outcome);
+        }
+      }
+      return failure;
+    }
+
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tallies the results decoded from the rows of an image, for
+ * {@link DecodeHintType#ROW_CONSENSUS}. Results with the same text and format, which span
+ * overlapping columns of the image, are votes for the same barcode.
+ *
+ * @see DecodeHintType#ROW_CONSENSUS
+ */
+final class RowVotes {
+
+  private final int required;
+  private final List<Candidate> candidates = new ArrayList<>();
+
+  private RowVotes(int required) {
+    this.required = required;
+  }
+
+  /**
+   * @param hints decode hints
+   * @return a new tally if the hints ask for agreement between more than one row, or null
+   */
+  static RowVotes fromHints(Map<DecodeHintType,?> hints) {
+    if (hints == null) {
+      return null;
+    }
+    Integer required = (Integer) hints.get(DecodeHintType.ROW_CONSENSUS);
+    return required == null || required <= 1 ? null : new RowVotes(required);
+  }
+
+  /**
+   * Counts a row's result as a vote.
+   *
+   * @param result result decoded from a row
+   * @return the barcode the result is a vote for, if it now has enough, or null
+   */
+  Result add(Result result) {
+    float[] extent = getExtent(result);
+    for (Candidate candidate : candidates) {
+      if (candidate.matches(result, extent)) {
+        candidate.votes++;
+        return candidate.votes >= required ? candidate.toResult() : null;
+      }
+    }
+    candidates.add(new Candidate(result, extent));
+    return null;
+  }
+
+  /**
+   * @return the barcode with the most votes, first found on a tie, or null if there are none
+   */
+  Result getBest() {
+    Candidate best = null;
+    for (Candidate candidate : candidates) {
+      if (best == null || candidate.votes > best.votes) {
+        best = candidate;
+      }
+    }
+    return best == null ? null : best.toResult();
+  }
+
+  /**
+   * @return {@code {left, right}} bounds of the result points' x coordinates, or null if none
+   */
+  private static float[] getExtent(Result result) {
+    ResultPoint[] points = result.getResultPoints();
+    if (points == null || points.length == 0) {
+      return null;
+    }
+    float left = Float.POSITIVE_INFINITY;
+    float right = Float.NEGATIVE_INFINITY;
+    for (ResultPoint point : points) {
+      if (point != null) {
+        left = Math.min(left, point.getX());
+        right = Math.max(right, point.getX());
+      }
+    }
+    return left <= right ? new float[] {left, right} : null;
+  }
+
+  private static final class Candidate {
+
+    private final Result result;
+    private final float[] extent;
+    private int votes;
+
+    Candidate(Result result, float[] extent) {
+      this.result = result;
+      this.extent = extent;
+      votes = 1;
+    }
+
+    boolean matches(Result other, float[] otherExtent) {
+      if (result.getBarcodeFormat() != other.getBarcodeFormat() ||
+          !result.getText().equals(other.getText())) {
+        return false;
+      }
+      // Without points to go by, the same text is assumed to be the same barcode
+      return extent == null || otherExtent == null ||
+          (extent[0] <= otherExtent[1] && otherExtent[0] <= extent[1]);
+    }
+
+    Result toResult() {
+      result.putMetadata(ResultMetadataType.AGREEING_ROWS, votes);
+      return result;
+    }
+
+  }
+
+}
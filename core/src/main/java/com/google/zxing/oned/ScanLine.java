@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A straight line across an image, at some angle, along which a 1D barcode may be read as if it
+ * were a row. See {@link com.google.zxing.DecodeHintType#SCAN_ANGLES}.
+ */
+final class ScanLine {
+
+  // Lines shorter than this, clipped by a corner of the image, aren't worth reading
+  private static final int MIN_LENGTH = 32;
+
+  private final float startX;
+  private final float startY;
+  private final float stepX;
+  private final float stepY;
+  private final int length;
+
+  private ScanLine(float startX, float startY, float stepX, float stepY, int length) {
+    this.startX = startX;
+    this.startY = startY;
+    this.stepX = stepX;
+    this.stepY = stepY;
+    this.length = length;
+  }
+
+  /**
+   * Lists parallel lines across an image at an angle, in the order to scan them: from the middle
+   * outward, spaced as {@link OneDReader} spaces rows.
+   *
+   * @param width width of the image
+   * @param height height of the image
+   * @param degrees angle of the lines, counterclockwise from left-to-right
+   * @param tryHarder true to scan lines throughout the image rather than near the middle
+   * @return the lines
+   */
+  static List<ScanLine> forAngle(int width, int height, int degrees, boolean tryHarder) {
+    double radians = Math.toRadians(degrees);
+    // Unit steps along the line; y grows downward, so a counterclockwise angle goes up
+    float stepX = (float) Math.cos(radians);
+    float stepY = (float) -Math.sin(radians);
+    // Lines are spaced along this perpendicular, over the breadth of the image across them
+    float normalX = -stepY;
+    float normalY = stepX;
+    int breadth = (int) (Math.abs(width * normalX) + Math.abs(height * normalY));
+    int spacing = Math.max(1, breadth >> (tryHarder ? 8 : 5));
+    int maxLines = tryHarder ? breadth : 15;
+
+    float centerX = width / 2.0f;
+    float centerY = height / 2.0f;
+    List<ScanLine> lines = new ArrayList<>();
+    for (int x = 0; x < maxLines; x++) {
+      // Scanning from the middle out, alternately to either side, as for rows
+      int stepsAway = (x + 1) / 2;
+      int offset = spacing * ((x & 0x01) == 0 ? stepsAway : -stepsAway);
+      if (2 * Math.abs(offset) > breadth) {
+        break;
+      }
+      ScanLine line = clip(centerX + offset * normalX, centerY + offset * normalY,
+                           stepX, stepY, width, height);
+      if (line != null) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * @return the part of the line through the given point which lies within the image, or null
+   *  if that is too short
+   */
+  private static ScanLine clip(float pointX, float pointY,
+                               float stepX, float stepY,
+                               int width, int height) {
+    // Range of distances along the line, from the point, over which it is within the image
+    float[] range = {Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY};
+    if (!clipAxis(pointX, stepX, width - 1, range) || !clipAxis(pointY, stepY, height - 1, range)) {
+      return null;
+    }
+    int length = (int) (range[1] - range[0]) + 1;
+    if (length < MIN_LENGTH) {
+      return null;
+    }
+    return new ScanLine(pointX + range[0] * stepX, pointY + range[0] * stepY, stepX, stepY, length);
+  }
+
+  private static boolean clipAxis(float point, float step, int max, float[] range) {
+    if (Math.abs(step) < 1.0e-6f) {
+      return point >= 0.0f && point <= max;
+    }
+    float t1 = -point / step;
+    float t2 = (max - point) / step;
+    range[0] = Math.max(range[0], Math.min(t1, t2));
+    range[1] = Math.min(range[1], Math.max(t1, t2));
+    return range[0] <= range[1];
+  }
+
+  /**
+   * @return number of pixels along the line
+   */
+  int getLength() {
+    return length;
+  }
+
+  /**
+   * @return the first row of the image {@link #sample(BitMatrix)} may read, allowing for rounding
+   */
+  int getTop() {
+    float endY = startY + (length - 1) * stepY;
+    return Math.max(0, (int) Math.floor(Math.min(startY, endY)) - 1);
+  }
+
+  /**
+   * @return the last row of the image {@link #sample(BitMatrix)} may read, allowing for rounding;
+   *  this may be past the end of the image
+   */
+  int getBottom() {
+    float endY = startY + (length - 1) * stepY;
+    return (int) Math.ceil(Math.max(startY, endY)) + 1;
+  }
+
+  /**
+   * Reads the pixels along the line, one pixel apart. Positions are stepped in 16.16 fixed point
+   * and rounded to the nearest pixel.
+   *
+   * @param matrix image to read
+   * @return the pixels, as a row
+   */
+  BitArray sample(BitMatrix matrix) {
+    int maxX = matrix.getWidth() - 1;
+    int maxY = matrix.getHeight() - 1;
+    BitArray row = new BitArray(length);
+    // Half a pixel added up front, so that truncating rounds
+    int x = Math.round(startX * 65536.0f) + 0x8000;
+    int y = Math.round(startY * 65536.0f) + 0x8000;
+    int dx = Math.round(stepX * 65536.0f);
+    int dy = Math.round(stepY * 65536.0f);
+    for (int i = 0; i < length; i++) {
+      // Rounding in the steps can drift a fraction of a pixel off the image at the ends
+      int pixelX = Math.min(maxX, Math.max(0, x >> 16));
+      int pixelY = Math.min(maxY, Math.max(0, y >> 16));
+      if (matrix.get(pixelX, pixelY)) {
+        row.set(i);
+      }
+      x += dx;
+      y += dy;
+    }
+    return row;
+  }
+
+  /**
+   * @param point a point found reading the line as a row, whose x is the distance along the line
+   * @return the same point in the image
+   */
+  ResultPoint toImage(ResultPoint point) {
+    float distance = point.getX();
+    return new ResultPoint(startX + distance * stepX, startY + distance * stepY);
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.RunLengthRow;
+
+/**
+ * <p>Finds where a 1D reader's start pattern is in a row by checking one black run at a time,
+ * from left to right. As the finder doesn't walk the row itself, the start patterns of several
+ * readers can be found in a single pass over the row with {@link #findAll(RunLengthRow,
+ * StartPatternFinder[])}, after which only readers whose start pattern was found need to decode
+ * the row.</p>
+ *
+ * <p>Instances keep some state about the row being searched, so belong to a single reader.</p>
+ *
+ * @see OneDReader#getStartPatternFinder()
+ */
+abstract class StartPatternFinder {
+
+  /**
+   * Prepares to search a new row. This is called before the first run of each row is checked.
+   *
+   * @param row row to search
+   */
+  void reset(RunLengthRow row) {
+    // do nothing
+  }
+
+  /**
+   * @param row row to search
+   * @param run index of a black run in the row; runs are checked in increasing order
+   * @return location of the start pattern if it begins at this run, in the form the reader's
+   *  {@link OneDReader#decodeRow(int, RunLengthRow, int[], java.util.Map)} takes, or null
+   */
+  abstract int[] match(RunLengthRow row, int run);
+
+  /**
+   * @param row row to search
+   * @return location of the first start pattern in the row
+   * @throws NotFoundException if there is none
+   */
+  final int[] find(RunLengthRow row) throws NotFoundException {
+    int[] start = findFirst(row);
+    if (start == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return start;
+  }
+
+  /**
+   * @param row row to search
+   * @return location of the first start pattern in the row, or null if there is none
+   */
+  final int[] findFirst(RunLengthRow row) {
+    reset(row);
+    int numRuns = row.getNumRuns();
+    for (int run = row.isBlack(0) ? 0 : 1; run < numRuns; run += 2) {
+      int[] start = match(row, run);
+      if (start != null) {
+        return start;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Searches a row for the start patterns of several readers in one pass.
+   *
+   * @param row row to search
+   * @param finders finders for the readers' start patterns; null entries are skipped
+   * @return location of the first start pattern found by each finder, or null where there is none
+   */
+  static int[][] findAll(RunLengthRow row, StartPatternFinder[] finders) {
+    int[][] starts = new int[finders.length][];
+    int remaining = 0;
+    for (StartPatternFinder finder : finders) {
+      if (finder != null) {
+        finder.reset(row);
+        remaining++;
+      }
+    }
+    int numRuns = row.getNumRuns();
+    for (int run = row.isBlack(0) ? 0 : 1; run < numRuns && remaining > 0; run += 2) {
+      for (int i = 0; i < finders.length; i++) {
+        if (finders[i] != null && starts[i] == null) {
+          starts[i] = finders[i].match(row, run);
+          if (starts[i] != null) {
+            remaining--;
+          }
+        }
+      }
+    }
+    return starts;
+  }
+
+  /**
+   * Copies the lengths of consecutive runs, as many as there are counters.
+   *
+   * @param row row to copy from
+   * @param run index of the first run to copy
+   * @param counters array into which to copy the lengths
+   * @return false if the row ends before the last counter, or with the last counter's run,
+   *  as a pattern needs to be followed by something
+   */
+  static boolean recordRuns(RunLengthRow row, int run, int[] counters) {
+    int numCounters = counters.length;
+    if (run + numCounters >= row.getNumRuns()) {
+      return false;
+    }
+    for (int i = 0; i < numCounters; i++) {
+      counters[i] = row.getRunLength(run + i);
+    }
+    return true;
+  }
+
+}
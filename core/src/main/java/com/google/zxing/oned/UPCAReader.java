@@ -20,6 +20,7 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
@@ -38,12 +39,20 @@ public final class UPCAReader extends UPCEANReader {
   private final UPCEANReader ean13Reader = new EAN13Reader();
 
   @Override
-  public Result decodeRow(int rowNumber,
-                          BitArray row,
-                          int[] startGuardRange,
-                          Map<DecodeHintType,?> hints)
-      throws NotFoundException, FormatException, ChecksumException {
-    return maybeReturnResult(ean13Reader.decodeRow(rowNumber, row, startGuardRange, hints));
+  DecodeOutcome decodeRowOutcome(int rowNumber,
+                                 BitArray row,
+                                 int[] startGuardRange,
+                                 Map<DecodeHintType,?> hints) {
+    DecodeOutcome outcome = ean13Reader.decodeRowOutcome(rowNumber, row, startGuardRange, hints);
+    if (!outcome.isSuccess()) {
+      return outcome;
+    }
+    Result result = outcome.getResult();
+    String text = result.getText();
+    if (text.charAt(0) != '0') {
+      return DecodeOutcome.formatError();
+    }
+    return DecodeOutcome.of(new Result(text.substring(1), null, result.getResultPoints(), BarcodeFormat.UPC_A));
   }
 
   @Override
@@ -69,8 +78,7 @@ public final class UPCAReader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString)
-      throws NotFoundException {
+  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) {
     return ean13Reader.decodeMiddle(row, startRange, resultString);
   }
 
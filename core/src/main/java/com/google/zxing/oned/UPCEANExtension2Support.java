@@ -17,7 +17,6 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
@@ -34,11 +33,17 @@ final class UPCEANExtension2Support {
   private final int[] decodeMiddleCounters = new int[4];
   private final StringBuilder decodeRowStringBuffer = new StringBuilder();
 
-  Result decodeRow(int rowNumber, BitArray row, int[] extensionStartRange) throws NotFoundException {
+  /**
+   * @return the extension, or null if there isn't one
+   */
+  Result decodeRow(int rowNumber, BitArray row, int[] extensionStartRange) {
 
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
     int end = decodeMiddle(row, extensionStartRange, result);
+    if (end < 0) {
+      return null;
+    }
 
     String resultString = result.toString();
     Map<ResultMetadataType,Object> extensionData = parseExtensionString(resultString);
@@ -57,7 +62,7 @@ final class UPCEANExtension2Support {
     return extensionResult;
   }
 
-  int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) throws NotFoundException {
+  int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -70,6 +75,9 @@ final class UPCEANExtension2Support {
 
     for (int x = 0; x < 2 && rowOffset < end; x++) {
       int bestMatch = UPCEANReader.decodeDigit(row, counters, rowOffset, UPCEANReader.L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -85,11 +93,11 @@ final class UPCEANExtension2Support {
     }
 
     if (resultString.length() != 2) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     if (Integer.parseInt(resultString.toString()) % 4 != checkParity) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
     
     return rowOffset;
@@ -17,7 +17,6 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
@@ -38,11 +37,17 @@ final class UPCEANExtension5Support {
   private final int[] decodeMiddleCounters = new int[4];
   private final StringBuilder decodeRowStringBuffer = new StringBuilder();
 
-  Result decodeRow(int rowNumber, BitArray row, int[] extensionStartRange) throws NotFoundException {
+  /**
+   * @return the extension, or null if there isn't one
+   */
+  Result decodeRow(int rowNumber, BitArray row, int[] extensionStartRange) {
 
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
     int end = decodeMiddle(row, extensionStartRange, result);
+    if (end < 0) {
+      return null;
+    }
 
     String resultString = result.toString();
     Map<ResultMetadataType,Object> extensionData = parseExtensionString(resultString);
@@ -61,7 +66,7 @@ final class UPCEANExtension5Support {
     return extensionResult;
   }
 
-  int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) throws NotFoundException {
+  int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -74,6 +79,9 @@ final class UPCEANExtension5Support {
 
     for (int x = 0; x < 5 && rowOffset < end; x++) {
       int bestMatch = UPCEANReader.decodeDigit(row, counters, rowOffset, UPCEANReader.L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -89,12 +97,12 @@ final class UPCEANExtension5Support {
     }
 
     if (resultString.length() != 5) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     int checkDigit = determineCheckDigit(lgPatternFound);
-    if (extensionChecksum(resultString.toString()) != checkDigit) {
-      throw NotFoundException.getNotFoundInstance();
+    if (checkDigit < 0 || extensionChecksum(resultString.toString()) != checkDigit) {
+      return -1;
     }
     
     return rowOffset;
@@ -114,14 +122,13 @@ final class UPCEANExtension5Support {
     return sum % 10;
   }
 
-  private static int determineCheckDigit(int lgPatternFound)
-      throws NotFoundException {
+  private static int determineCheckDigit(int lgPatternFound) {
     for (int d = 0; d < 10; d++) {
       if (lgPatternFound == CHECK_DIGIT_ENCODINGS[d]) {
         return d;
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return -1;
   }
 
   /**
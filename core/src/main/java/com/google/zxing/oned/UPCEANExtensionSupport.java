@@ -16,8 +16,6 @@
 
 package com.google.zxing.oned;
 
-import com.google.zxing.NotFoundException;
-import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.common.BitArray;
 
@@ -28,13 +26,16 @@ final class UPCEANExtensionSupport {
   private final UPCEANExtension2Support twoSupport = new UPCEANExtension2Support();
   private final UPCEANExtension5Support fiveSupport = new UPCEANExtension5Support();
 
-  Result decodeRow(int rowNumber, BitArray row, int rowOffset) throws NotFoundException {
+  /**
+   * @return the extension after the barcode, or null if there isn't one
+   */
+  Result decodeRow(int rowNumber, BitArray row, int rowOffset) {
     int[] extensionStartRange = UPCEANReader.findGuardPattern(row, rowOffset, false, EXTENSION_START_PATTERN);
-    try {
-      return fiveSupport.decodeRow(rowNumber, row, extensionStartRange);
-    } catch (ReaderException ignored) {
-      return twoSupport.decodeRow(rowNumber, row, extensionStartRange);
+    if (extensionStartRange == null) {
+      return null;
     }
+    Result result = fiveSupport.decodeRow(rowNumber, row, extensionStartRange);
+    return result != null ? result : twoSupport.decodeRow(rowNumber, row, extensionStartRange);
   }
 
 }
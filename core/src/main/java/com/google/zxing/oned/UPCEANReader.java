@@ -19,16 +19,16 @@ package com.google.zxing.oned;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.ResultPointCallback;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 
-import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -97,6 +97,7 @@ public abstract class UPCEANReader extends OneDReader {
   private final StringBuilder decodeRowStringBuffer;
   private final UPCEANExtensionSupport extensionReader;
   private final EANManufacturerOrgSupport eanManSupport;
+  private final StartPatternFinder startGuardFinder = new StartGuardFinder();
 
   protected UPCEANReader() {
     decodeRowStringBuffer = new StringBuilder(20);
@@ -105,24 +106,11 @@ public abstract class UPCEANReader extends OneDReader {
   }
 
   static int[] findStartGuardPattern(BitArray row) throws NotFoundException {
-    boolean foundStart = false;
-    int[] startRange = null;
-    int nextStart = 0;
-    int[] counters = new int[START_END_PATTERN.length];
-    while (!foundStart) {
-      Arrays.fill(counters, 0, START_END_PATTERN.length, 0);
-      startRange = findGuardPattern(row, nextStart, false, START_END_PATTERN, counters);
-      int start = startRange[0];
-      nextStart = startRange[1];
-      // Make sure there is a quiet zone at least as big as the start pattern before the barcode.
-      // If this check would run off the left edge of the image, do not accept this barcode,
-      // as it is very likely to be a false positive.
-      int quietStart = start - (nextStart - start);
-      if (quietStart >= 0) {
-        foundStart = row.isRange(quietStart, start, false);
-      }
-    }
-    return startRange;
+    return findStartGuardPattern(new RunLengthRow(row));
+  }
+
+  static int[] findStartGuardPattern(RunLengthRow row) throws NotFoundException {
+    return new StartGuardFinder().find(row);
   }
 
   @Override
@@ -131,6 +119,23 @@ public abstract class UPCEANReader extends OneDReader {
     return decodeRow(rowNumber, row, findStartGuardPattern(row), hints);
   }
 
+  @Override
+  public Result decodeRow(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeRow(rowNumber, row.getRow(), startGuardFinder.find(row), hints);
+  }
+
+  @Override
+  StartPatternFinder getStartPatternFinder() {
+    return startGuardFinder;
+  }
+
+  @Override
+  DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow row, int[] startGuardRange,
+                                 Map<DecodeHintType,?> hints) {
+    return decodeRowOutcome(rowNumber, row.getRow(), startGuardRange, hints);
+  }
+
   /**
    * <p>Like {@link #decodeRow(int, BitArray, java.util.Map)}, but
    * allows caller to inform method about where the UPC/EAN start pattern is
@@ -150,6 +155,16 @@ public abstract class UPCEANReader extends OneDReader {
                           int[] startGuardRange,
                           Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
+    return decodeRowOutcome(rowNumber, row, startGuardRange, hints).getResultOrThrow();
+  }
+
+  /**
+   * Like {@link #decodeRow(int, BitArray, int[], Map)}, but reports failure as an outcome.
+   */
+  DecodeOutcome decodeRowOutcome(int rowNumber,
+                                 BitArray row,
+                                 int[] startGuardRange,
+                                 Map<DecodeHintType,?> hints) {
 
     ResultPointCallback resultPointCallback = hints == null ? null :
         (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
@@ -163,6 +178,9 @@ public abstract class UPCEANReader extends OneDReader {
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
     int endStart = decodeMiddle(row, startGuardRange, result);
+    if (endStart < 0) {
+      return DecodeOutcome.notFound();
+    }
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -171,6 +189,9 @@ public abstract class UPCEANReader extends OneDReader {
     }
 
     int[] endRange = decodeEnd(row, endStart);
+    if (endRange == null) {
+      return DecodeOutcome.notFound();
+    }
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -184,16 +205,16 @@ public abstract class UPCEANReader extends OneDReader {
     int end = endRange[1];
     int quietEnd = end + (end - endRange[0]);
     if (quietEnd >= row.getSize() || !row.isRange(end, quietEnd, false)) {
-      throw NotFoundException.getNotFoundInstance();
+      return DecodeOutcome.notFound();
     }
 
     String resultString = result.toString();
     // UPC/EAN should never be less than 8 chars anyway
     if (resultString.length() < 8) {
-      throw FormatException.getFormatInstance();
+      return DecodeOutcome.formatError();
     }
-    if (!checkChecksum(resultString)) {
-      throw ChecksumException.getChecksumInstance();
+    if (!checkDecodedChecksum(resultString)) {
+      return DecodeOutcome.checksumError();
     }
 
     float left = (float) (startGuardRange[1] + startGuardRange[0]) / 2.0f;
@@ -208,14 +229,12 @@ public abstract class UPCEANReader extends OneDReader {
 
     int extensionLength = 0;
 
-    try {
-      Result extensionResult = extensionReader.decodeRow(rowNumber, row, endRange[1]);
+    Result extensionResult = extensionReader.decodeRow(rowNumber, row, endRange[1]);
+    if (extensionResult != null) {
       decodeResult.putMetadata(ResultMetadataType.UPC_EAN_EXTENSION, extensionResult.getText());
       decodeResult.putAllMetadata(extensionResult.getResultMetadata());
       decodeResult.addResultPoints(extensionResult.getResultPoints());
       extensionLength = extensionResult.getText().length();
-    } catch (ReaderException re) {
-      // continue
     }
 
     int[] allowedExtensions =
@@ -229,7 +248,7 @@ public abstract class UPCEANReader extends OneDReader {
         }
       }
       if (!valid) {
-        throw NotFoundException.getNotFoundInstance();
+        return DecodeOutcome.notFound();
       }
     }
 
@@ -240,7 +259,19 @@ public abstract class UPCEANReader extends OneDReader {
       }
     }
 
-    return decodeResult;
+    return DecodeOutcome.of(decodeResult);
+  }
+
+  /**
+   * @param s digits decoded from the middle of the barcode
+   * @return {@link #checkChecksum(String)}, which can't find a non-digit among them
+   */
+  private boolean checkDecodedChecksum(String s) {
+    try {
+      return checkChecksum(s);
+    } catch (FormatException fe) {
+      return false;
+    }
   }
 
   /**
@@ -285,14 +316,19 @@ public abstract class UPCEANReader extends OneDReader {
     return sum % 10 == 0;
   }
 
-  int[] decodeEnd(BitArray row, int endStart) throws NotFoundException {
+  /**
+   * @param row row of black/white values to search
+   * @param endStart position to start search
+   * @return start/end horizontal offset of end guard pattern, or null if it is not found
+   */
+  int[] decodeEnd(BitArray row, int endStart) {
     return findGuardPattern(row, endStart, false, START_END_PATTERN);
   }
 
   static int[] findGuardPattern(BitArray row,
                                 int rowOffset,
                                 boolean whiteFirst,
-                                int[] pattern) throws NotFoundException {
+                                int[] pattern) {
     return findGuardPattern(row, rowOffset, whiteFirst, pattern, new int[pattern.length]);
   }
 
@@ -304,14 +340,14 @@ public abstract class UPCEANReader extends OneDReader {
    * @param pattern pattern of counts of number of black and white pixels that are being
    * searched for as a pattern
    * @param counters array of counters, as long as pattern, to re-use
-   * @return start/end horizontal offset of guard pattern, as an array of two ints
-   * @throws NotFoundException if pattern is not found
+   * @return start/end horizontal offset of guard pattern, as an array of two ints,
+   *  or null if pattern is not found
    */
   private static int[] findGuardPattern(BitArray row,
                                         int rowOffset,
                                         boolean whiteFirst,
                                         int[] pattern,
-                                        int[] counters) throws NotFoundException {
+                                        int[] counters) {
     int patternLength = pattern.length;
     int width = row.getSize();
     boolean isWhite = whiteFirst;
@@ -338,7 +374,44 @@ public abstract class UPCEANReader extends OneDReader {
         isWhite = !isWhite;
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return null;
+  }
+
+  /**
+   * Finds the start guard pattern, which must be preceded by a quiet zone at least as wide as
+   * the pattern.
+   */
+  static final class StartGuardFinder extends StartPatternFinder {
+
+    private final int[] counters = new int[START_END_PATTERN.length];
+    // Runs up to here are part of a guard pattern already rejected for its quiet zone
+    private int nextRun;
+
+    @Override
+    void reset(RunLengthRow row) {
+      nextRun = 0;
+    }
+
+    @Override
+    int[] match(RunLengthRow row, int run) {
+      // Leave at least one run after the pattern
+      if (run < nextRun || !recordRuns(row, run, counters) ||
+          patternMatchVariance(counters, START_END_PATTERN, MAX_INDIVIDUAL_VARIANCE) >= MAX_AVG_VARIANCE) {
+        return null;
+      }
+      int start = row.getRunStart(run);
+      int end = row.getRunEnd(run + counters.length - 1);
+      // Make sure there is a quiet zone at least as big as the start pattern before the barcode.
+      // If this check would run off the left edge of the image, do not accept this barcode,
+      // as it is very likely to be a false positive. The quiet zone is the white run before.
+      int quietStart = start - (end - start);
+      if (quietStart >= 0 && quietStart >= row.getRunStart(run - 1)) {
+        return new int[]{start, end};
+      }
+      // Carry on with the next black run after this guard pattern
+      nextRun = run + counters.length + 1;
+      return null;
+    }
   }
 
   /**
@@ -350,12 +423,12 @@ public abstract class UPCEANReader extends OneDReader {
    * @param patterns the set of patterns to use to decode -- sometimes different encodings
    * for the digits 0-9 are used, and this indicates the encodings for 0 to 9 that should
    * be used
-   * @return horizontal offset of first pixel beyond the decoded digit
-   * @throws NotFoundException if digit cannot be decoded
+   * @return index of the best matching pattern, or -1 if digit cannot be decoded
    */
-  static int decodeDigit(BitArray row, int[] counters, int rowOffset, int[][] patterns)
-      throws NotFoundException {
-    recordPattern(row, rowOffset, counters);
+  static int decodeDigit(BitArray row, int[] counters, int rowOffset, int[][] patterns) {
+    if (!tryRecordPattern(row, rowOffset, counters)) {
+      return -1;
+    }
     float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     int max = patterns.length;
@@ -367,11 +440,7 @@ public abstract class UPCEANReader extends OneDReader {
         bestMatch = i;
       }
     }
-    if (bestMatch >= 0) {
-      return bestMatch;
-    } else {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return bestMatch;
   }
 
   /**
@@ -388,11 +457,11 @@ public abstract class UPCEANReader extends OneDReader {
    * @param row row of black/white values to search
    * @param startRange start/end offset of start guard pattern
    * @param resultString {@link StringBuilder} to append decoded chars to
-   * @return horizontal offset of first pixel after the "middle" that was decoded
-   * @throws NotFoundException if decoding could not complete successfully
+   * @return horizontal offset of first pixel after the "middle" that was decoded,
+   *  or -1 if decoding could not complete successfully
    */
   protected abstract int decodeMiddle(BitArray row,
                                       int[] startRange,
-                                      StringBuilder resultString) throws NotFoundException;
+                                      StringBuilder resultString);
 
 }
@@ -18,7 +18,6 @@ package com.google.zxing.oned;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.common.BitArray;
 
 /**
@@ -78,8 +77,7 @@ public final class UPCEReader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder result)
-      throws NotFoundException {
+  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder result) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -92,6 +90,9 @@ public final class UPCEReader extends UPCEANReader {
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
       int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       result.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -101,13 +102,11 @@ public final class UPCEReader extends UPCEANReader {
       }
     }
 
-    determineNumSysAndCheckDigit(result, lgPatternFound);
-
-    return rowOffset;
+    return determineNumSysAndCheckDigit(result, lgPatternFound) ? rowOffset : -1;
   }
 
   @Override
-  protected int[] decodeEnd(BitArray row, int endStart) throws NotFoundException {
+  protected int[] decodeEnd(BitArray row, int endStart) {
     return findGuardPattern(row, endStart, true, MIDDLE_END_PATTERN);
   }
 
@@ -116,19 +115,18 @@ public final class UPCEReader extends UPCEANReader {
     return super.checkChecksum(convertUPCEtoUPCA(s));
   }
 
-  private static void determineNumSysAndCheckDigit(StringBuilder resultString, int lgPatternFound)
-      throws NotFoundException {
+  private static boolean determineNumSysAndCheckDigit(StringBuilder resultString, int lgPatternFound) {
 
     for (int numSys = 0; numSys <= 1; numSys++) {
       for (int d = 0; d < 10; d++) {
         if (lgPatternFound == NUMSYS_AND_CHECK_DIGIT_PATTERNS[numSys][d]) {
           resultString.insert(0, (char) ('0' + numSys));
           resultString.append((char) ('0' + d));
-          return;
+          return true;
         }
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return false;
   }
 
   @Override
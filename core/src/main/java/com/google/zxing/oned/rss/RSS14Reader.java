@@ -18,11 +18,13 @@ package com.google.zxing.oned.rss;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Result;
 import com.google.zxing.ResultPoint;
 import com.google.zxing.ResultPointCallback;
 import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
 import com.google.zxing.common.detector.MathUtils;
 
 import java.util.ArrayList;
@@ -66,6 +68,23 @@ public final class RSS14Reader extends AbstractRSSReader {
   public Result decodeRow(int rowNumber,
                           BitArray row,
                           Map<DecodeHintType,?> hints) throws NotFoundException {
+    Result result = decodeRowOrNull(rowNumber, row, hints);
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  @Override
+  public DecodeOutcome decodeRowOutcome(int rowNumber, RunLengthRow row, Map<DecodeHintType,?> hints) {
+    Result result = decodeRowOrNull(rowNumber, row.getRow(), hints);
+    return result == null ? DecodeOutcome.notFound() : DecodeOutcome.of(result);
+  }
+
+  /**
+   * @return the barcode, once both its pairs have been seen in enough rows, or null until then
+   */
+  private Result decodeRowOrNull(int rowNumber, BitArray row, Map<DecodeHintType,?> hints) {
     Pair leftPair = decodePair(row, false, rowNumber, hints);
     addOrTally(possibleLeftPairs, leftPair);
     row.reverse();
@@ -83,7 +102,7 @@ public final class RSS14Reader extends AbstractRSSReader {
         }
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
   private static void addOrTally(Collection<Pair> possiblePairs, Pair pair) {
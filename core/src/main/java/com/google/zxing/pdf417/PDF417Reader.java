@@ -20,9 +20,12 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Reader;
+import com.google.zxing.OutcomeReader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.RegionsOfInterest;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
@@ -41,7 +44,7 @@ import java.util.Map;
  *
  * @author Guenther Grau
  */
-public final class PDF417Reader implements Reader, MultipleBarcodeReader {
+public final class PDF417Reader implements OutcomeReader, MultipleBarcodeReader {
 
   /**
    * Locates and decodes a PDF417 code in an image.
@@ -58,11 +61,29 @@ public final class PDF417Reader implements Reader, MultipleBarcodeReader {
   @Override
   public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException, FormatException,
       ChecksumException {
-    Result[] result = decode(image, hints, false);
-    if (result == null || result.length == 0 || result[0] == null) {
-      throw NotFoundException.getNotFoundInstance();
+    return decodeOutcome(image, hints).getResultOrThrow();
+  }
+
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it. An image
+   * without start and stop patterns fails without an exception; failures after that, in decoding
+   * the rows between them, are caught here.
+   */
+  @Override
+  public DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+    Result[] result;
+    try {
+      result = decode(image, hints, false);
+    } catch (ReaderException re) {
+      return DecodeOutcome.of(re);
+    }
+    if (result.length == 0 || result[0] == null) {
+      return DecodeOutcome.notFound();
     }
-    return result[0];
+    return DecodeOutcome.of(result[0]);
   }
 
   @Override
@@ -17,6 +17,7 @@
 package com.google.zxing.pdf417.detector;
 
 import com.google.zxing.BinaryBitmap;
+import com.google.zxing.Deadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
@@ -77,12 +78,13 @@ public final class Detector {
     //boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
 
     BitMatrix bitMatrix = image.getBlackMatrix();
+    Deadline deadline = Deadline.fromHints(hints);
 
-    List<ResultPoint[]> barcodeCoordinates = detect(multiple, bitMatrix);
-    if (barcodeCoordinates.isEmpty()) {
+    List<ResultPoint[]> barcodeCoordinates = detect(multiple, bitMatrix, deadline);
+    if (barcodeCoordinates.isEmpty() && !deadline.isExpired()) {
       bitMatrix = bitMatrix.clone();
       bitMatrix.rotate180();
-      barcodeCoordinates = detect(multiple, bitMatrix);
+      barcodeCoordinates = detect(multiple, bitMatrix, deadline);
     }
     return new PDF417DetectorResult(bitMatrix, barcodeCoordinates);
   }
@@ -92,14 +94,15 @@ public final class Detector {
    * @param multiple if true, then the image is searched for multiple codes. If false, then at most one code will
    * be found and returned
    * @param bitMatrix bit matrix to detect barcodes in
+   * @param deadline when to stop searching, returning only the barcodes found so far
    * @return List of ResultPoint arrays containing the coordinates of found barcodes
    */
-  private static List<ResultPoint[]> detect(boolean multiple, BitMatrix bitMatrix) {
+  private static List<ResultPoint[]> detect(boolean multiple, BitMatrix bitMatrix, Deadline deadline) {
     List<ResultPoint[]> barcodeCoordinates = new ArrayList<>();
     int row = 0;
     int column = 0;
     boolean foundBarcodeInRow = false;
-    while (row < bitMatrix.getHeight()) {
+    while (row < bitMatrix.getHeight() && !deadline.isExpired()) {
       ResultPoint[] vertices = findVertices(bitMatrix, row, column);
 
       if (vertices[0] == null && vertices[3] == null) {
@@ -20,9 +20,12 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
-import com.google.zxing.Reader;
+import com.google.zxing.OutcomeReader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.RegionsOfInterest;
 import com.google.zxing.Result;
 import com.google.zxing.ResultMetadataType;
 import com.google.zxing.ResultPoint;
@@ -41,7 +44,7 @@ import java.util.Map;
  *
  * @author Sean Owen
  */
-public class QRCodeReader implements Reader {
+public class QRCodeReader implements OutcomeReader {
 
   private static final ResultPoint[] NO_POINTS = new ResultPoint[0];
 
@@ -67,17 +70,44 @@ public class QRCodeReader implements Reader {
   @Override
   public final Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
       throws NotFoundException, ChecksumException, FormatException {
-    DecoderResult decoderResult;
-    ResultPoint[] points;
-    if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
-      BitMatrix bits = extractPureBits(image.getBlackMatrix());
-      decoderResult = decoder.decode(bits, hints);
-      points = NO_POINTS;
-    } else {
-      DetectorResult detectorResult = new Detector(image.getBlackMatrix()).detect(hints);
-      decoderResult = decoder.decode(detectorResult.getBits(), hints);
-      points = detectorResult.getPoints();
+    return decodeOutcome(image, hints).getResultOrThrow();
+  }
+
+  /**
+   * Like {@link #decode(BinaryBitmap, Map)}, but returns failure rather than throwing it. An image
+   * without finder patterns, the usual case, fails without an exception; failures after that,
+   * in sampling or error correction, are caught here.
+   */
+  @Override
+  public final DecodeOutcome decodeOutcome(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    if (RegionsOfInterest.isSet(hints)) {
+      return RegionsOfInterest.decode(this, image, hints);
+    }
+    try {
+      DecoderResult decoderResult;
+      ResultPoint[] points;
+      if (hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE)) {
+        BitMatrix bits = extractPureBits(image.getBlackMatrix());
+        if (bits == null) {
+          return DecodeOutcome.notFound();
+        }
+        decoderResult = decoder.decode(bits, hints);
+        points = NO_POINTS;
+      } else {
+        DetectorResult detectorResult = new Detector(image.getBlackMatrix()).detectIfPresent(hints);
+        if (detectorResult == null) {
+          return DecodeOutcome.notFound();
+        }
+        decoderResult = decoder.decode(detectorResult.getBits(), hints);
+        points = detectorResult.getPoints();
+      }
+      return DecodeOutcome.of(toResult(decoderResult, points));
+    } catch (ReaderException re) {
+      return DecodeOutcome.of(re);
     }
+  }
+
+  private static Result toResult(DecoderResult decoderResult, ResultPoint[] points) {
 
     // If the code was mirrored: swap the bottom-left and the top-right points.
     if (decoderResult.getOther() instanceof QRCodeDecoderMetaData) {
@@ -113,17 +143,21 @@ public class QRCodeReader implements Reader {
    * around it. This is a specialized method that works exceptionally fast in this special
    * case.
    *
+   * @return the bits of the code, or null if the image doesn't look like one
    * @see com.google.zxing.datamatrix.DataMatrixReader#extractPureBits(BitMatrix)
    */
-  private static BitMatrix extractPureBits(BitMatrix image) throws NotFoundException {
+  private static BitMatrix extractPureBits(BitMatrix image) {
 
     int[] leftTopBlack = image.getTopLeftOnBit();
     int[] rightBottomBlack = image.getBottomRightOnBit();
     if (leftTopBlack == null || rightBottomBlack == null) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     float moduleSize = moduleSize(leftTopBlack, image);
+    if (moduleSize < 0.0f) {
+      return null;
+    }
 
     int top = leftTopBlack[1];
     int bottom = rightBottomBlack[1];
@@ -132,7 +166,7 @@ public class QRCodeReader implements Reader {
     
     // Sanity check!
     if (left >= right || top >= bottom) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     if (bottom - top != right - left) {
@@ -141,18 +175,18 @@ public class QRCodeReader implements Reader {
       right = left + (bottom - top);
       if (right >= image.getWidth()) {
         // Abort if that would not make sense -- off image
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
     }
 
     int matrixWidth = Math.round((right - left + 1) / moduleSize);
     int matrixHeight = Math.round((bottom - top + 1) / moduleSize);
     if (matrixWidth <= 0 || matrixHeight <= 0) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
     if (matrixHeight != matrixWidth) {
       // Only possibly decode square regions
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // Push in the "border" by half the module width so that we start
@@ -169,7 +203,7 @@ public class QRCodeReader implements Reader {
     if (nudgedTooFarRight > 0) {
       if (nudgedTooFarRight > nudge) {
         // Neither way fits; abort
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
       left -= nudgedTooFarRight;
     }
@@ -178,7 +212,7 @@ public class QRCodeReader implements Reader {
     if (nudgedTooFarDown > 0) {
       if (nudgedTooFarDown > nudge) {
         // Neither way fits; abort
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
       top -= nudgedTooFarDown;
     }
@@ -196,7 +230,10 @@ public class QRCodeReader implements Reader {
     return bits;
   }
 
-  private static float moduleSize(int[] leftTopBlack, BitMatrix image) throws NotFoundException {
+  /**
+   * @return size of a module of the finder pattern at the top left, or -1 if it runs off the image
+   */
+  private static float moduleSize(int[] leftTopBlack, BitMatrix image) {
     int height = image.getHeight();
     int width = image.getWidth();
     int x = leftTopBlack[0];
@@ -214,7 +251,7 @@ public class QRCodeReader implements Reader {
       y++;
     }
     if (x == width || y == height) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1.0f;
     }
     return (x - leftTopBlack[0]) / 7.0f;
   }
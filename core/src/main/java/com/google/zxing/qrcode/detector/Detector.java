@@ -40,9 +40,11 @@ public class Detector {
 
   private final BitMatrix image;
   private ResultPointCallback resultPointCallback;
+  private GridSampler gridSampler;
 
   public Detector(BitMatrix image) {
     this.image = image;
+    gridSampler = GridSampler.getInstance();
   }
 
   protected final BitMatrix getImage() {
@@ -53,6 +55,18 @@ public class Detector {
     return resultPointCallback;
   }
 
+  /**
+   * Applies the hints which affect work after finder patterns are found, in
+   * {@link #processFinderPatternInfo(FinderPatternInfo)}.
+   *
+   * @param hints optional hints to detector
+   */
+  protected final void setHints(Map<DecodeHintType,?> hints) {
+    resultPointCallback = hints == null ? null :
+        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    gridSampler = GridSampler.fromHints(hints);
+  }
+
   /**
    * <p>Detects a QR Code in an image.</p>
    *
@@ -73,12 +87,32 @@ public class Detector {
    * @throws FormatException if a QR Code cannot be decoded
    */
   public final DetectorResult detect(Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
+    DetectorResult detectorResult = detectIfPresent(hints);
+    if (detectorResult == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return detectorResult;
+  }
 
-    resultPointCallback = hints == null ? null :
-        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+  /**
+   * <p>Like {@link #detect(Map)}, but returns null rather than throwing when the image doesn't
+   * have three finder patterns, by far the most common reason not to find a QR Code.</p>
+   *
+   * @param hints optional hints to detector
+   * @return {@link DetectorResult} encapsulating results of detecting a QR Code, or null
+   * @throws NotFoundException if finder patterns are found, but no QR Code around them
+   * @throws FormatException if a QR Code cannot be decoded
+   */
+  public final DetectorResult detectIfPresent(Map<DecodeHintType,?> hints)
+      throws NotFoundException, FormatException {
+
+    setHints(hints);
 
     FinderPatternFinder finder = new FinderPatternFinder(image, resultPointCallback);
-    FinderPatternInfo info = finder.find(hints);
+    FinderPatternInfo info = finder.findIfPresent(hints);
+    if (info == null) {
+      return null;
+    }
 
     return processFinderPatternInfo(info);
   }
@@ -130,7 +164,7 @@ public class Detector {
     PerspectiveTransform transform =
         createTransform(topLeft, topRight, bottomLeft, alignmentPattern, dimension);
 
-    BitMatrix bits = sampleGrid(image, transform, dimension);
+    BitMatrix bits = gridSampler.sampleGrid(image, dimension, dimension, transform);
 
     ResultPoint[] points;
     if (alignmentPattern == null) {
@@ -183,14 +217,6 @@ public class Detector {
         bottomLeft.getY());
   }
 
-  private static BitMatrix sampleGrid(BitMatrix image,
-                                      PerspectiveTransform transform,
-                                      int dimension) throws NotFoundException {
-
-    GridSampler sampler = GridSampler.getInstance();
-    return sampler.sampleGrid(image, dimension, dimension, transform);
-  }
-
   /**
    * <p>Computes the dimension (number of modules on a size) of the QR Code based on the position
    * of the finder patterns and estimated module size.</p>
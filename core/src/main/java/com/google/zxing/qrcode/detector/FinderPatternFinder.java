@@ -16,6 +16,7 @@
 
 package com.google.zxing.qrcode.detector;
 
+import com.google.zxing.Deadline;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.ResultPoint;
@@ -74,6 +75,18 @@ public class FinderPatternFinder {
   }
 
   final FinderPatternInfo find(Map<DecodeHintType,?> hints) throws NotFoundException {
+    FinderPatternInfo info = findIfPresent(hints);
+    if (info == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return info;
+  }
+
+  /**
+   * Like {@link #find(Map)}, but returns null when the image doesn't have three finder patterns,
+   * as most images without a QR Code don't.
+   */
+  final FinderPatternInfo findIfPresent(Map<DecodeHintType,?> hints) {
     boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
     boolean pureBarcode = hints != null && hints.containsKey(DecodeHintType.PURE_BARCODE);
     int maxI = image.getHeight();
@@ -90,9 +103,11 @@ public class FinderPatternFinder {
       iSkip = MIN_SKIP;
     }
 
+    // Out of time, settle for the best of the patterns found so far
+    Deadline deadline = Deadline.fromHints(hints);
     boolean done = false;
     int[] stateCount = new int[5];
-    for (int i = iSkip - 1; i < maxI && !done; i += iSkip) {
+    for (int i = iSkip - 1; i < maxI && !done && !deadline.isExpired(); i += iSkip) {
       // Get a row of black/white values
       stateCount[0] = 0;
       stateCount[1] = 0;
@@ -178,6 +193,9 @@ public class FinderPatternFinder {
     }
 
     FinderPattern[] patternInfo = selectBestPatterns();
+    if (patternInfo == null) {
+      return null;
+    }
     ResultPoint.orderBestPatterns(patternInfo);
 
     return new FinderPatternInfo(patternInfo);
@@ -582,15 +600,15 @@ public class FinderPatternFinder {
   /**
    * @return the 3 best {@link FinderPattern}s from our list of candidates. The "best" are
    *         those that have been detected at least {@link #CENTER_QUORUM} times, and whose module
-   *         size differs from the average among those patterns the least
-   * @throws NotFoundException if 3 such finder patterns do not exist
+   *         size differs from the average among those patterns the least, or null if 3 such
+   *         finder patterns do not exist
    */
-  private FinderPattern[] selectBestPatterns() throws NotFoundException {
+  private FinderPattern[] selectBestPatterns() {
 
     int startSize = possibleCenters.size();
     if (startSize < 3) {
       // Couldn't find enough finder patterns
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // Filter outlier possibilities whose module size is too different
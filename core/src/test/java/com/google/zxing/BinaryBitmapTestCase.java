@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.common.RunLengthRow;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link BinaryBitmap}.
+ */
+public final class BinaryBitmapTestCase extends Assert {
+
+  private static final int WIDTH = 90;
+  private static final int HEIGHT = 500;
+
+  @Test
+  public void testBlackMatrixRows() throws NotFoundException {
+    LuminanceSource source = checkerboard();
+    BitMatrix expected = new BinaryBitmap(new HybridBinarizer(source)).getBlackMatrix();
+
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+    BitMatrix rows = bitmap.getBlackMatrixRows(300, 10);
+    assertRowsEqual(expected, rows, 300, 310);
+    // Rows are filled in as needed, and the full matrix reuses them
+    assertSame(rows, bitmap.getBlackMatrixRows(450, 50));
+    assertRowsEqual(expected, rows, 450, HEIGHT);
+    assertSame(rows, bitmap.getBlackMatrix());
+    assertEquals(expected, rows);
+  }
+
+  @Test
+  public void testBlackMatrixRowsAfterFullMatrix() throws NotFoundException {
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(checkerboard()));
+    BitMatrix full = bitmap.getBlackMatrix();
+    assertSame(full, bitmap.getBlackMatrixRows(0, 1));
+  }
+
+  @Test
+  public void testCachedBlackRow() throws NotFoundException {
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(checkerboard()));
+    BitArray row = bitmap.getCachedBlackRow(17, false);
+    assertEquals(bitmap.getBlackRow(17, null), row);
+    assertSame(row, bitmap.getCachedBlackRow(17, false));
+    BitArray reversed = bitmap.getCachedBlackRow(17, true);
+    assertSame(reversed, bitmap.getCachedBlackRow(17, true));
+    for (int x = 0; x < WIDTH; x++) {
+      assertEquals(row.get(x), reversed.get(WIDTH - 1 - x));
+    }
+  }
+
+  @Test
+  public void testCachedBlackRuns() throws NotFoundException {
+    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(checkerboard()));
+    RunLengthRow runs = bitmap.getCachedBlackRuns(17, false);
+    assertSame(runs, bitmap.getCachedBlackRuns(17, false));
+    assertSame(bitmap.getCachedBlackRow(17, false), runs.getRow());
+    BitArray row = runs.getRow();
+    for (int run = 0; run < runs.getNumRuns(); run++) {
+      for (int x = runs.getRunStart(run); x < runs.getRunEnd(run); x++) {
+        assertEquals(row.get(x), runs.isBlack(run));
+      }
+    }
+    assertEquals(WIDTH, runs.getRunEnd(runs.getNumRuns() - 1));
+    RunLengthRow reversed = bitmap.getCachedBlackRuns(17, true);
+    assertSame(bitmap.getCachedBlackRow(17, true), reversed.getRow());
+    assertEquals(runs.isBlack(0), reversed.isBlack(reversed.getNumRuns() - 1));
+  }
+
+  private static void assertRowsEqual(BitMatrix expected, BitMatrix actual, int fromY, int toY) {
+    for (int y = fromY; y < toY; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        assertEquals("(" + x + "," + y + ")", expected.get(x, y), actual.get(x, y));
+      }
+    }
+  }
+
+  private static LuminanceSource checkerboard() {
+    byte[] luminances = new byte[WIDTH * HEIGHT];
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        luminances[y * WIDTH + x] = (byte) (((x / 5 + y / 7) & 0x01) == 0 ? 20 : 220);
+      }
+    }
+    return new PlanarYUVLuminanceSource(luminances, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false);
+  }
+
+}
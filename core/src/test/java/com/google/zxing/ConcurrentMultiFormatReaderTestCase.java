@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BarcodeImageBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests {@link ConcurrentMultiFormatReader}.
+ */
+public final class ConcurrentMultiFormatReaderTestCase extends Assert {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(6);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testDecode() throws WriterException, ReaderException {
+    Reader reader = new ConcurrentMultiFormatReader(executor);
+    BarcodeFormat[] formats = {
+        BarcodeFormat.QR_CODE, BarcodeFormat.AZTEC, BarcodeFormat.PDF_417, BarcodeFormat.CODE_128,
+    };
+    for (BarcodeFormat format : formats) {
+      Result result = reader.decode(BarcodeImageBuilder.encode("5901234123457", format, 300, 300));
+      assertEquals(format, result.getBarcodeFormat());
+      assertEquals("5901234123457", result.getText());
+    }
+  }
+
+  @Test
+  public void testNotFound() {
+    BinaryBitmap image = new BarcodeImageBuilder(100, 100).toBinaryBitmap();
+    assertSame(DecodeOutcome.notFound(), new ConcurrentMultiFormatReader(executor).decodeOutcome(image, null));
+  }
+
+}
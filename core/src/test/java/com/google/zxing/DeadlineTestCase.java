@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BarcodeImageBuilder;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link Deadline}.
+ */
+public final class DeadlineTestCase extends Assert {
+
+  @Test
+  public void testExpiry() {
+    assertFalse(Deadline.fromHints(null).isExpired());
+    assertFalse(Deadline.after(1, TimeUnit.HOURS).isExpired());
+    assertTrue(Deadline.after(0, TimeUnit.NANOSECONDS).isExpired());
+    Deadline deadline = Deadline.cancellable();
+    assertFalse(deadline.isExpired());
+    deadline.cancel();
+    assertTrue(deadline.isExpired());
+
+    Deadline parent = Deadline.cancellable();
+    Deadline child = parent.newCancellable();
+    child.cancel();
+    assertTrue(child.isExpired());
+    assertFalse(parent.isExpired());
+    child = parent.newCancellable();
+    parent.cancel();
+    assertTrue(child.isExpired());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCancelNone() {
+    Deadline.fromHints(null).cancel();
+  }
+
+  @Test
+  public void testDecode() throws WriterException {
+    for (BarcodeFormat format : new BarcodeFormat[] {BarcodeFormat.QR_CODE, BarcodeFormat.CODE_128}) {
+      BinaryBitmap image = BarcodeImageBuilder.encode("12345678", format, 200, 200);
+      Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+      hints.put(DecodeHintType.DEADLINE, Deadline.after(1, TimeUnit.HOURS));
+      assertTrue(new MultiFormatReader().decodeOutcome(image, hints).isSuccess());
+      Deadline cancelled = Deadline.cancellable();
+      cancelled.cancel();
+      hints.put(DecodeHintType.DEADLINE, cancelled);
+      assertSame(DecodeOutcome.notFound(), new MultiFormatReader().decodeOutcome(image, hints));
+      try {
+        new GenericMultipleBarcodeReader(new MultiFormatReader()).decodeMultiple(image, hints);
+        fail();
+      } catch (NotFoundException nfe) {
+        // good
+      }
+    }
+  }
+
+}
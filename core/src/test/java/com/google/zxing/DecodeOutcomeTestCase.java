@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.aztec.AztecReader;
+import com.google.zxing.common.BarcodeImageBuilder;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.maxicode.MaxiCodeReader;
+import com.google.zxing.pdf417.PDF417Reader;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tests {@link DecodeOutcome}.
+ */
+public final class DecodeOutcomeTestCase extends Assert {
+
+  @Test
+  public void testFailures() {
+    assertSame(DecodeOutcome.notFound(), DecodeOutcome.of(NotFoundException.getNotFoundInstance()));
+    assertSame(DecodeOutcome.formatError(), DecodeOutcome.of(FormatException.getFormatInstance()));
+    assertSame(DecodeOutcome.checksumError(), DecodeOutcome.of(ChecksumException.getChecksumInstance()));
+    assertFalse(DecodeOutcome.notFound().isSuccess());
+    assertNull(DecodeOutcome.notFound().getResult());
+    assertEquals(DecodeOutcome.Failure.CHECKSUM, DecodeOutcome.checksumError().getFailure());
+  }
+
+  @Test(expected = FormatException.class)
+  public void testGetResultOrThrow() throws ReaderException {
+    DecodeOutcome.formatError().getResultOrThrow();
+  }
+
+  @Test
+  public void testSuccess() throws ReaderException {
+    Result result = new Result("text", null, null, BarcodeFormat.QR_CODE);
+    DecodeOutcome outcome = DecodeOutcome.of(result);
+    assertTrue(outcome.isSuccess());
+    assertNull(outcome.getFailure());
+    assertSame(result, outcome.getResultOrThrow());
+  }
+
+  @Test
+  public void testFurthest() {
+    DecodeOutcome success = DecodeOutcome.of(new Result("text", null, null, BarcodeFormat.QR_CODE));
+    assertSame(DecodeOutcome.checksumError(),
+               DecodeOutcome.furthest(DecodeOutcome.notFound(), DecodeOutcome.checksumError()));
+    assertSame(DecodeOutcome.checksumError(),
+               DecodeOutcome.furthest(DecodeOutcome.checksumError(), DecodeOutcome.formatError()));
+    assertSame(success, DecodeOutcome.furthest(DecodeOutcome.checksumError(), success));
+    assertSame(success, DecodeOutcome.furthest(success, DecodeOutcome.notFound()));
+  }
+
+  @Test
+  public void testDecode() {
+    Reader throwingReader = new Reader() {
+      @Override
+      public Result decode(BinaryBitmap image) throws ChecksumException {
+        throw ChecksumException.getChecksumInstance();
+      }
+      @Override
+      public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints) throws ChecksumException {
+        throw ChecksumException.getChecksumInstance();
+      }
+      @Override
+      public void reset() {
+        // do nothing
+      }
+    };
+    BinaryBitmap image = blank();
+    assertSame(DecodeOutcome.checksumError(), DecodeOutcome.decode(throwingReader, image, null));
+    // A blank image has nothing to find
+    assertSame(DecodeOutcome.notFound(), DecodeOutcome.decode(new MultiFormatReader(), image, null));
+  }
+
+  @Test
+  public void testFurthestFailureReturned() throws WriterException {
+    // The last character isn't the check digit, which would be X
+    BinaryBitmap image = BarcodeImageBuilder.encode("ABC1", BarcodeFormat.CODE_39, 200, 50);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Arrays.asList(BarcodeFormat.CODE_39, BarcodeFormat.QR_CODE));
+    hints.put(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT, Boolean.TRUE);
+    // Every reader fails, but the Code 39 reader gets as far as the checksum
+    assertSame(DecodeOutcome.checksumError(), new MultiFormatReader().decodeOutcome(image, hints));
+  }
+
+  @Test
+  public void testMatrixReadersReportOutcome() throws WriterException {
+    BinaryBitmap image = blank();
+    OutcomeReader[] readers = {
+        new QRCodeReader(), new DataMatrixReader(), new AztecReader(), new PDF417Reader(), new MaxiCodeReader()
+    };
+    for (OutcomeReader reader : readers) {
+      assertSame(DecodeOutcome.notFound(), reader.decodeOutcome(image, null));
+    }
+    BinaryBitmap qrCode = BarcodeImageBuilder.encode("outcome", BarcodeFormat.QR_CODE, 200, 200);
+    assertEquals("outcome", new QRCodeReader().decodeOutcome(qrCode, null).getResult().getText());
+  }
+
+  private static BinaryBitmap blank() {
+    byte[] luminances = new byte[100 * 100];
+    return new BinaryBitmap(new HybridBinarizer(
+        new PlanarYUVLuminanceSource(luminances, 100, 100, 0, 0, 100, 100, false)));
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.aztec.AztecReader;
+import com.google.zxing.common.BarcodeImageBuilder;
+import com.google.zxing.oned.MultiFormatOneDReader;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link ReaderStatistics} and adaptive ordering in {@link MultiFormatReader}.
+ */
+public final class ReaderStatisticsTestCase extends Assert {
+
+  @Test
+  public void testDefaultOrder() {
+    Reader[] readers = MultiFormatReader.createReaders(null);
+    assertArrayEquals(readers, new ReaderStatistics().order(readers));
+  }
+
+  @Test
+  public void testAdaptiveOrder() throws WriterException, NotFoundException {
+    BinaryBitmap image = BarcodeImageBuilder.encode("adaptive", BarcodeFormat.QR_CODE, 200, 200);
+    ReaderStatistics statistics = new ReaderStatistics();
+    MultiFormatReader reader = new MultiFormatReader();
+    reader.setStatistics(statistics);
+    reader.setHints(null);
+    for (int i = 0; i < 70; i++) {
+      assertEquals("adaptive", reader.decodeWithState(image).getText());
+    }
+    assertEquals(70, statistics.getDecodes());
+    assertEquals(70, statistics.getHits(BarcodeFormat.QR_CODE));
+    assertEquals(70, statistics.getSuccesses(QRCodeReader.class));
+    assertEquals(0, statistics.getHits(BarcodeFormat.CODE_128));
+    // The 1D reader ran first until readers were reordered after 64 decodes, then QR Code went first
+    assertEquals(64, statistics.getAttempts(MultiFormatOneDReader.class));
+    assertEquals(0, statistics.getSuccesses(MultiFormatOneDReader.class));
+    assertEquals(0, statistics.getAttempts(AztecReader.class));
+    assertTrue(statistics.getNanos(QRCodeReader.class) > 0);
+
+    // What was learned carries over to another reader sharing the statistics
+    MultiFormatReader other = new MultiFormatReader();
+    other.setStatistics(statistics);
+    other.decode(image);
+    assertEquals(64, statistics.getAttempts(MultiFormatOneDReader.class));
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BarcodeImageBuilder;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests {@link RegionsOfInterest}.
+ */
+public final class RegionsOfInterestTestCase extends Assert {
+
+  private static final int SIZE = 200;
+  private static final int OFFSET = 300;
+
+  @Test
+  public void testGetRegions() {
+    BinaryBitmap image = new BarcodeImageBuilder(100, 100).toBinaryBitmap();
+    assertNull(RegionsOfInterest.getRegions(image, null));
+    List<int[]> regions = RegionsOfInterest.getRegions(image, hints(
+        new int[] {-10, 20, 50, 200}, new int[] {100, 0, 10, 10}, new int[] {90, 90, 5, 5}));
+    assertEquals(2, regions.size());
+    assertArrayEquals(new int[] {0, 20, 40, 80}, regions.get(0));
+    assertArrayEquals(new int[] {90, 90, 5, 5}, regions.get(1));
+    // Sizes running past the largest int are clipped too
+    regions = RegionsOfInterest.getRegions(image, hints(new int[] {50, 60, Integer.MAX_VALUE, Integer.MAX_VALUE}));
+    assertEquals(1, regions.size());
+    assertArrayEquals(new int[] {50, 60, 50, 40}, regions.get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testShortRegion() {
+    BinaryBitmap image = new BarcodeImageBuilder(100, 100).toBinaryBitmap();
+    RegionsOfInterest.getRegions(image, hints(new int[] {0, 0, 10}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeRegion() {
+    BinaryBitmap image = new BarcodeImageBuilder(100, 100).toBinaryBitmap();
+    RegionsOfInterest.getRegions(image, hints(new int[] {50, 50, -10, 10}));
+  }
+
+  @Test
+  public void testResultPointCallback() throws WriterException, ReaderException {
+    BinaryBitmap image = encodeAt("12345678", BarcodeFormat.QR_CODE);
+    final List<ResultPoint> found = new ArrayList<>();
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.putAll(hints(new int[] {OFFSET - 10, OFFSET - 10, SIZE + 20, SIZE + 20}));
+    hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, new ResultPointCallback() {
+      @Override
+      public void foundPossibleResultPoint(ResultPoint point) {
+        found.add(point);
+      }
+    });
+    new MultiFormatReader().decode(image, hints);
+    assertFalse(found.isEmpty());
+    // Points are in terms of the whole image, so around the barcode
+    for (ResultPoint point : found) {
+      assertTrue(point.getX() >= OFFSET && point.getX() <= OFFSET + SIZE);
+      assertTrue(point.getY() >= OFFSET && point.getY() <= OFFSET + SIZE);
+    }
+  }
+
+  @Test
+  public void testCropSharesMatrix() throws WriterException, NotFoundException {
+    BitMatrix expected = encodeAt("12345678", BarcodeFormat.QR_CODE).getBlackMatrix();
+    BinaryBitmap image = encodeAt("12345678", BarcodeFormat.QR_CODE);
+    int[] region = {OFFSET - 10, OFFSET - 20, SIZE + 20, SIZE + 40};
+    BitMatrix cropped = RegionsOfInterest.crop(image, region).getBlackMatrix();
+    assertEquals(region[2], cropped.getWidth());
+    assertEquals(region[3], cropped.getHeight());
+    for (int y = 0; y < region[3]; y++) {
+      for (int x = 0; x < region[2]; x++) {
+        assertEquals(expected.get(region[0] + x, region[1] + y), cropped.get(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testDecode() throws WriterException, ReaderException {
+    for (BarcodeFormat format : new BarcodeFormat[] {BarcodeFormat.QR_CODE, BarcodeFormat.CODE_128}) {
+      BinaryBitmap image = encodeAt("12345678", format);
+      Map<DecodeHintType,?> hints = hints(new int[] {0, 0, OFFSET, OFFSET},
+                                          new int[] {OFFSET - 10, OFFSET - 10, SIZE + 20, SIZE + 20});
+      Result result = new MultiFormatReader().decode(image, hints);
+      assertEquals("12345678", result.getText());
+      // Points are in terms of the whole image, so around the barcode
+      for (ResultPoint point : result.getResultPoints()) {
+        assertTrue(point.getX() >= OFFSET && point.getX() <= OFFSET + SIZE);
+        assertTrue(point.getY() >= OFFSET && point.getY() <= OFFSET + SIZE);
+      }
+      hints = hints(new int[] {0, 0, OFFSET, OFFSET});
+      assertSame(DecodeOutcome.notFound(), new MultiFormatReader().decodeOutcome(image, hints));
+    }
+  }
+
+  @Test
+  public void testReaders() throws WriterException, ReaderException {
+    BinaryBitmap image = encodeAt("12345678", BarcodeFormat.QR_CODE);
+    Map<DecodeHintType,?> hints = hints(new int[] {OFFSET, OFFSET, SIZE, SIZE});
+    Result result = new QRCodeReader().decode(image, hints);
+    assertPointsNear(new QRCodeReader().decode(image).getResultPoints(), result.getResultPoints());
+    try {
+      new QRCodeReader().decode(image, hints(new int[] {0, 0, SIZE, SIZE}));
+      fail();
+    } catch (NotFoundException nfe) {
+      // good
+    }
+  }
+
+  @Test
+  public void testFurthestFailure() throws WriterException {
+    // The last character isn't the check digit, which would be X
+    BinaryBitmap image = encodeAt("ABC1", BarcodeFormat.CODE_39);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.putAll(hints(new int[] {0, 0, OFFSET, OFFSET}, new int[] {OFFSET - 10, OFFSET - 10, SIZE + 20, SIZE + 20}));
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Arrays.asList(BarcodeFormat.CODE_39, BarcodeFormat.QR_CODE));
+    hints.put(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT, Boolean.TRUE);
+    // The second region gets as far as the checksum
+    assertSame(DecodeOutcome.checksumError(), new MultiFormatReader().decodeOutcome(image, hints));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      assertSame(DecodeOutcome.checksumError(), new ConcurrentMultiFormatReader(executor).decodeOutcome(image, hints));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void assertPointsNear(ResultPoint[] expected, ResultPoint[] actual) {
+    assertEquals(expected.length, actual.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i].getX(), actual[i].getX(), 2.0f);
+      assertEquals(expected[i].getY(), actual[i].getY(), 2.0f);
+    }
+  }
+
+  private static Map<DecodeHintType,?> hints(int[]... regions) {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.REGIONS_OF_INTEREST, Collections.unmodifiableList(Arrays.asList(regions)));
+    return hints;
+  }
+
+  /**
+   * @return a white image with the barcode at {@link #OFFSET} in both directions
+   */
+  private static BinaryBitmap encodeAt(String contents, BarcodeFormat format) throws WriterException {
+    BitMatrix matrix = new MultiFormatWriter().encode(contents, format, SIZE, SIZE);
+    return new BarcodeImageBuilder(OFFSET + matrix.getWidth() + 100, OFFSET + matrix.getHeight() + 100)
+        .paint(matrix, OFFSET, OFFSET).toBinaryBitmap();
+  }
+
+}
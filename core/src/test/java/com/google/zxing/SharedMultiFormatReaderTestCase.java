@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing;
+
+import com.google.zxing.common.BarcodeImageBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests {@link SharedMultiFormatReader}.
+ */
+public final class SharedMultiFormatReaderTestCase extends Assert {
+
+  @Test
+  public void testContext() throws WriterException {
+    SharedMultiFormatReader reader = new SharedMultiFormatReader(null);
+    DecodeContext context = reader.newContext();
+    BinaryBitmap qrCode = BarcodeImageBuilder.encode("shared", BarcodeFormat.QR_CODE, 200, 200);
+    BinaryBitmap code128 = BarcodeImageBuilder.encode("shared128", BarcodeFormat.CODE_128, 200, 200);
+    for (int i = 0; i < 3; i++) {
+      assertEquals("shared", reader.decodeOutcomeWithContext(qrCode, context).getResult().getText());
+      assertEquals("shared128", reader.decodeOutcomeWithContext(code128, context).getResult().getText());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOtherContext() throws WriterException {
+    new SharedMultiFormatReader(null).decodeOutcomeWithContext(
+        BarcodeImageBuilder.encode("shared", BarcodeFormat.QR_CODE, 200, 200), new SharedMultiFormatReader(null).newContext());
+  }
+
+  @Test
+  public void testHints() throws WriterException {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singletonList(BarcodeFormat.CODE_128));
+    SharedMultiFormatReader reader = new SharedMultiFormatReader(hints);
+    BinaryBitmap qrCode = BarcodeImageBuilder.encode("shared", BarcodeFormat.QR_CODE, 200, 200);
+    // Configured hints exclude QR Code, but hints for one call override them
+    assertFalse(reader.decodeOutcome(qrCode, null).isSuccess());
+    assertFalse(reader.decodeOutcome(qrCode, hints).isSuccess());
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Collections.singletonList(BarcodeFormat.QR_CODE));
+    assertTrue(reader.decodeOutcome(qrCode, hints).isSuccess());
+    assertFalse(reader.decodeOutcome(qrCode, null).isSuccess());
+  }
+
+  @Test
+  public void testThreads() throws Exception {
+    final Reader reader = new SharedMultiFormatReader(null);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        final boolean qrCode = i % 2 == 0;
+        futures.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws ReaderException, WriterException {
+            // Each task gets its own bitmap, as bitmaps cache rows and aren't thread-safe
+            BinaryBitmap image = qrCode ?
+                BarcodeImageBuilder.encode("shared", BarcodeFormat.QR_CODE, 200, 200) : BarcodeImageBuilder.encode("shared128", BarcodeFormat.CODE_128, 200, 200);
+            return reader.decode(image).getText();
+          }
+        }));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals(i % 2 == 0 ? "shared" : "shared128", futures.get(i).get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
@@ -17,6 +17,7 @@
 package com.google.zxing.common;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Binarizer;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.BufferedImageLuminanceSource;
 import com.google.zxing.DecodeHintType;
@@ -121,6 +122,14 @@ public abstract class AbstractBlackBoxTestCase extends Assert {
     return barcodeReader;
   }
 
+  /**
+   * @param source luminance of one test image
+   * @return binarizer to decode the image with, a {@link HybridBinarizer} unless overridden
+   */
+  protected Binarizer createBinarizer(LuminanceSource source) {
+    return new HybridBinarizer(source);
+  }
+
   // This workaround is used because AbstractNegativeBlackBoxTestCase overrides this method but does
   // not return SummaryResults.
   @Test
@@ -168,7 +177,7 @@ public abstract class AbstractBlackBoxTestCase extends Assert {
         float rotation = testResults.get(x).getRotation();
         BufferedImage rotatedImage = rotateImage(image, rotation);
         LuminanceSource source = new BufferedImageLuminanceSource(rotatedImage);
-        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+        BinaryBitmap bitmap = new BinaryBitmap(createBinarizer(source));
         try {
           if (decode(bitmap, rotation, expectedText, expectedMetadata, false)) {
             passedCounts[x]++;
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.WriterException;
+
+import java.util.Arrays;
+
+/**
+ * Class that lets one easily build a white image with barcodes painted on it in black.
+ */
+public final class BarcodeImageBuilder {
+
+  private final int width;
+  private final int height;
+  private final int[] pixels;
+
+  public BarcodeImageBuilder(int width, int height) {
+    this.width = width;
+    this.height = height;
+    pixels = new int[width * height];
+    Arrays.fill(pixels, 0xFFFFFFFF);
+  }
+
+  /**
+   * @return an image of just the barcode, the size the writer made it
+   */
+  public static BinaryBitmap encode(String contents, BarcodeFormat format, int width, int height)
+      throws WriterException {
+    BitMatrix matrix = new MultiFormatWriter().encode(contents, format, width, height);
+    return new BarcodeImageBuilder(matrix.getWidth(), matrix.getHeight()).paint(matrix, 0, 0).toBinaryBitmap();
+  }
+
+  /**
+   * Paints a barcode with its top left corner at (left, top).
+   */
+  public BarcodeImageBuilder paint(String contents, BarcodeFormat format, int width, int height, int left, int top)
+      throws WriterException {
+    return paint(new MultiFormatWriter().encode(contents, format, width, height), left, top);
+  }
+
+  /**
+   * Paints the set bits of a matrix black, with its top left corner at (left, top).
+   */
+  public BarcodeImageBuilder paint(BitMatrix matrix, int left, int top) {
+    for (int y = 0; y < matrix.getHeight(); y++) {
+      for (int x = 0; x < matrix.getWidth(); x++) {
+        if (matrix.get(x, y)) {
+          pixels[(top + y) * width + left + x] = 0xFF000000;
+        }
+      }
+    }
+    return this;
+  }
+
+  public LuminanceSource toLuminanceSource() {
+    return new RGBLuminanceSource(width, height, pixels);
+  }
+
+  public BinaryBitmap toBinaryBitmap() {
+    return new BinaryBitmap(new HybridBinarizer(toLuminanceSource()));
+  }
+
+}
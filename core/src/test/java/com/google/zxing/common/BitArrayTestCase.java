@@ -151,8 +151,32 @@ public final class BitArrayTestCase extends Assert {
     array.set(0);
     array.set(63);
     int[] ints = array.getBitArray();
+    assertEquals(2, ints.length);
     assertEquals(1, ints[0]);
     assertEquals(Integer.MIN_VALUE, ints[1]);
+    assertEquals(3, new BitArray(65).getBitArray().length);
+    // A copy, so writing to it doesn't change the array
+    ints[0] = 2;
+    assertTrue(array.get(0));
+    assertFalse(array.get(1));
+  }
+
+  @Test
+  public void testGetWords() {
+    BitArray array = new BitArray(130);
+    array.set(0);
+    array.set(63);
+    array.set(129);
+    long[] words = array.getWords();
+    assertEquals(3, words.length);
+    assertEquals(Long.MIN_VALUE | 1L, words[0]);
+    assertEquals(0L, words[1]);
+    assertEquals(2L, words[2]);
+    words[1] = 1L << 40;
+    assertTrue(array.get(104));
+    assertEquals(104, array.getNextSet(64));
+    assertEquals(1, array.getNextUnset(0));
+    assertEquals(64, array.getNextUnset(63));
   }
 
   @Test
@@ -185,7 +209,7 @@ public final class BitArrayTestCase extends Assert {
       BitArray newBitArray = new BitArray(oldBits.clone(), size);
       newBitArray.reverse();
       int[] newBitsNew = newBitArray.getBitArray();
-      assertTrue(arraysAreEqual(newBitsOriginal, newBitsNew, size / 32 + 1));
+      assertTrue(arraysAreEqual(newBitsOriginal, newBitsNew, (size + 31) / 32));
     }
   }
 
@@ -45,6 +45,38 @@ public final class BitMatrixTestCase extends Assert {
     }
   }
 
+  @Test
+  public void testSetBulk() {
+    BitMatrix matrix = new BitMatrix(70, 3);
+    matrix.set(1, 1);
+    matrix.setBulk(0, 1, 0x80000001);
+    matrix.setBulk(64, 1, 0x3F);
+    matrix.setBulk(32, 2, -1);
+    for (int y = 0; y < 3; y++) {
+      for (int x = 0; x < 70; x++) {
+        boolean expected = (y == 1 && (x == 0 || x == 31 || x >= 64)) || (y == 2 && x >= 32 && x < 64);
+        assertEquals(expected, matrix.get(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testSetWord() {
+    BitMatrix matrix = new BitMatrix(130, 2);
+    matrix.setWord(0, 1, Long.MIN_VALUE | 1L);
+    matrix.setWord(128, 1, 2L);
+    matrix.setWord(64, 0, -1L);
+    for (int y = 0; y < 2; y++) {
+      for (int x = 0; x < 130; x++) {
+        boolean expected = (y == 1 && (x == 0 || x == 63 || x == 129)) || (y == 0 && x >= 64 && x < 128);
+        assertEquals(expected, matrix.get(x, y));
+      }
+    }
+    assertArrayEquals(new int[] {0, 0, 129, 1}, matrix.getEnclosingRectangle());
+    assertArrayEquals(new int[] {64, 0}, matrix.getTopLeftOnBit());
+    assertArrayEquals(new int[] {129, 1}, matrix.getBottomRightOnBit());
+  }
+
   @Test
   public void testSetRegion() {
     BitMatrix matrix = new BitMatrix(5);
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.ReaderException;
+import com.google.zxing.WriterException;
+import com.google.zxing.oned.Code128Reader;
+import com.google.zxing.oned.Code128Writer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link EdgeBinarizer}.
+ */
+public final class EdgeBinarizerTestCase extends Assert {
+
+  @Test
+  public void testSharpRow() throws NotFoundException {
+    // Bars one pixel wide too
+    String bars = "....XXX..X.X..XXXXX.X...";
+    int[] luminances = new int[bars.length()];
+    for (int x = 0; x < luminances.length; x++) {
+      luminances[x] = bars.charAt(x) == 'X' ? 30 : 220;
+    }
+    assertEquals(bars, toString(new EdgeBinarizer(source(luminances)).getBlackRow(0, null)));
+  }
+
+  @Test
+  public void testSubPixelEdges() throws NotFoundException {
+    // A bar from about 3.3 to 7.7 pixels along, whose edges fall within pixels 3 and 8. Each is
+    // on the side of the edge of most of its area.
+    int[] luminances = {200, 200, 200, 162, 50, 50, 50, 50, 162, 200, 200, 200};
+    assertEquals("....XXXX....", toString(new EdgeBinarizer(source(luminances)).getBlackRow(0, null)));
+    // Shading sloping into an edge doesn't move it
+    luminances = new int[] {200, 190, 180, 170, 160, 150, 140, 50, 50, 140, 200, 200};
+    assertEquals(".......XX...", toString(new EdgeBinarizer(source(luminances)).getBlackRow(0, null)));
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testFlatRow() throws NotFoundException {
+    new EdgeBinarizer(source(new int[] {100, 104, 110, 100, 96, 100, 108, 112})).getBlackRow(0, null);
+  }
+
+  @Test
+  public void testBlurredBarcode() throws WriterException, ReaderException {
+    BitMatrix matrix = new Code128Writer().encode("BLURRED", BarcodeFormat.CODE_128, 0, 0);
+    int modules = matrix.getWidth();
+    int width = modules * 2;
+    int[] luminances = new int[width];
+    for (int x = 0; x < width; x++) {
+      luminances[x] = matrix.get(x / 2, 0) ? 60 : 190;
+    }
+    // Blurred over three pixels, and lit more brightly on the right
+    int[] blurred = new int[width];
+    for (int x = 0; x < width; x++) {
+      int sum = 0;
+      for (int dx = -1; dx <= 1; dx++) {
+        sum += luminances[Math.min(width - 1, Math.max(0, x + dx))];
+      }
+      blurred[x] = sum / 3 + 60 * x / width;
+    }
+    LuminanceSource source = source(blurred);
+
+    try {
+      new Code128Reader().decode(new BinaryBitmap(new GlobalHistogramBinarizer(source)));
+      fail("Too blurred for a black point");
+    } catch (ReaderException re) {
+      // continue
+    }
+    assertEquals("BLURRED", new Code128Reader().decode(new BinaryBitmap(new EdgeBinarizer(source))).getText());
+  }
+
+  private static LuminanceSource source(int[] luminances) {
+    int[] pixels = new int[luminances.length];
+    for (int x = 0; x < pixels.length; x++) {
+      int gray = luminances[x];
+      pixels[x] = 0xFF000000 | (gray << 16) | (gray << 8) | gray;
+    }
+    return new RGBLuminanceSource(pixels.length, 1, pixels);
+  }
+
+  private static String toString(BitArray row) {
+    return row.toString().replace(" ", "");
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.WriterException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests {@link GridSampler} implementations against {@link DefaultGridSampler}.
+ */
+public final class GridSamplerTestCase extends Assert {
+
+  @Test
+  public void testDefaultMatchesTransformedPoints() throws NotFoundException {
+    Random random = new Random(0xBEEF);
+    BitMatrix image = buildImage();
+    GridSampler defaultSampler = new DefaultGridSampler();
+    // More than one word of bits per row
+    int dimension = 45;
+    for (int i = 0; i < 20; i++) {
+      PerspectiveTransform transform = randomTransform(random, dimension);
+      // Transform each row of points at once, as the sampler used to
+      BitMatrix expected = new BitMatrix(dimension);
+      float[] points = new float[2 * dimension];
+      for (int y = 0; y < dimension; y++) {
+        for (int x = 0; x < dimension; x++) {
+          points[2 * x] = x + 0.5f;
+          points[2 * x + 1] = y + 0.5f;
+        }
+        transform.transformPoints(points);
+        GridSampler.checkAndNudgePoints(image, points);
+        for (int x = 0; x < dimension; x++) {
+          if (image.get((int) points[2 * x], (int) points[2 * x + 1])) {
+            expected.set(x, y);
+          }
+        }
+      }
+      assertEquals(expected, defaultSampler.sampleGrid(image, dimension, dimension, transform));
+    }
+  }
+
+  @Test
+  public void testFixedPointMatchesDefault() throws NotFoundException {
+    Random random = new Random(0xCAFE);
+    BitMatrix image = buildImage();
+    GridSampler fixedPoint = new FixedPointGridSampler();
+    GridSampler defaultSampler = new DefaultGridSampler();
+    for (int i = 0; i < 20; i++) {
+      PerspectiveTransform transform = randomTransform(random, 33);
+      BitMatrix expected = defaultSampler.sampleGrid(image, 33, 33, transform);
+      BitMatrix actual = fixedPoint.sampleGrid(image, 33, 33, transform);
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testDefaultOutsideImage() throws NotFoundException {
+    new DefaultGridSampler().sampleGrid(new BitMatrix(100, 100), 21, 21,
+                                        0.0f, 0.0f, 21.0f, 0.0f, 21.0f, 21.0f, 0.0f, 21.0f,
+                                        50.0f, 50.0f, 150.0f, 50.0f, 150.0f, 150.0f, 50.0f, 150.0f);
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testOutsideImage() throws NotFoundException {
+    new FixedPointGridSampler().sampleGrid(new BitMatrix(100, 100), 21, 21,
+                                           0.0f, 0.0f, 21.0f, 0.0f, 21.0f, 21.0f, 0.0f, 21.0f,
+                                           50.0f, 50.0f, 150.0f, 50.0f, 150.0f, 150.0f, 50.0f, 150.0f);
+  }
+
+  @Test
+  public void testHint() throws WriterException, NotFoundException {
+    final int[] calls = new int[1];
+    GridSampler counting = new GridSampler() {
+      private final GridSampler delegate = new FixedPointGridSampler();
+      @Override
+      public BitMatrix sampleGrid(BitMatrix image, int dimensionX, int dimensionY,
+                                  float p1ToX, float p1ToY, float p2ToX, float p2ToY,
+                                  float p3ToX, float p3ToY, float p4ToX, float p4ToY,
+                                  float p1FromX, float p1FromY, float p2FromX, float p2FromY,
+                                  float p3FromX, float p3FromY, float p4FromX, float p4FromY)
+          throws NotFoundException {
+        calls[0]++;
+        return delegate.sampleGrid(image, dimensionX, dimensionY,
+                                   p1ToX, p1ToY, p2ToX, p2ToY, p3ToX, p3ToY, p4ToX, p4ToY,
+                                   p1FromX, p1FromY, p2FromX, p2FromY, p3FromX, p3FromY, p4FromX, p4FromY);
+      }
+      @Override
+      public BitMatrix sampleGrid(BitMatrix image, int dimensionX, int dimensionY,
+                                  PerspectiveTransform transform) throws NotFoundException {
+        calls[0]++;
+        return delegate.sampleGrid(image, dimensionX, dimensionY, transform);
+      }
+    };
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.GRID_SAMPLER, counting);
+    for (BarcodeFormat format : new BarcodeFormat[] {BarcodeFormat.QR_CODE, BarcodeFormat.AZTEC}) {
+      BinaryBitmap image = BarcodeImageBuilder.encode("sampler", format, 200, 200);
+      int before = calls[0];
+      Result result = new MultiFormatReader().decode(image, hints);
+      assertEquals("sampler", result.getText());
+      assertTrue(calls[0] > before);
+    }
+    assertSame(counting, GridSampler.fromHints(hints));
+    assertSame(GridSampler.getInstance(), GridSampler.fromHints(null));
+  }
+
+  private static BitMatrix buildImage() {
+    // Modules of 7x7 pixels, skewed a little, so no sample point falls near a module's edge
+    BitMatrix image = new BitMatrix(300, 300);
+    for (int y = 0; y < 300; y++) {
+      for (int x = 0; x < 300; x++) {
+        if (((x / 7) * 31 + (y / 7) * 17) % 5 < 2) {
+          image.set(x, y);
+        }
+      }
+    }
+    return image;
+  }
+
+  private static PerspectiveTransform randomTransform(Random random, int dimension) {
+    float size = dimension;
+    return PerspectiveTransform.quadrilateralToQuadrilateral(
+        0.0f, 0.0f, size, 0.0f, size, size, 0.0f, size,
+        20.0f + random.nextFloat() * 20.0f, 20.0f + random.nextFloat() * 20.0f,
+        260.0f + random.nextFloat() * 20.0f, 20.0f + random.nextFloat() * 20.0f,
+        260.0f + random.nextFloat() * 20.0f, 260.0f + random.nextFloat() * 20.0f,
+        20.0f + random.nextFloat() * 20.0f, 260.0f + random.nextFloat() * 20.0f);
+  }
+
+}
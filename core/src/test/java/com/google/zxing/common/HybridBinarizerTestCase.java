@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests {@link HybridBinarizer}.
+ */
+public final class HybridBinarizerTestCase extends Assert {
+
+  @Test
+  public void testWorkspaceMatchesAllocatingBinarizer() throws NotFoundException {
+    BinarizerWorkspace workspace = new BinarizerWorkspace();
+    Random random = new Random(0xBEEF);
+    for (int i = 0; i < 3; i++) {
+      LuminanceSource source = randomSource(random, 101, 67);
+      BitMatrix expected = new HybridBinarizer(source).getBlackMatrix();
+      BitMatrix actual = new HybridBinarizer(source, workspace).getBlackMatrix();
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testWorkspaceReusedAcrossFrames() throws NotFoundException {
+    BinarizerWorkspace workspace = new BinarizerWorkspace();
+    Random random = new Random(0xCAFE);
+    BitMatrix first = new HybridBinarizer(randomSource(random, 80, 80), workspace).getBlackMatrix();
+    LuminanceSource secondSource = randomSource(random, 80, 80);
+    BitMatrix second = new HybridBinarizer(secondSource, workspace).getBlackMatrix();
+    assertSame(first, second);
+    assertEquals(new HybridBinarizer(secondSource).getBlackMatrix(), second);
+    LuminanceSource larger = randomSource(random, 120, 90);
+    BitMatrix third = new HybridBinarizer(larger, workspace).createBinarizer(larger).getBlackMatrix();
+    assertNotSame(second, third);
+    assertEquals(new HybridBinarizer(larger).getBlackMatrix(), third);
+  }
+
+  @Test
+  public void testDerivedImagesDontReallocate() throws NotFoundException {
+    BinarizerWorkspace workspace = new BinarizerWorkspace();
+    Random random = new Random(0xD1CE);
+    LuminanceSource frame = randomSource(random, 200, 400);
+    HybridBinarizer binarizer = new HybridBinarizer(frame, workspace);
+    BitMatrix frameMatrix = binarizer.getBlackMatrix();
+    byte[] luminances = workspace.getLuminances(frame);
+    int[][] blackPoints = workspace.getBlackPoints(25, 50);
+    int[][] blockThresholds = workspace.getBlockThresholds(25);
+
+    // A band cropped out of the frame leaves the frame's matrix alone
+    BitMatrix bandMatrix = binarizer.createBinarizer(frame.crop(0, 100, 200, 192)).getBlackMatrix();
+    assertNotSame(frameMatrix, bandMatrix);
+    assertEquals(new HybridBinarizer(frame).getBlackMatrix(), frameMatrix);
+
+    // Then the next frame and its band reuse everything
+    LuminanceSource nextFrame = randomSource(random, 200, 400);
+    HybridBinarizer nextBinarizer = new HybridBinarizer(nextFrame, workspace);
+    assertSame(frameMatrix, nextBinarizer.getBlackMatrix());
+    assertEquals(new HybridBinarizer(nextFrame).getBlackMatrix(), frameMatrix);
+    assertSame(bandMatrix, nextBinarizer.createBinarizer(nextFrame.crop(0, 100, 200, 192)).getBlackMatrix());
+    assertSame(luminances, workspace.getLuminances(nextFrame));
+    assertSame(blackPoints, workspace.getBlackPoints(25, 50));
+    assertSame(blockThresholds, workspace.getBlockThresholds(25));
+  }
+
+  @Test
+  public void testIndependentBinarizerDoesntShareWorkspace() throws NotFoundException {
+    BinarizerWorkspace workspace = new BinarizerWorkspace();
+    LuminanceSource source = randomSource(new Random(0xC0DE), 90, 70);
+    HybridBinarizer binarizer = new HybridBinarizer(source, workspace);
+    BitMatrix matrix = binarizer.getBlackMatrix();
+    assertSame(matrix, binarizer.createBinarizer(source).getBlackMatrix());
+    BitMatrix independent = binarizer.createIndependentBinarizer(source).getBlackMatrix();
+    assertNotSame(matrix, independent);
+    assertEquals(matrix, independent);
+    BitMatrix view = new BinaryBitmap(binarizer).newView().getBlackMatrix();
+    assertNotSame(matrix, view);
+    assertEquals(matrix, view);
+  }
+
+  @Test
+  public void testParallelMatchesSequential() throws NotFoundException {
+    // Large enough to be split into several bands, with a partial last row and column of blocks
+    LuminanceSource source = randomSource(new Random(0xF00D), 1203, 1901);
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      BitMatrix expected = new HybridBinarizer(source).getBlackMatrix();
+      assertEquals(expected, new HybridBinarizer(source, null, pool).getBlackMatrix());
+      assertEquals(expected, new HybridBinarizer(source, new BinarizerWorkspace(), pool).getBlackMatrix());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testBlackMatrixRowsMatchFullMatrix() throws NotFoundException {
+    // A partial last row of blocks, and flat patches whose black points depend on their neighbors
+    LuminanceSource source = patchySource(new Random(0xFACE), 123, 205);
+    BitMatrix expected = new HybridBinarizer(source).getBlackMatrix();
+    int[][][] orders = {
+        {{0, 205}},
+        {{150, 30}, {0, 1}, {197, 8}},
+        {{200, 5}, {60, 70}, {8, 8}},
+    };
+    for (int[][] order : orders) {
+      HybridBinarizer binarizer = new HybridBinarizer(source);
+      BitMatrix rows = null;
+      for (int[] band : order) {
+        rows = binarizer.getBlackMatrixRows(band[0], band[1]);
+        for (int y = band[0]; y < band[0] + band[1]; y++) {
+          assertEquals(expected.getRow(y, null), rows.getRow(y, null));
+        }
+      }
+      // The full matrix is completed from the rows already binarized
+      BitMatrix full = binarizer.getBlackMatrix();
+      assertSame(rows, full);
+      assertEquals(expected, full);
+    }
+  }
+
+  /**
+   * @return an image of 16x16 tiles, some flat and some noisy, each around its own gray level
+   */
+  private static LuminanceSource patchySource(Random random, int width, int height) {
+    int tilesWide = (width + 15) / 16;
+    int[] levels = new int[tilesWide * ((height + 15) / 16)];
+    int[] noise = new int[levels.length];
+    for (int i = 0; i < levels.length; i++) {
+      levels[i] = 40 + random.nextInt(176);
+      noise[i] = random.nextBoolean() ? 8 : 80;
+    }
+    int[] pixels = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int tile = (y / 16) * tilesWide + x / 16;
+        int gray = Math.max(0, Math.min(255, levels[tile] + random.nextInt(noise[tile]) - noise[tile] / 2));
+        pixels[y * width + x] = 0xFF000000 | (gray * 0x010101);
+      }
+    }
+    return new RGBLuminanceSource(width, height, pixels);
+  }
+
+  private static LuminanceSource randomSource(Random random, int width, int height) {
+    int[] pixels = new int[width * height];
+    for (int i = 0; i < pixels.length; i++) {
+      int gray = random.nextInt(256);
+      pixels[i] = 0xFF000000 | (gray * 0x010101);
+    }
+    return new RGBLuminanceSource(width, height, pixels);
+  }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link IntegralImageBinarizer}.
+ */
+public final class IntegralImageBinarizerTestCase extends Assert {
+
+  private static final int MODULE_SIZE = 6;
+
+  @Test
+  public void testCheckerboardUnderGradient() throws NotFoundException {
+    // Squares of dark and light, with the whole image getting brighter from left to right
+    int width = 150;
+    int height = 77;
+    int[] pixels = new int[width * height];
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int gray = (isDark(x, y) ? 20 : 120) + x * 100 / width;
+        pixels[y * width + x] = 0xFF000000 | (gray * 0x010101);
+      }
+    }
+    LuminanceSource source = new RGBLuminanceSource(width, height, pixels);
+    assertCheckerboard(new IntegralImageBinarizer(source));
+    assertCheckerboard(new IntegralImageBinarizer(source, 24, true));
+    assertCheckerboard(new IntegralImageBinarizer(source, 24, true).createBinarizer(source));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBadWindowSize() {
+    new IntegralImageBinarizer(new RGBLuminanceSource(1, 1, new int[1]), 257, false);
+  }
+
+  private static void assertCheckerboard(Binarizer binarizer) throws NotFoundException {
+    BitMatrix matrix = binarizer.getBlackMatrix();
+    for (int y = 0; y < matrix.getHeight(); y++) {
+      for (int x = 0; x < matrix.getWidth(); x++) {
+        assertEquals("(" + x + "," + y + ")", isDark(x, y), matrix.get(x, y));
+      }
+    }
+  }
+
+  private static boolean isDark(int x, int y) {
+    return ((x / MODULE_SIZE + y / MODULE_SIZE) & 0x01) == 0;
+  }
+
+}
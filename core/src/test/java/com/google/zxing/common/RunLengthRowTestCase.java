@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests {@link RunLengthRow}.
+ */
+public final class RunLengthRowTestCase extends Assert {
+
+  @Test
+  public void testRuns() {
+    BitArray row = new BitArray(10);
+    row.setRange(2, 5);
+    row.set(9);
+    RunLengthRow runs = new RunLengthRow(row);
+    assertSame(row, runs.getRow());
+    assertEquals(10, runs.getSize());
+    assertEquals(4, runs.getNumRuns());
+    assertFalse(runs.isBlack(0));
+    assertTrue(runs.isBlack(1));
+    assertEquals(2, runs.getRunStart(1));
+    assertEquals(5, runs.getRunEnd(1));
+    assertEquals(3, runs.getRunLength(1));
+    assertEquals(4, runs.getRunLength(2));
+    assertEquals(1, runs.getRunLength(3));
+    assertEquals(0, runs.getRunIndex(1));
+    assertEquals(1, runs.getRunIndex(2));
+    assertEquals(2, runs.getRunIndex(8));
+    assertEquals(3, runs.getRunIndex(9));
+  }
+
+  @Test
+  public void testEmptyRow() {
+    RunLengthRow runs = new RunLengthRow(new BitArray());
+    assertEquals(0, runs.getSize());
+    assertEquals(0, runs.getNumRuns());
+  }
+
+  @Test
+  public void testRandomRows() {
+    Random r = new Random(0x0EADBEEF);
+    for (int i = 0; i < 100; i++) {
+      int size = 1 + r.nextInt(300);
+      BitArray row = new BitArray(size);
+      boolean black = r.nextBoolean();
+      for (int x = 0; x < size; x++) {
+        // Runs of a few pixels, some spanning word boundaries
+        if (r.nextInt(4) == 0) {
+          black = !black;
+        }
+        if (black) {
+          row.set(x);
+        }
+      }
+      RunLengthRow runs = new RunLengthRow(row);
+      int total = 0;
+      for (int run = 0; run < runs.getNumRuns(); run++) {
+        assertTrue(runs.getRunLength(run) > 0);
+        assertEquals(total, runs.getRunStart(run));
+        for (int x = runs.getRunStart(run); x < runs.getRunEnd(run); x++) {
+          assertEquals(runs.isBlack(run), row.get(x));
+          assertEquals(run, runs.getRunIndex(x));
+        }
+        total += runs.getRunLength(run);
+      }
+      assertEquals(size, total);
+    }
+  }
+
+}
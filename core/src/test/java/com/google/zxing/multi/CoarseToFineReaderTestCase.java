@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.FormatException;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.PyramidLuminanceSource;
+import com.google.zxing.Reader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.ResultPointCallback;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.datamatrix.DataMatrixReader;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link CoarseToFineReader}.
+ */
+public final class CoarseToFineReaderTestCase extends Assert {
+
+  private static final String CONTENTS = "http://github.com/zxing/zxing";
+  private static final int WIDTH = 1600;
+  private static final int HEIGHT = 1200;
+  private static final int SYMBOL_LEFT = 900;
+  private static final int SYMBOL_TOP = 500;
+  private static final int SYMBOL_SIZE = 400;
+
+  @Test
+  public void testDecodesAroundCoarseDetection() throws Exception {
+    RecordingReader delegate = new RecordingReader(new QRCodeReader());
+    BinaryBitmap image = new BinaryBitmap(new HybridBinarizer(new PyramidLuminanceSource(symbolImage())));
+    Result result = new CoarseToFineReader(delegate).decode(image);
+    assertEquals(CONTENTS, result.getText());
+    assertEquals(BarcodeFormat.QR_CODE, result.getBarcodeFormat());
+    // Only an area around the symbol was decoded
+    assertEquals(1, delegate.widths.size());
+    assertTrue(delegate.widths.get(0) < WIDTH / 2);
+    for (ResultPoint point : result.getResultPoints()) {
+      assertTrue(point.getX() > SYMBOL_LEFT && point.getX() < SYMBOL_LEFT + SYMBOL_SIZE);
+      assertTrue(point.getY() > SYMBOL_TOP && point.getY() < SYMBOL_TOP + SYMBOL_SIZE);
+    }
+  }
+
+  @Test
+  public void testResultPointCallbackInFullImage() throws Exception {
+    final List<ResultPoint> found = new ArrayList<>();
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, new ResultPointCallback() {
+      @Override
+      public void foundPossibleResultPoint(ResultPoint point) {
+        found.add(point);
+      }
+    });
+    BinaryBitmap image = new BinaryBitmap(new HybridBinarizer(new PyramidLuminanceSource(symbolImage())));
+    new CoarseToFineReader(new QRCodeReader()).decode(image, hints);
+    assertFalse(found.isEmpty());
+    for (ResultPoint point : found) {
+      assertTrue(point.getX() > SYMBOL_LEFT && point.getX() < SYMBOL_LEFT + SYMBOL_SIZE);
+      assertTrue(point.getY() > SYMBOL_TOP && point.getY() < SYMBOL_TOP + SYMBOL_SIZE);
+    }
+  }
+
+  @Test
+  public void testFailedAreaDoesntFallBack() throws Exception {
+    // The QR Code is found, but the delegate can't decode it
+    RecordingReader delegate = new RecordingReader(new DataMatrixReader());
+    BinaryBitmap image = new BinaryBitmap(new HybridBinarizer(new PyramidLuminanceSource(symbolImage())));
+    try {
+      new CoarseToFineReader(delegate).decode(image);
+      fail();
+    } catch (ReaderException re) {
+      // good
+    }
+    assertEquals(1, delegate.widths.size());
+    assertTrue(delegate.widths.get(0) < WIDTH / 2);
+
+    // Unless trying harder
+    delegate.widths.clear();
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    try {
+      new CoarseToFineReader(delegate).decode(image, hints);
+      fail();
+    } catch (ReaderException re) {
+      // good
+    }
+    assertEquals(WIDTH, delegate.widths.get(delegate.widths.size() - 1).intValue());
+  }
+
+  @Test
+  public void testFallsBackWithoutDownsampling() throws Exception {
+    RecordingReader delegate = new RecordingReader(new QRCodeReader());
+    BinaryBitmap image = new BinaryBitmap(new HybridBinarizer(symbolImage()));
+    assertEquals(CONTENTS, new CoarseToFineReader(delegate).decode(image).getText());
+    assertEquals(1, delegate.widths.size());
+    assertEquals(WIDTH, delegate.widths.get(0).intValue());
+  }
+
+  @Test
+  public void testPyramidLevels() {
+    byte[] luminances = {
+        0, 2, 10, 20, 7,
+        4, 6, 30, 40, 7,
+        9, 9, 9, 9, 9,
+    };
+    LuminanceSource source =
+        new PyramidLuminanceSource(new PlanarYUVLuminanceSource(luminances, 5, 3, 0, 0, 5, 3, false));
+    assertTrue(source.isDownsampleSupported());
+    LuminanceSource half = source.downsample();
+    assertSame(half, source.downsample());
+    assertEquals(2, half.getWidth());
+    assertEquals(1, half.getHeight());
+    byte[] row = half.getRow(0, null);
+    assertEquals(3, row[0]);
+    assertEquals(25, row[1]);
+    assertFalse(half.isDownsampleSupported());
+  }
+
+  private static LuminanceSource symbolImage() throws WriterException {
+    BitMatrix symbol = new QRCodeWriter().encode(CONTENTS, BarcodeFormat.QR_CODE, SYMBOL_SIZE, SYMBOL_SIZE);
+    byte[] luminances = new byte[WIDTH * HEIGHT];
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        int symbolX = x - SYMBOL_LEFT;
+        int symbolY = y - SYMBOL_TOP;
+        boolean black = symbolX >= 0 && symbolX < SYMBOL_SIZE && symbolY >= 0 && symbolY < SYMBOL_SIZE &&
+            symbol.get(symbolX, symbolY);
+        luminances[y * WIDTH + x] = (byte) (black ? 30 : 220);
+      }
+    }
+    return new PlanarYUVLuminanceSource(luminances, WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, false);
+  }
+
+  /**
+   * Records the width of each image it is asked to decode.
+   */
+  private static final class RecordingReader implements Reader {
+
+    private final Reader delegate;
+    private final List<Integer> widths = new ArrayList<>();
+
+    RecordingReader(Reader delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image) throws NotFoundException, ChecksumException, FormatException {
+      return decode(image, null);
+    }
+
+    @Override
+    public Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
+        throws NotFoundException, ChecksumException, FormatException {
+      widths.add(image.getWidth());
+      return delegate.decode(image, hints);
+    }
+
+    @Override
+    public void reset() {
+      delegate.reset();
+    }
+  }
+
+}
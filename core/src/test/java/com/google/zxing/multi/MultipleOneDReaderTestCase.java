@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.multi;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BarcodeImageBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link MultipleOneDReader}.
+ */
+public final class MultipleOneDReaderTestCase extends Assert {
+
+  private static final int WIDTH = 640;
+  private static final int HEIGHT = 400;
+
+  @Test
+  public void testAllFound() throws WriterException, NotFoundException {
+    // Two barcodes side by side in each row, one of them twice
+    BinaryBitmap image = new BarcodeImageBuilder(WIDTH, HEIGHT)
+        .paint("ALPHA", BarcodeFormat.CODE_128, 300, 80, 0, 20)
+        .paint("BRAVO", BarcodeFormat.CODE_128, 300, 80, 340, 20)
+        .paint("CHARLIE", BarcodeFormat.CODE_128, 300, 80, 0, 250)
+        .paint("ALPHA", BarcodeFormat.CODE_128, 300, 80, 340, 250)
+        .toBinaryBitmap();
+
+    Result[] results = new MultipleOneDReader().decodeMultiple(image);
+    List<String> texts = new ArrayList<>();
+    for (Result result : results) {
+      assertEquals(BarcodeFormat.CODE_128, result.getBarcodeFormat());
+      int rows = (Integer) result.getResultMetadata().get(ResultMetadataType.AGREEING_ROWS);
+      assertTrue(rows > 1);
+      texts.add(result.getText());
+    }
+    Collections.sort(texts);
+    assertEquals(Arrays.asList("ALPHA", "ALPHA", "BRAVO", "CHARLIE"), texts);
+  }
+
+  @Test
+  public void testMixedFormats() throws WriterException, NotFoundException {
+    // Code 128's last result point is in the middle of its stop pattern; the rest of it mustn't
+    // hide the EAN-13 start guard
+    BinaryBitmap image = new BarcodeImageBuilder(700, 200)
+        .paint("MIXED", BarcodeFormat.CODE_128, 300, 80, 0, 60)
+        .paint("5901234123457", BarcodeFormat.EAN_13, 300, 80, 380, 60)
+        .toBinaryBitmap();
+    Result[] results = new MultipleOneDReader().decodeMultiple(image);
+    assertEquals(2, results.length);
+    Map<BarcodeFormat,String> texts = new EnumMap<>(BarcodeFormat.class);
+    for (Result result : results) {
+      texts.put(result.getBarcodeFormat(), result.getText());
+    }
+    assertEquals("MIXED", texts.get(BarcodeFormat.CODE_128));
+    assertEquals("5901234123457", texts.get(BarcodeFormat.EAN_13));
+  }
+
+  @Test(expected = NotFoundException.class)
+  public void testNotFound() throws NotFoundException {
+    new MultipleOneDReader().decodeMultiple(new BarcodeImageBuilder(WIDTH, HEIGHT).toBinaryBitmap());
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.RunLengthRow;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests {@link MultiFormatOneDReader}, and finding the start patterns of its readers together.
+ */
+public final class MultiFormatOneDReaderTestCase extends Assert {
+
+  @Test
+  public void testDecodeRow() throws WriterException, ReaderException {
+    assertDecodes(BarcodeFormat.EAN_13, "5901234123457");
+    assertDecodes(BarcodeFormat.CODE_39, "CODE39");
+    assertDecodes(BarcodeFormat.CODE_93, "CODE93");
+    assertDecodes(BarcodeFormat.CODE_128, "Code128");
+    assertDecodes(BarcodeFormat.ITF, "123456");
+    assertDecodes(BarcodeFormat.CODABAR, "A1234B", "1234");
+  }
+
+  @Test
+  public void testChecksumFailure() throws WriterException {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.POSSIBLE_FORMATS, Arrays.asList(BarcodeFormat.CODE_128, BarcodeFormat.CODE_39));
+    hints.put(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT, Boolean.TRUE);
+    // The check digit of ABC is X
+    RunLengthRow row = new RunLengthRow(encode(BarcodeFormat.CODE_39, "ABC1"));
+    assertSame(DecodeOutcome.checksumError(), new MultiFormatOneDReader(hints).decodeRowOutcome(0, row, hints));
+  }
+
+  @Test
+  public void testFindAllMatchesFind() throws WriterException {
+    OneDReader[] readers = {
+        new MultiFormatUPCEANReader(null),
+        new Code39Reader(),
+        new CodaBarReader(),
+        new Code93Reader(),
+        new Code128Reader(),
+        new ITFReader(),
+    };
+    StartPatternFinder[] finders = new StartPatternFinder[readers.length];
+    for (int i = 0; i < readers.length; i++) {
+      finders[i] = readers[i].getStartPatternFinder();
+    }
+    Random random = new Random(0xC0DE);
+    BitArray barcode = encode(BarcodeFormat.CODE_128, "Code128");
+    for (int i = 0; i < 200; i++) {
+      RunLengthRow row = new RunLengthRow(randomRow(random, i % 2 == 0 ? barcode : null));
+      int[][] starts = StartPatternFinder.findAll(row, finders);
+      for (int j = 0; j < finders.length; j++) {
+        int[] start;
+        try {
+          start = finders[j].find(row);
+        } catch (NotFoundException nfe) {
+          start = null;
+        }
+        assertArrayEquals(start, starts[j]);
+      }
+    }
+  }
+
+  private static void assertDecodes(BarcodeFormat format, String contents)
+      throws WriterException, ReaderException {
+    assertDecodes(format, contents, contents);
+  }
+
+  private static void assertDecodes(BarcodeFormat format, String contents, String text)
+      throws WriterException, ReaderException {
+    Result result = new MultiFormatOneDReader(null).decodeRow(0, encode(format, contents), null);
+    assertEquals(format, result.getBarcodeFormat());
+    assertEquals(text, result.getText());
+  }
+
+  private static BitArray encode(BarcodeFormat format, String contents) throws WriterException {
+    return new MultiFormatWriter().encode(contents, format, 150, 1).getRow(0, null);
+  }
+
+  /**
+   * @return row of bars of random widths, with the barcode, if any, in the middle of them
+   */
+  private static BitArray randomRow(Random random, BitArray barcode) {
+    int size = 400;
+    int left = barcode == null ? size : (size - barcode.getSize()) / 2;
+    int right = barcode == null ? size : left + barcode.getSize();
+    BitArray row = new BitArray(size);
+    int x = random.nextInt(4);
+    while (x < size) {
+      int width = 1 + random.nextInt(4);
+      for (int i = x; i < x + width && i < size; i++) {
+        if (i < left || i >= right) {
+          row.set(i);
+        }
+      }
+      x += width + 1 + random.nextInt(4);
+    }
+    for (int i = left; i < right; i++) {
+      if (barcode.get(i - left)) {
+        row.set(i);
+      }
+    }
+    return row;
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.DecodeOutcome;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BarcodeImageBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests {@link ParallelOneDReader}.
+ */
+public final class ParallelOneDReaderTestCase extends Assert {
+
+  private static final int WIDTH = 300;
+  private static final int HEIGHT = 2000;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(3);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testSameAsSingleThread() throws WriterException {
+    // The second barcode is closer to the middle, so should be found first
+    BarcodeImageBuilder image = new BarcodeImageBuilder(WIDTH, HEIGHT)
+        .paint("FARTHER", BarcodeFormat.CODE_128, WIDTH, 40, 0, 300)
+        .paint("NEARER", BarcodeFormat.CODE_128, WIDTH, 40, 0, 1500);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+
+    Result expected = new MultiFormatOneDReader(hints).decodeOutcome(image.toBinaryBitmap(), hints).getResult();
+    assertEquals("NEARER", expected.getText());
+    for (int threads = 1; threads <= 4; threads++) {
+      DecodeOutcome outcome = new ParallelOneDReader(executor, threads).decodeOutcome(image.toBinaryBitmap(), hints);
+      assertTrue(outcome.isSuccess());
+      Result result = outcome.getResult();
+      assertEquals(expected.getText(), result.getText());
+      assertEquals(BarcodeFormat.CODE_128, result.getBarcodeFormat());
+      ResultPoint[] expectedPoints = expected.getResultPoints();
+      ResultPoint[] points = result.getResultPoints();
+      assertEquals(expectedPoints.length, points.length);
+      for (int i = 0; i < points.length; i++) {
+        assertEquals(expectedPoints[i], points[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testScanAngles() throws WriterException {
+    BinaryBitmap image = ScanLineTestCase.skewedBarcode("SKEWED", 60);
+    ParallelOneDReader reader = new ParallelOneDReader(executor, 3);
+    assertFalse(reader.decodeOutcome(image, null).isSuccess());
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.SCAN_ANGLES, new int[] {60});
+    DecodeOutcome outcome = reader.decodeOutcome(image, hints);
+    assertTrue(outcome.isSuccess());
+    assertEquals("SKEWED", outcome.getResult().getText());
+    assertEquals(300, outcome.getResult().getResultMetadata().get(ResultMetadataType.ORIENTATION));
+  }
+
+  @Test(timeout = 20000)
+  public void testSaturatedExecutor() throws WriterException {
+    // The executor's only thread is busy, so the calling thread must scan every row itself
+    ExecutorService busyExecutor = Executors.newSingleThreadExecutor();
+    final CountDownLatch release = new CountDownLatch(1);
+    try {
+      busyExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            release.await();
+          } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+      BinaryBitmap image = new BarcodeImageBuilder(WIDTH, HEIGHT)
+          .paint("BUSY", BarcodeFormat.CODE_128, WIDTH, 40, 0, 300)
+          .toBinaryBitmap();
+      Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+      ParallelOneDReader reader = new ParallelOneDReader(busyExecutor, 4);
+      DecodeOutcome outcome = reader.decodeOutcome(image, hints);
+      assertTrue(outcome.isSuccess());
+      assertEquals("BUSY", outcome.getResult().getText());
+      assertFalse(reader.decodeOutcome(new BarcodeImageBuilder(WIDTH, HEIGHT).toBinaryBitmap(), hints).isSuccess());
+    } finally {
+      release.countDown();
+      busyExecutor.shutdown();
+    }
+  }
+
+  @Test
+  public void testNotFound() {
+    BinaryBitmap image = new BarcodeImageBuilder(WIDTH, HEIGHT).toBinaryBitmap();
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    DecodeOutcome outcome = new ParallelOneDReader(executor, 4).decodeOutcome(image, hints);
+    assertFalse(outcome.isSuccess());
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BarcodeImageBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tests {@link RowVotes} and {@link DecodeHintType#ROW_CONSENSUS}.
+ */
+public final class RowVotesTestCase extends Assert {
+
+  @Test
+  public void testVotes() {
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    assertNull(RowVotes.fromHints(null));
+    assertNull(RowVotes.fromHints(hints));
+    hints.put(DecodeHintType.ROW_CONSENSUS, 1);
+    assertNull(RowVotes.fromHints(hints));
+    hints.put(DecodeHintType.ROW_CONSENSUS, 3);
+    RowVotes votes = RowVotes.fromHints(hints);
+    assertNull(votes.getBest());
+
+    Result first = result("123", 10.0f, 100.0f);
+    assertNull(votes.add(first));
+    // Another barcode with the same text, elsewhere in the row
+    assertNull(votes.add(result("123", 150.0f, 250.0f)));
+    // A misread of the first
+    assertNull(votes.add(result("128", 12.0f, 98.0f)));
+    assertNull(votes.add(result("123", 150.0f, 250.0f)));
+    // Ties go to the first found
+    assertNull(votes.add(result("123", 20.0f, 90.0f)));
+    assertSame(first, votes.getBest());
+    // Reversed rows have their points the other way round
+    assertSame(first, votes.add(result("123", 99.0f, 11.0f)));
+    assertEquals(3, first.getResultMetadata().get(ResultMetadataType.AGREEING_ROWS));
+  }
+
+  @Test
+  public void testConsensus() throws WriterException, ReaderException {
+    BinaryBitmap image = BarcodeImageBuilder.encode("CONSENSUS", BarcodeFormat.CODE_128, 300, 150);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.ROW_CONSENSUS, 3);
+    Result result = new MultiFormatOneDReader(hints).decode(image, hints);
+    assertEquals("CONSENSUS", result.getText());
+    assertEquals(3, result.getResultMetadata().get(ResultMetadataType.AGREEING_ROWS));
+
+    // More rows than are scanned can't agree, so the best is returned with as many as did
+    hints.put(DecodeHintType.ROW_CONSENSUS, 100);
+    result = new MultiFormatOneDReader(hints).decode(image, hints);
+    assertEquals("CONSENSUS", result.getText());
+    int agreeing = (Integer) result.getResultMetadata().get(ResultMetadataType.AGREEING_ROWS);
+    assertTrue(agreeing > 3 && agreeing <= 15);
+
+    // Without the hint, the first row is enough
+    result = new MultiFormatOneDReader(null).decode(image);
+    assertNull(result.getResultMetadata());
+  }
+
+  private static Result result(String text, float left, float right) {
+    return new Result(text, null,
+                      new ResultPoint[] {new ResultPoint(left, 50.0f), new ResultPoint(right, 50.0f)},
+                      BarcodeFormat.CODE_128);
+  }
+
+}
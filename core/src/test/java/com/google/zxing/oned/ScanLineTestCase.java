@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link ScanLine} and {@link DecodeHintType#SCAN_ANGLES}.
+ */
+public final class ScanLineTestCase extends Assert {
+
+  private static final int SIZE = 400;
+
+  @Test
+  public void testHorizontalIsRow() {
+    BitMatrix matrix = new BitMatrix(SIZE, SIZE);
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        if ((x * 7 + y * 3) % 11 < 4) {
+          matrix.set(x, y);
+        }
+      }
+    }
+    List<ScanLine> lines = ScanLine.forAngle(SIZE, SIZE, 0, false);
+    assertEquals(15, lines.size());
+    ScanLine middle = lines.get(0);
+    assertEquals(SIZE, middle.getLength());
+    assertEquals(matrix.getRow(SIZE / 2, new BitArray(SIZE)), middle.sample(matrix));
+  }
+
+  @Test
+  public void testLinesStayInImage() {
+    for (int angle = -89; angle <= 90; angle += 7) {
+      for (ScanLine line : ScanLine.forAngle(SIZE, SIZE / 2, angle, true)) {
+        for (ResultPoint end : new ResultPoint[] {new ResultPoint(0.0f, 0.0f),
+                                                  new ResultPoint(line.getLength() - 1, 0.0f)}) {
+          ResultPoint point = line.toImage(end);
+          assertTrue(point.getX() > -0.5f && point.getX() < SIZE - 0.5f);
+          assertTrue(point.getY() > -0.5f && point.getY() < SIZE / 2 - 0.5f);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRowsCoverLine() {
+    int height = SIZE / 2;
+    for (int angle = -89; angle <= 90; angle += 7) {
+      for (ScanLine line : ScanLine.forAngle(SIZE, height, angle, true)) {
+        // Black outside the rows the line says it reads
+        BitMatrix matrix = new BitMatrix(SIZE, height);
+        int bottom = Math.min(height - 1, line.getBottom());
+        assertTrue(line.getTop() <= bottom);
+        for (int y = 0; y < height; y++) {
+          if (y < line.getTop() || y > bottom) {
+            matrix.setRegion(0, y, SIZE, 1);
+          }
+        }
+        assertTrue(line.sample(matrix).isRange(0, line.getLength(), false));
+      }
+    }
+  }
+
+  @Test
+  public void testSkewedBarcode() throws WriterException, ReaderException {
+    BinaryBitmap image = skewedBarcode("SKEWED", 60);
+    try {
+      new Code128Reader().decode(image);
+      fail("Shouldn't be found in rows");
+    } catch (NotFoundException nfe) {
+      // continue
+    }
+
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    hints.put(DecodeHintType.SCAN_ANGLES, new int[] {-60, 60});
+    Result result = new Code128Reader().decode(image, hints);
+    assertEquals("SKEWED", result.getText());
+    assertEquals(300, result.getResultMetadata().get(ResultMetadataType.ORIENTATION));
+    // Start and end of the barcode, which rises to the right
+    ResultPoint[] points = result.getResultPoints();
+    assertTrue(points[1].getX() > points[0].getX());
+    assertTrue(points[1].getY() < points[0].getY());
+
+    // Upside down, it's read along the same lines, reversed
+    result = new Code128Reader().decode(skewedBarcode("SKEWED", 240), hints);
+    assertEquals("SKEWED", result.getText());
+    assertEquals(120, result.getResultMetadata().get(ResultMetadataType.ORIENTATION));
+  }
+
+  /**
+   * @return an image of a Code 128 barcode turned counterclockwise about its center
+   */
+  static BinaryBitmap skewedBarcode(String contents, int degrees) throws WriterException {
+    BitMatrix matrix = new Code128Writer().encode(contents, BarcodeFormat.CODE_128, 240, 40);
+    double radians = Math.toRadians(degrees);
+    double cos = Math.cos(radians);
+    double sin = Math.sin(radians);
+    int[] pixels = new int[SIZE * SIZE];
+    for (int y = 0; y < SIZE; y++) {
+      for (int x = 0; x < SIZE; x++) {
+        double dx = x - SIZE / 2.0;
+        double dy = y - SIZE / 2.0;
+        // Turn the pixel back clockwise to find where it is in the barcode
+        int u = (int) Math.floor(dx * cos - dy * sin + matrix.getWidth() / 2.0);
+        int v = (int) Math.floor(dx * sin + dy * cos + matrix.getHeight() / 2.0);
+        boolean black = u >= 0 && u < matrix.getWidth() && v >= 0 && v < matrix.getHeight() &&
+            matrix.get(u, v);
+        pixels[y * SIZE + x] = black ? 0xFF000000 : 0xFFFFFFFF;
+      }
+    }
+    return new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(SIZE, SIZE, pixels)));
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.common.AbstractBlackBoxTestCase;
+import com.google.zxing.common.EdgeBinarizer;
+
+/**
+ * The blurred images of {@link UPCABlackBox5TestCase}, binarized by {@link EdgeBinarizer}. More
+ * decode than with the {@link com.google.zxing.common.HybridBinarizer} that test uses.
+ */
+public final class UPCAEdgeBlackBox5TestCase extends AbstractBlackBoxTestCase {
+
+  public UPCAEdgeBlackBox5TestCase() {
+    super("src/test/resources/blackbox/upca-5", new MultiFormatReader(), BarcodeFormat.UPC_A);
+    addTest(24, 26, 0, 2, 0.0f);
+    addTest(24, 26, 0, 0, 180.0f);
+  }
+
+  @Override
+  protected Binarizer createBinarizer(LuminanceSource source) {
+    return new EdgeBinarizer(source);
+  }
+
+}
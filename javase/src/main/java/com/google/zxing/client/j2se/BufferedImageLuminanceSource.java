@@ -21,6 +21,13 @@ import com.google.zxing.LuminanceSource;
 import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 
 /**
@@ -37,6 +44,10 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
   private final BufferedImage image;
   private final int left;
   private final int top;
+  // The gray image's pixels, if they can be accessed directly, else null
+  private final byte[] luminances;
+  private final int luminancesOffset;
+  private final int luminancesStride;
 
   public BufferedImageLuminanceSource(BufferedImage image) {
     this(image, 0, 0, image.getWidth(), image.getHeight());
@@ -55,36 +66,132 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
       }
 
       this.image = new BufferedImage(sourceWidth, sourceHeight, BufferedImage.TYPE_BYTE_GRAY);
+      byte[] grayData = ((DataBufferByte) this.image.getRaster().getDataBuffer()).getData();
 
-      WritableRaster raster = this.image.getRaster();
-      int[] buffer = new int[width];
-      for (int y = top; y < top + height; y++) {
-        image.getRGB(left, y, width, 1, buffer, 0, sourceWidth);
-        for (int x = 0; x < width; x++) {
-          int pixel = buffer[x];
-
-          // The color of fully-transparent pixels is irrelevant. They are often, technically, fully-transparent
-          // black (0 alpha, and then 0 RGB). They are often used, of course as the "white" area in a
-          // barcode image. Force any such pixel to be white:
-          if ((pixel & 0xFF000000) == 0) {
-            pixel = 0xFFFFFFFF; // = white
+      // Read the pixels of common layouts straight from their data, and anything else through getRGB()
+      if (!convertPixels(image, left, top, width, height, grayData)) {
+        int[] buffer = new int[width];
+        for (int y = top; y < top + height; y++) {
+          image.getRGB(left, y, width, 1, buffer, 0, sourceWidth);
+          int outputOffset = y * sourceWidth + left;
+          for (int x = 0; x < width; x++) {
+            grayData[outputOffset + x] = (byte) luminance(buffer[x]);
           }
-          
-          // .299R + 0.587G + 0.114B (YUV/YIQ for PAL and NTSC), 
-          // (306*R) >> 10 is approximately equal to R*0.299, and so on.
-          // 0x200 >> 10 is 0.5, it implements rounding.
-          buffer[x] =
-              (306 * ((pixel >> 16) & 0xFF) +
-               601 * ((pixel >> 8) & 0xFF) +
-               117 * (pixel & 0xFF) +
-               0x200) >> 10;
         }
-        raster.setPixels(left, y, width, 1, buffer);
       }
 
     }
     this.left = left;
     this.top = top;
+
+    WritableRaster raster = this.image.getRaster();
+    SampleModel sampleModel = raster.getSampleModel();
+    if (sampleModel instanceof PixelInterleavedSampleModel &&
+        ((PixelInterleavedSampleModel) sampleModel).getPixelStride() == 1 &&
+        raster.getDataBuffer() instanceof DataBufferByte) {
+      luminances = ((DataBufferByte) raster.getDataBuffer()).getData();
+      luminancesStride = ((PixelInterleavedSampleModel) sampleModel).getScanlineStride();
+      luminancesOffset = raster.getDataBuffer().getOffset() +
+          ((PixelInterleavedSampleModel) sampleModel).getBandOffsets()[0] -
+          raster.getSampleModelTranslateY() * luminancesStride - raster.getSampleModelTranslateX();
+    } else {
+      luminances = null;
+      luminancesOffset = 0;
+      luminancesStride = 0;
+    }
+  }
+
+  /**
+   * Converts the given area of the image to luminance by reading its data directly, for the most
+   * common layouts of RGB images.
+   *
+   * @return false if the image's layout is not one handled here
+   */
+  private static boolean convertPixels(BufferedImage image,
+                                       int left,
+                                       int top,
+                                       int width,
+                                       int height,
+                                       byte[] grayData) {
+    WritableRaster raster = image.getRaster();
+    SampleModel sampleModel = raster.getSampleModel();
+    DataBuffer dataBuffer = raster.getDataBuffer();
+    int translateX = raster.getSampleModelTranslateX();
+    int translateY = raster.getSampleModelTranslateY();
+    int outputStride = image.getWidth();
+    switch (image.getType()) {
+      case BufferedImage.TYPE_3BYTE_BGR:
+      case BufferedImage.TYPE_4BYTE_ABGR: {
+        if (!(sampleModel instanceof PixelInterleavedSampleModel) || !(dataBuffer instanceof DataBufferByte)) {
+          return false;
+        }
+        ComponentSampleModel componentModel = (ComponentSampleModel) sampleModel;
+        byte[] data = ((DataBufferByte) dataBuffer).getData();
+        int pixelStride = componentModel.getPixelStride();
+        int scanlineStride = componentModel.getScanlineStride();
+        // Bands are always in R, G, B (, A) order, wherever they are in each pixel
+        int[] bandOffsets = componentModel.getBandOffsets();
+        int redOffset = bandOffsets[0];
+        int greenOffset = bandOffsets[1];
+        int blueOffset = bandOffsets[2];
+        boolean hasAlpha = bandOffsets.length > 3;
+        int alphaOffset = hasAlpha ? bandOffsets[3] : 0;
+        for (int y = top; y < top + height; y++) {
+          int offset = dataBuffer.getOffset() + (y - translateY) * scanlineStride + (left - translateX) * pixelStride;
+          int outputOffset = y * outputStride + left;
+          for (int x = 0; x < width; x++, offset += pixelStride) {
+            int luminance;
+            if (hasAlpha && data[offset + alphaOffset] == 0) {
+              // See luminance(int)
+              luminance = 0xFF;
+            } else {
+              luminance = luminance(data[offset + redOffset] & 0xFF,
+                                    data[offset + greenOffset] & 0xFF,
+                                    data[offset + blueOffset] & 0xFF);
+            }
+            grayData[outputOffset + x] = (byte) luminance;
+          }
+        }
+        return true;
+      }
+      case BufferedImage.TYPE_INT_RGB:
+      case BufferedImage.TYPE_INT_ARGB: {
+        if (!(sampleModel instanceof SinglePixelPackedSampleModel) || !(dataBuffer instanceof DataBufferInt)) {
+          return false;
+        }
+        int[] data = ((DataBufferInt) dataBuffer).getData();
+        int scanlineStride = ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride();
+        // Pixels are 0xAARRGGBB; without an alpha channel, they are all opaque
+        int opaque = image.getType() == BufferedImage.TYPE_INT_RGB ? 0xFF000000 : 0;
+        for (int y = top; y < top + height; y++) {
+          int offset = dataBuffer.getOffset() + (y - translateY) * scanlineStride + (left - translateX);
+          int outputOffset = y * outputStride + left;
+          for (int x = 0; x < width; x++) {
+            grayData[outputOffset + x] = (byte) luminance(data[offset + x] | opaque);
+          }
+        }
+        return true;
+      }
+      default:
+        return false;
+    }
+  }
+
+  private static int luminance(int pixel) {
+    // The color of fully-transparent pixels is irrelevant. They are often, technically, fully-transparent
+    // black (0 alpha, and then 0 RGB). They are often used, of course as the "white" area in a
+    // barcode image. Force any such pixel to be white:
+    if ((pixel & 0xFF000000) == 0) {
+      return 0xFF;
+    }
+    return luminance((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+  }
+
+  private static int luminance(int red, int green, int blue) {
+    // .299R + 0.587G + 0.114B (YUV/YIQ for PAL and NTSC),
+    // (306*R) >> 10 is approximately equal to R*0.299, and so on.
+    // 0x200 >> 10 is 0.5, it implements rounding.
+    return (306 * red + 601 * green + 117 * blue + 0x200) >> 10;
   }
 
   @Override
@@ -96,8 +203,12 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
     if (row == null || row.length < width) {
       row = new byte[width];
     }
-    // The underlying raster of image consists of bytes with the luminance values
-    image.getRaster().getDataElements(left, top + y, width, 1, row);
+    if (luminances != null) {
+      System.arraycopy(luminances, luminancesOffset + (top + y) * luminancesStride + left, row, 0, width);
+    } else {
+      // The underlying raster of image consists of bytes with the luminance values
+      image.getRaster().getDataElements(left, top + y, width, 1, row);
+    }
     return row;
   }
 
@@ -105,10 +216,26 @@ public final class BufferedImageLuminanceSource extends LuminanceSource {
   public byte[] getMatrix() {
     int width = getWidth();
     int height = getHeight();
-    int area = width * height;
-    byte[] matrix = new byte[area];
-    // The underlying raster of image consists of area bytes with the luminance values
-    image.getRaster().getDataElements(left, top, width, height, matrix);
+    if (luminances == null) {
+      byte[] matrix = new byte[width * height];
+      // The underlying raster of image consists of area bytes with the luminance values
+      image.getRaster().getDataElements(left, top, width, height, matrix);
+      return matrix;
+    }
+
+    // If the caller asks for the entire underlying image, save the copy and give them the
+    // original data. The docs specifically warn that result.length must be ignored.
+    if (luminancesOffset == 0 && left == 0 && top == 0 &&
+        width == luminancesStride && height == image.getHeight()) {
+      return luminances;
+    }
+
+    byte[] matrix = new byte[width * height];
+    int inputOffset = luminancesOffset + top * luminancesStride + left;
+    for (int y = 0; y < height; y++) {
+      System.arraycopy(luminances, inputOffset, matrix, y * width, width);
+      inputOffset += luminancesStride;
+    }
     return matrix;
   }
 
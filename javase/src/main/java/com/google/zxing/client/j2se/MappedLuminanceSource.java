@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.client.j2se;
+
+import com.google.zxing.LuminanceSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>A {@link LuminanceSource} over raw 8-bit luminance data in a {@link ByteBuffer}, typically a
+ * memory-mapped file. This is meant for very large raw grayscale images, or the Y plane of YUV
+ * images like NV21, which should not be read onto the heap whole. Rows are copied straight out of
+ * the buffer as they are requested, and cropping returns a view of the same buffer.</p>
+ *
+ * <p>Reads never move the position of the shared buffer, so an instance and its crops may be
+ * read by several threads at once, as by views from {@code BinaryBitmap.newView()}.</p>
+ */
+public final class MappedLuminanceSource extends LuminanceSource {
+
+  private final ByteBuffer data;
+  private final int dataWidth;
+  private final int dataHeight;
+  private final int left;
+  private final int top;
+
+  /**
+   * @param data luminance data, one byte per pixel, row by row from index 0
+   * @param dataWidth width of the image in data
+   * @param dataHeight height of the image in data
+   * @param left left of the area of the image to use
+   * @param top top of the area of the image to use
+   * @param width width of the area of the image to use
+   * @param height height of the area of the image to use
+   */
+  public MappedLuminanceSource(ByteBuffer data,
+                               int dataWidth,
+                               int dataHeight,
+                               int left,
+                               int top,
+                               int width,
+                               int height) {
+    super(width, height);
+    if (left < 0 || top < 0 || left + width > dataWidth || top + height > dataHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    if (data.capacity() < (long) dataWidth * dataHeight) {
+      throw new IllegalArgumentException("Data is smaller than the image.");
+    }
+    this.data = data;
+    this.dataWidth = dataWidth;
+    this.dataHeight = dataHeight;
+    this.left = left;
+    this.top = top;
+  }
+
+  /**
+   * Maps a whole raw image from a file. For a YUV image such as NV21, whose luminance (Y) plane
+   * comes first, this maps just that plane.
+   *
+   * @param file file to map
+   * @param offset offset of the first pixel in the file, e.g. to skip a header
+   * @param dataWidth width of the image in the file
+   * @param dataHeight height of the image in the file
+   * @return a source over the mapped image
+   * @throws IOException if the file can't be mapped
+   */
+  public static MappedLuminanceSource map(Path file, long offset, int dataWidth, int dataHeight)
+      throws IOException {
+    return map(file, offset, dataWidth, dataHeight, 0, 0, dataWidth, dataHeight);
+  }
+
+  /**
+   * Maps only the rows of a raw image in a file which contain the given area, so that regions of
+   * files too large to map whole can be decoded.
+   *
+   * @param file file to map
+   * @param offset offset of the first pixel in the file, e.g. to skip a header
+   * @param dataWidth width of the image in the file
+   * @param dataHeight height of the image in the file
+   * @param left left of the area of the image to use
+   * @param top top of the area of the image to use
+   * @param width width of the area of the image to use
+   * @param height height of the area of the image to use
+   * @return a source over the mapped area
+   * @throws IOException if the file can't be mapped
+   */
+  public static MappedLuminanceSource map(Path file,
+                                          long offset,
+                                          int dataWidth,
+                                          int dataHeight,
+                                          int left,
+                                          int top,
+                                          int width,
+                                          int height) throws IOException {
+    if (left < 0 || top < 0 || left + width > dataWidth || top + height > dataHeight) {
+      throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+    }
+    long size = (long) dataWidth * height;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Area is too large to map: " + size + " bytes");
+    }
+    ByteBuffer data;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // The mapping remains valid after the channel is closed
+      data = channel.map(FileChannel.MapMode.READ_ONLY, offset + (long) top * dataWidth, size);
+    }
+    return new MappedLuminanceSource(data, dataWidth, height, left, 0, width, height);
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    // A view of its own per read, positioned without disturbing reads by other threads
+    ByteBuffer view = data.duplicate();
+    view.position((y + top) * dataWidth + left);
+    view.get(row, 0, width);
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    int width = getWidth();
+    int height = getHeight();
+    byte[] matrix = new byte[width * height];
+    int inputOffset = top * dataWidth + left;
+    ByteBuffer view = data.duplicate();
+
+    // If the width matches the full width of the underlying data, perform a single copy.
+    if (width == dataWidth) {
+      view.position(inputOffset);
+      view.get(matrix);
+      return matrix;
+    }
+
+    // Otherwise copy one cropped row at a time.
+    for (int y = 0; y < height; y++) {
+      view.position(inputOffset);
+      view.get(matrix, y * width, width);
+      inputOffset += dataWidth;
+    }
+    return matrix;
+  }
+
+  @Override
+  public boolean isCropSupported() {
+    return true;
+  }
+
+  @Override
+  public LuminanceSource crop(int left, int top, int width, int height) {
+    return new MappedLuminanceSource(data, dataWidth, dataHeight, this.left + left, this.top + top, width, height);
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.client.j2se;
+
+import com.google.zxing.LuminanceSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests {@link MappedLuminanceSource}.
+ */
+public final class MappedLuminanceSourceTestCase extends Assert {
+
+  private static final int WIDTH = 10;
+  private static final int HEIGHT = 6;
+
+  @Test
+  public void testGetRow() {
+    LuminanceSource source = new MappedLuminanceSource(ByteBuffer.wrap(image()), WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT);
+    assertArrayEquals(pixels(0, 2, WIDTH), source.getRow(2, null));
+    // A longer row than needed is filled from the start
+    byte[] row = source.getRow(5, new byte[WIDTH + 3]);
+    assertArrayEquals(pixels(0, 5, WIDTH), Arrays.copyOf(row, WIDTH));
+  }
+
+  @Test
+  public void testCrop() {
+    LuminanceSource source = new MappedLuminanceSource(ByteBuffer.wrap(image()), WIDTH, HEIGHT, 1, 1, 8, 4);
+    LuminanceSource cropped = source.crop(2, 1, 5, 3);
+    assertEquals(5, cropped.getWidth());
+    assertEquals(3, cropped.getHeight());
+    assertArrayEquals(pixels(3, 2, 5), cropped.getRow(0, null));
+    assertArrayEquals(pixels(3, 4, 5), cropped.getRow(2, null));
+    byte[] matrix = cropped.getMatrix();
+    for (int y = 0; y < 3; y++) {
+      assertArrayEquals(pixels(3, 2 + y, 5), Arrays.copyOfRange(matrix, y * 5, y * 5 + 5));
+    }
+  }
+
+  @Test
+  public void testMapArea() throws IOException {
+    Path file = Files.createTempFile("mapped", ".raw");
+    try {
+      // A header to skip, then the image
+      byte[] image = image();
+      byte[] contents = new byte[4 + image.length];
+      System.arraycopy(image, 0, contents, 4, image.length);
+      Files.write(file, contents);
+
+      LuminanceSource source = MappedLuminanceSource.map(file, 4, WIDTH, HEIGHT, 2, 3, 6, 2);
+      assertEquals(6, source.getWidth());
+      assertEquals(2, source.getHeight());
+      assertArrayEquals(pixels(2, 3, 6), source.getRow(0, null));
+      assertArrayEquals(pixels(2, 4, 6), source.getRow(1, null));
+      byte[] matrix = source.getMatrix();
+      assertArrayEquals(pixels(2, 4, 6), Arrays.copyOfRange(matrix, 6, 12));
+      assertArrayEquals(pixels(3, 4, 2), source.crop(1, 1, 2, 1).getRow(0, null));
+
+      assertEquals(WIDTH * HEIGHT, MappedLuminanceSource.map(file, 4, WIDTH, HEIGHT).getMatrix().length);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeLeft() {
+    new MappedLuminanceSource(ByteBuffer.wrap(image()), WIDTH, HEIGHT, -1, 0, 4, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTop() {
+    new MappedLuminanceSource(ByteBuffer.wrap(image()), WIDTH, HEIGHT, 0, -1, 4, 4);
+  }
+
+  @Test
+  public void testConcurrentReads() throws InterruptedException, ExecutionException {
+    final LuminanceSource source =
+        new MappedLuminanceSource(ByteBuffer.wrap(image()), WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Collection<Callable<Boolean>> readers = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        final int y = i;
+        readers.add(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            byte[] expected = pixels(0, y, WIDTH);
+            byte[] row = null;
+            for (int j = 0; j < 10000; j++) {
+              row = source.getRow(y, row);
+              if (!Arrays.equals(expected, row)) {
+                return false;
+              }
+            }
+            return true;
+          }
+        });
+      }
+      for (Future<Boolean> read : executor.invokeAll(readers)) {
+        assertTrue(read.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * @return image whose pixel at (x,y) is 16 * y + x
+   */
+  private static byte[] image() {
+    byte[] image = new byte[WIDTH * HEIGHT];
+    for (int y = 0; y < HEIGHT; y++) {
+      System.arraycopy(pixels(0, y, WIDTH), 0, image, y * WIDTH, WIDTH);
+    }
+    return image;
+  }
+
+  private static byte[] pixels(int left, int y, int width) {
+    byte[] pixels = new byte[width];
+    for (int x = 0; x < width; x++) {
+      pixels[x] = (byte) (16 * y + left + x);
+    }
+    return pixels;
+  }
+
+}
@@ -22,11 +22,11 @@ import com.google.zxing.ChecksumException;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.FormatException;
 import com.google.zxing.LuminanceSource;
-import com.google.zxing.MultiFormatReader;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.Reader;
 import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
+import com.google.zxing.SharedMultiFormatReader;
 import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
 import com.google.zxing.client.j2se.ImageReader;
 import com.google.zxing.common.GlobalHistogramBinarizer;
@@ -105,10 +105,19 @@ public final class DecodeServlet extends HttpServlet {
     HINTS_PURE.put(DecodeHintType.PURE_BARCODE, Boolean.TRUE);
   }
 
+  // Shared by all requests. They're made in init(), not statically, so that nothing they hold
+  // outlives the servlet when the app is redeployed.
+  private Reader reader;
+  private Reader pureReader;
+  private MultipleBarcodeReader multiReader;
   private Iterable<String> blockedURLSubstrings;
 
   @Override
   public void init(ServletConfig servletConfig) throws ServletException {
+    reader = new SharedMultiFormatReader(HINTS);
+    pureReader = new SharedMultiFormatReader(HINTS_PURE);
+    multiReader = new GenericMultipleBarcodeReader(reader);
+
     Logger logger = Logger.getLogger("com.google.zxing");
     ServletContext context = servletConfig.getServletContext();
     logger.addHandler(new ServletContextLogHandler(context));
@@ -286,9 +295,9 @@ public final class DecodeServlet extends HttpServlet {
     }
   }
 
-  private static void processStream(InputStream is,
-                                    HttpServletRequest request,
-                                    HttpServletResponse response) throws ServletException, IOException {
+  private void processStream(InputStream is,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws ServletException, IOException {
 
     BufferedImage image;
     try {
@@ -313,9 +322,9 @@ public final class DecodeServlet extends HttpServlet {
     processImage(image, request, response);
   }
   
-  private static void processImage(BufferedImage image,
-                                   HttpServletRequest request,
-                                   HttpServletResponse response) throws IOException, ServletException {
+  private void processImage(BufferedImage image,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException, ServletException {
 
     LuminanceSource source = new BufferedImageLuminanceSource(image);
     BinaryBitmap bitmap = new BinaryBitmap(new GlobalHistogramBinarizer(source));
@@ -323,11 +332,9 @@ public final class DecodeServlet extends HttpServlet {
 
     try {
 
-      Reader reader = new MultiFormatReader();
       ReaderException savedException = null;
       try {
         // Look for multiple barcodes
-        MultipleBarcodeReader multiReader = new GenericMultipleBarcodeReader(reader);
         Result[] theResults = multiReader.decodeMultiple(bitmap, HINTS);
         if (theResults != null) {
           results.addAll(Arrays.asList(theResults));
@@ -339,7 +346,7 @@ public final class DecodeServlet extends HttpServlet {
       if (results.isEmpty()) {
         try {
           // Look for pure barcode
-          Result theResult = reader.decode(bitmap, HINTS_PURE);
+          Result theResult = pureReader.decode(bitmap);
           if (theResult != null) {
             results.add(theResult);
           }
@@ -351,7 +358,7 @@ public final class DecodeServlet extends HttpServlet {
       if (results.isEmpty()) {
         try {
           // Look for normal barcode in photo
-          Result theResult = reader.decode(bitmap, HINTS);
+          Result theResult = reader.decode(bitmap);
           if (theResult != null) {
             results.add(theResult);
           }
@@ -364,7 +371,7 @@ public final class DecodeServlet extends HttpServlet {
         try {
           // Try again with other binarizer
           BinaryBitmap hybridBitmap = new BinaryBitmap(new HybridBinarizer(source));
-          Result theResult = reader.decode(hybridBitmap, HINTS);
+          Result theResult = reader.decode(hybridBitmap);
           if (theResult != null) {
             results.add(theResult);
           }